@@ -1,6 +1,7 @@
 package com.pappgroup.pappapp.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -24,7 +25,9 @@ public class EmailConfig {
     @Value("${spring.mail.password}")
     private String password;
 
+    // app.mail.transport=fake iken FakeJavaMailSender kullanılır
     @Bean
+    @ConditionalOnProperty(name = "app.mail.transport", havingValue = "smtp", matchIfMissing = true)
     public JavaMailSender getJavaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         mailSender.setHost(host);
@@ -37,6 +40,10 @@ public class EmailConfig {
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
         props.put("mail.debug", "false");
+        // Outbox worker'ları yanıt vermeyen sunucuda sonsuza kadar beklemesin
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.smtp.writetimeout", "10000");
 
         return mailSender;
     }
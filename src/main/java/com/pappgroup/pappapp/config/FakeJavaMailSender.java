@@ -0,0 +1,69 @@
+package com.pappgroup.pappapp.config;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// SMTP'ye bağlanmadan email'leri bellekte toplar (app.mail.transport=fake).
+// Lokal geliştirme ve testler içindir; failNext ile gönderim hataları taklit edilebilir.
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "fake")
+@Slf4j
+public class FakeJavaMailSender extends JavaMailSenderImpl {
+
+    private final List<MimeMessage> sentMessages = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        // Gerçek implementasyondaki gibi her çağrı tek bağlantıdır
+        connections.incrementAndGet();
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        for (MimeMessage message : mimeMessages) {
+            if (failuresToInject.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                failedMessages.put(message, new MessagingException("Injected send failure"));
+                continue;
+            }
+            sentMessages.add(message);
+            try {
+                log.info("Fake mail to {}: {}", (Object) message.getAllRecipients(), message.getSubject());
+            } catch (MessagingException e) {
+                log.info("Fake mail sent");
+            }
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    public List<MimeMessage> getSentMessages() {
+        return List.copyOf(sentMessages);
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public void failNext(int count) {
+        failuresToInject.set(count);
+    }
+
+    public void reset() {
+        sentMessages.clear();
+        failuresToInject.set(0);
+        connections.set(0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pappgroup.pappapp.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Başlık ve açıklama aramasında kullanılan PostgreSQL nesneleri Flyway ile oluşturulur
+// (db/migration/V3__search_objects.sql). Burada sadece mevcut oldukları kontrol edilir;
+// yoksa kelime araması LIKE'a düşer.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FullTextSearchSupport implements CommandLineRunner {
+
+    private static final String CHECK_SQL = "SELECT "
+            + "EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'turkish_unaccent') "
+            + "AND EXISTS (SELECT 1 FROM pg_proc WHERE proname = 'immutable_unaccent') "
+            + "AND EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.full-text.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean available;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            log.info("Full-text search disabled, keyword search falls back to LIKE");
+            return;
+        }
+
+        try {
+            available = Boolean.TRUE.equals(jdbcTemplate.queryForObject(CHECK_SQL, Boolean.class));
+        } catch (Exception e) {
+            log.warn("Full-text search objects could not be checked: {}", e.getMessage());
+        }
+        if (available) {
+            log.info("Full-text search objects are ready");
+        } else {
+            log.warn("Full-text search objects are missing, keyword search falls back to LIKE");
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
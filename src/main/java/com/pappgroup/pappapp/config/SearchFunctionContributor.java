@@ -0,0 +1,38 @@
+package com.pappgroup.pappapp.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.spi.TypeConfiguration;
+
+// Criteria sorgularından PostgreSQL full-text ve trigram operatörlerine erişim.
+// META-INF/services/org.hibernate.boot.model.FunctionContributor ile kaydedilir.
+// İfadeler db/migration/V3__search_objects.sql'deki index tanımlarıyla aynı tutulmalı.
+public class SearchFunctionContributor implements FunctionContributor {
+
+    private static final String DOCUMENT =
+            "to_tsvector('turkish_unaccent', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+    private static final String QUERY = "websearch_to_tsquery('turkish_unaccent', ?3)";
+    private static final String FOLDED_TITLE = "immutable_unaccent(lower(?1))";
+    private static final String FOLDED_KEYWORD = "immutable_unaccent(lower(?2))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        TypeConfiguration typeConfiguration = functionContributions.getTypeConfiguration();
+        BasicType<Boolean> booleanType = typeConfiguration.getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = typeConfiguration.getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+
+        // fts_match(title, description, keyword)
+        registry.registerPattern("fts_match", "(" + DOCUMENT + " @@ " + QUERY + ")", booleanType);
+        // fts_rank(title, description, keyword)
+        registry.registerPattern("fts_rank", "ts_rank_cd(" + DOCUMENT + ", " + QUERY + ")", doubleType);
+        // trgm_match(title, keyword): keyword başlıktaki bir kelimeye yeterince benziyor mu
+        registry.registerPattern("trgm_match", "(" + FOLDED_KEYWORD + " <% " + FOLDED_TITLE + ")", booleanType);
+        // trgm_similarity(title, keyword)
+        registry.registerPattern("trgm_similarity",
+                "word_similarity(" + FOLDED_KEYWORD + ", " + FOLDED_TITLE + ")", doubleType);
+    }
+}
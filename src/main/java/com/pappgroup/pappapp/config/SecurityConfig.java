@@ -1,9 +1,12 @@
 package com.pappgroup.pappapp.config;
 
+import com.pappgroup.pappapp.security.BoundedPasswordEncoder;
 import com.pappgroup.pappapp.security.JwtAuthenticationEntryPoint;
 import com.pappgroup.pappapp.security.JwtAuthenticationFilter;
 import com.pappgroup.pappapp.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,7 +15,9 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -21,6 +26,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -36,14 +43,50 @@ public class SecurityConfig {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Value("${app.security.password.encoder:argon2}")
+    private String passwordEncoderId;
+
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.argon2-memory-kb:16384}")
+    private int argon2MemoryKb;
+
+    @Value("${app.security.password.argon2-iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.password.argon2-parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${app.security.password.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.password.hashing-queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.password.hashing-max-wait-ms:5000}")
+    private long hashingMaxWaitMs;
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
 
+    // Yeni hash'ler "{argon2}..." / "{bcrypt}..." önekiyle yazılır. Öneksiz eski kayıtlar BCrypt olarak doğrulanır
+    // ve upgradeEncoding true döner; AuthService girişte bunları (ve parametresi eskiyen hash'leri) yeniden hash'ler.
+    // Argon2 hash başına argon2-memory-kb bellek kullanır; eşzamanlı hash sayısı hashing-threads ile sınırlıdır.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKb, argon2Iterations));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(passwordEncoderId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, threads, hashingQueueCapacity, hashingMaxWaitMs, meterRegistry);
     }
 
     @Bean
@@ -92,6 +135,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/categories/public/**").permitAll()
                         .requestMatchers("/api/locations/public/**").permitAll()
 
+                        // WebSocket el sıkışması - kimlik doğrulama STOMP CONNECT'te JWT ile yapılır
+                        .requestMatchers("/ws/**").permitAll()
+
                         // Test endpoint'leri (sadece development için)
                         .requestMatchers("/api/test/**").permitAll()
 
@@ -2,6 +2,7 @@ package com.pappgroup.pappapp.controller;
 
 import com.pappgroup.pappapp.dto.response.UserResponse;
 import com.pappgroup.pappapp.service.AdminService;
+import com.pappgroup.pappapp.service.ListingCardService;
 import com.pappgroup.pappapp.service.PropertyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,9 @@ public class AdminController {
     @Autowired
     private PropertyService propertyService;
 
+    @Autowired
+    private ListingCardService listingCardService;
+
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers() {
         try {
@@ -95,6 +99,30 @@ public class AdminController {
         }
     }
 
+    @PostMapping("/search/lucene/rebuild")
+    public ResponseEntity<?> rebuildLuceneIndex() {
+        try {
+            int count = propertyService.rebuildLuceneIndex();
+            return ResponseEntity.ok(new SuccessResponse("Lucene index rebuilt with " + count + " listings"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse("Failed to rebuild Lucene index", e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/listing-cards/rebuild")
+    public ResponseEntity<?> rebuildListingCards() {
+        try {
+            int count = listingCardService.rebuild();
+            return ResponseEntity.ok(new SuccessResponse("Listing cards rebuilt with " + count + " listings"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse("Failed to rebuild listing cards", e.getMessage())
+            );
+        }
+    }
+
     // Inner classes for responses
     public static class ErrorResponse {
         private String error;
@@ -4,6 +4,7 @@ import com.pappgroup.pappapp.dto.request.*;
 import com.pappgroup.pappapp.dto.response.AuthResponse;
 import com.pappgroup.pappapp.dto.response.PasswordResetResponse;
 import com.pappgroup.pappapp.dto.response.VerificationResponse;
+import com.pappgroup.pappapp.exception.PasswordHashingBusyException;
 import com.pappgroup.pappapp.service.AuthService;
 import com.pappgroup.pappapp.service.EmailVerificationService;
 import com.pappgroup.pappapp.service.PasswordResetService;
@@ -31,6 +32,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                     new ErrorResponse("Registration failed", e.getMessage())
@@ -43,6 +46,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                     new ErrorResponse("Login failed", e.getMessage())
@@ -65,8 +70,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
-        // Client-side logout için basit response
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String token) {
+        // Token client'ta silinir; sunucuda bu instance'ın doğrulanmış token cache'inden düşürülür
+        if (token != null && token.startsWith("Bearer ")) {
+            authService.logout(token.substring(7));
+        }
         return ResponseEntity.ok(new SuccessResponse("Logout successful"));
     }
 
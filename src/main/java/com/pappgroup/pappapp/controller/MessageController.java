@@ -2,9 +2,11 @@ package com.pappgroup.pappapp.controller;
 
 import com.pappgroup.pappapp.dto.request.MessageRequest;
 import com.pappgroup.pappapp.dto.response.ConversationResponse;
+import com.pappgroup.pappapp.dto.response.CursorPageResponse;
 import com.pappgroup.pappapp.dto.response.MessageResponse;
 import com.pappgroup.pappapp.security.UserPrincipal;
 import com.pappgroup.pappapp.service.MessageService;
+import com.pappgroup.pappapp.service.PresenceService;
 import com.pappgroup.pappapp.util.ResponseUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,7 @@ import java.util.Map;
 public class MessageController {
 
     private final MessageService messageService;
+    private final PresenceService presenceService;
 
     @PostMapping
     public ResponseEntity<?> sendMessage(
@@ -70,6 +73,23 @@ public class MessageController {
         }
     }
 
+    // Konuşma geçmişi - cursor sayfalama, en yeni mesajlardan geriye doğru
+    @GetMapping("/conversation/{otherUserId}/history")
+    public ResponseEntity<?> getConversationHistory(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long otherUserId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "30") int size) {
+        try {
+            Long userId = userPrincipal.getId();
+            CursorPageResponse<MessageResponse> history = messageService.getConversationHistory(userId, otherUserId, before, size);
+            return ResponseUtil.success(history);
+        } catch (Exception e) {
+            log.error("Error getting conversation history: {}", e.getMessage());
+            return ResponseUtil.error("Failed to get conversation history: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @PutMapping("/{messageId}/read")
     public ResponseEntity<?> markAsRead(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -90,8 +110,8 @@ public class MessageController {
             @PathVariable Long otherUserId) {
         try {
             Long userId = userPrincipal.getId();
-            messageService.markConversationAsRead(userId, otherUserId);
-            return ResponseUtil.success(Map.of("message", "Conversation marked as read"));
+            int updated = messageService.markConversationAsRead(userId, otherUserId);
+            return ResponseUtil.success(Map.of("message", "Conversation marked as read", "updatedCount", updated));
         } catch (Exception e) {
             log.error("Error marking conversation as read: {}", e.getMessage());
             return ResponseUtil.error("Failed to mark conversation as read: " + e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -110,6 +130,20 @@ public class MessageController {
         }
     }
 
+    // Çevrimiçi durumu; değişiklikler anlık gönderilmez, istemci gerektiğinde sorar
+    @GetMapping("/presence")
+    public ResponseEntity<?> getPresence(@RequestParam List<Long> userIds) {
+        try {
+            if (userIds.size() > 100) {
+                return ResponseUtil.error("At most 100 users can be queried at once", HttpStatus.BAD_REQUEST);
+            }
+            return ResponseUtil.success(presenceService.getPresence(userIds));
+        } catch (Exception e) {
+            log.error("Error getting presence: {}", e.getMessage());
+            return ResponseUtil.error("Failed to get presence: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping
     public ResponseEntity<?> getUserMessages(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -156,8 +190,8 @@ public class MessageController {
             @PathVariable Long otherUserId) {
         try {
             Long userId = userPrincipal.getId();
-            messageService.deleteConversation(userId, otherUserId);
-            return ResponseUtil.success(Map.of("message", "Conversation deleted successfully"));
+            int deleted = messageService.deleteConversation(userId, otherUserId);
+            return ResponseUtil.success(Map.of("message", "Conversation deleted successfully", "deletedCount", deleted));
         } catch (Exception e) {
             log.error("Error deleting conversation: {}", e.getMessage());
             return ResponseUtil.error("Failed to delete conversation: " + e.getMessage(), HttpStatus.BAD_REQUEST);
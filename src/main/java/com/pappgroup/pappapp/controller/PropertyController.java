@@ -3,6 +3,9 @@ package com.pappgroup.pappapp.controller;
 import com.pappgroup.pappapp.dto.request.PropertyCreateRequest;
 import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
 import com.pappgroup.pappapp.dto.request.PropertyUpdateRequest;
+import com.pappgroup.pappapp.dto.response.CursorPageResponse;
+import com.pappgroup.pappapp.dto.response.MapClusterResponse;
+import com.pappgroup.pappapp.dto.response.PropertyFacetsResponse;
 import com.pappgroup.pappapp.dto.response.PropertyResponse;
 import com.pappgroup.pappapp.dto.response.PropertyStatsResponse;
 import com.pappgroup.pappapp.dto.response.PropertySummaryResponse;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -44,6 +48,19 @@ public class PropertyController {
         }
     }
 
+    // Tüm aktif ilanlar - cursor (keyset) sayfalama, toplam sayı hesaplanmaz
+    @GetMapping("/public/cursor")
+    public ResponseEntity<CursorPageResponse<PropertySummaryResponse>> getAllActivePropertiesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            CursorPageResponse<PropertySummaryResponse> properties = propertyService.getAllActivePropertiesByCursor(cursor, size);
+            return ResponseEntity.ok(properties);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // İlan detayı getir ve görüntülenme artır (tam format)
     @GetMapping("/public/{id}")
     public ResponseEntity<PropertyResponse> getPropertyById(@PathVariable Long id) {
@@ -222,6 +239,68 @@ public class PropertyController {
         }
     }
 
+    // Gelişmiş arama - cursor (keyset) sayfalama, createdAt DESC sıralı
+    @PostMapping("/public/search/cursor")
+    public ResponseEntity<CursorPageResponse<PropertySummaryResponse>> searchPropertiesByCursor(
+            @Valid @RequestBody PropertySearchRequest searchRequest,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            CursorPageResponse<PropertySummaryResponse> properties = propertyService.searchPropertiesByCursor(searchRequest, cursor, size);
+            return ResponseEntity.ok(properties);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Arama filtreleri için facet sayıları (tek istekte şehir/ilçe/tip/oda/fiyat sayıları)
+    @PostMapping("/public/search/facets")
+    public ResponseEntity<PropertyFacetsResponse> searchPropertyFacets(@Valid @RequestBody PropertySearchRequest searchRequest) {
+        try {
+            PropertyFacetsResponse facets = propertyService.searchPropertyFacets(searchRequest);
+            return ResponseEntity.ok(facets);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Facet sayıları (GET method - query parameters)
+    @GetMapping("/public/search/facets")
+    public ResponseEntity<PropertyFacetsResponse> searchPropertyFacetsSimple(@ModelAttribute PropertySearchRequest searchRequest) {
+        try {
+            PropertyFacetsResponse facets = propertyService.searchPropertyFacets(searchRequest);
+            return ResponseEntity.ok(facets);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Harita kümeleri: görünümdeki ilanlar zoom seviyesine göre hücre başına sayılır
+    @PostMapping("/public/map/clusters")
+    public ResponseEntity<List<MapClusterResponse>> getMapClusters(
+            @Valid @RequestBody PropertySearchRequest searchRequest,
+            @RequestParam int zoom) {
+        try {
+            List<MapClusterResponse> clusters = propertyService.getMapClusters(searchRequest, zoom);
+            return ResponseEntity.ok(clusters);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Harita kümeleri (GET method - query parameters)
+    @GetMapping("/public/map/clusters")
+    public ResponseEntity<List<MapClusterResponse>> getMapClustersSimple(
+            @ModelAttribute PropertySearchRequest searchRequest,
+            @RequestParam int zoom) {
+        try {
+            List<MapClusterResponse> clusters = propertyService.getMapClusters(searchRequest, zoom);
+            return ResponseEntity.ok(clusters);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Öne çıkarılan ilanlar
     @GetMapping("/public/featured")
     public ResponseEntity<Page<PropertySummaryResponse>> getFeaturedProperties(
@@ -246,6 +325,19 @@ public class PropertyController {
         }
     }
 
+    // En çok görüntülenen ilanlar - cursor (keyset) sayfalama
+    @GetMapping("/public/most-viewed/cursor")
+    public ResponseEntity<CursorPageResponse<PropertySummaryResponse>> getMostViewedPropertiesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            CursorPageResponse<PropertySummaryResponse> properties = propertyService.getMostViewedPropertiesByCursor(cursor, size);
+            return ResponseEntity.ok(properties);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // PAPP ile satılabilir ilanlar
     @GetMapping("/public/papp-sellable")
     public ResponseEntity<Page<PropertySummaryResponse>> getPappSellableProperties(
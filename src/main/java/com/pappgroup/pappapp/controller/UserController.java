@@ -8,6 +8,7 @@ import com.pappgroup.pappapp.dto.request.PhoneVerificationCodeRequest;
 import com.pappgroup.pappapp.dto.response.UserResponse;
 import com.pappgroup.pappapp.dto.response.ErrorResponse;
 import com.pappgroup.pappapp.dto.response.SuccessResponse;
+import com.pappgroup.pappapp.exception.PasswordHashingBusyException;
 import com.pappgroup.pappapp.service.UserService;
 import com.pappgroup.pappapp.service.PhoneVerificationService;
 import jakarta.validation.Valid;
@@ -72,6 +73,8 @@ public class UserController {
         try {
             userService.changePassword(request);
             return ResponseEntity.ok(new SuccessResponse("Password changed successfully"));
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                     new ErrorResponse("Failed to change password", e.getMessage())
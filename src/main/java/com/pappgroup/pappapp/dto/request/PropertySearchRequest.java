@@ -45,6 +45,17 @@ public class PropertySearchRequest {
 
     private String keyword; // Başlık ve açıklamada arama için
 
+    // Yarıçap araması: (latitude, longitude) noktasına radiusKm mesafedeki ilanlar
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+
+    // Harita görünümü (viewport) araması
+    private Double minLatitude;
+    private Double maxLatitude;
+    private Double minLongitude;
+    private Double maxLongitude;
+
     // Oda sayısı filtreleme
     private Integer minRoomCount;
     private Integer maxRoomCount;
@@ -36,6 +36,14 @@ public class PropertyUpdateRequest {
     @Size(max = 100, message = "Mahalle adı 100 karakterden uzun olamaz")
     private String neighborhood;
 
+    @DecimalMin(value = "-90.0", message = "Enlem -90 ile 90 arasında olmalıdır")
+    @DecimalMax(value = "90.0", message = "Enlem -90 ile 90 arasında olmalıdır")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Boylam -180 ile 180 arasında olmalıdır")
+    @DecimalMax(value = "180.0", message = "Boylam -180 ile 180 arasında olmalıdır")
+    private Double longitude;
+
     @NotNull(message = "Fiyat belirtilmelidir")
     @DecimalMin(value = "0.0", inclusive = false, message = "Fiyat 0'dan büyük olmalıdır")
     @Digits(integer = 13, fraction = 2, message = "Fiyat formatı geçersiz")
@@ -16,4 +16,5 @@ public class ConversationResponse {
     private Long unreadCount;
     private Long propertyId;
     private String propertyTitle;
+    private Boolean otherUserOnline;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.pappgroup.pappapp.dto.response;
+
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+// Toplam sayı (COUNT) olmadan dönen keyset sayfası
+@Data
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+
+    private Integer size;
+
+    private Boolean hasNext;
+
+    // Sonraki sayfa için gönderilecek token, son sayfada null
+    private String nextCursor;
+
+    public static <T> CursorPageResponse<T> of(Slice<T> slice, String nextCursor) {
+        CursorPageResponse<T> response = new CursorPageResponse<>();
+        response.setContent(slice.getContent());
+        response.setSize(slice.getNumberOfElements());
+        response.setHasNext(slice.hasNext());
+        response.setNextCursor(slice.hasNext() ? nextCursor : null);
+        return response;
+    }
+}
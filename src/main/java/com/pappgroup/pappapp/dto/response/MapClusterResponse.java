@@ -0,0 +1,21 @@
+package com.pappgroup.pappapp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapClusterResponse {
+
+    // Kümedeki ilanların ortalama konumu
+    private Double latitude;
+
+    private Double longitude;
+
+    private Long count;
+
+    // Kümede tek ilan varsa doğrudan ilana gidilebilsin diye
+    private Long propertyId;
+}
@@ -0,0 +1,27 @@
+package com.pappgroup.pappapp.dto.response;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class PropertyFacetsResponse {
+
+    // Mevcut filtrelere uyan toplam ilan sayısı
+    private Long total;
+
+    private Map<String, Long> cities = new LinkedHashMap<>();
+
+    private Map<String, Long> districts = new LinkedHashMap<>();
+
+    private Map<String, Long> propertyTypes = new LinkedHashMap<>();
+
+    private Map<String, Long> listingTypes = new LinkedHashMap<>();
+
+    // "2+1" formatında
+    private Map<String, Long> roomConfigurations = new LinkedHashMap<>();
+
+    // "100000-500000" formatında, kova sırasıyla
+    private Map<String, Long> priceBuckets = new LinkedHashMap<>();
+}
@@ -26,6 +26,10 @@ public class PropertyResponse {
 
     private String neighborhood;
 
+    private Double latitude;
+
+    private Double longitude;
+
     private BigDecimal price;
 
     private Boolean negotiable;
@@ -24,6 +24,10 @@ public class PropertySummaryResponse {
 
     private String district;
 
+    private Double latitude;
+
+    private Double longitude;
+
     private BigDecimal price;
 
     private Boolean negotiable;
@@ -61,4 +65,13 @@ public class PropertySummaryResponse {
 
     // Birincil resim URL'i (ilan listelerinde gösterilir)
     private String primaryImageUrl;
+
+    // İlan sahibi ve değerlendirmeler (listing_cards'tan gelen listelerde dolu)
+    private String ownerDisplayName;
+
+    private Double averageRating;
+
+    private Long ratingCount;
+
+    private Long favoriteCount;
 }
\ No newline at end of file
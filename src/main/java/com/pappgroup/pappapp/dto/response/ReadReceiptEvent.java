@@ -0,0 +1,21 @@
+package com.pappgroup.pappapp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadReceiptEvent {
+
+    // Mesajları okuyan kullanıcı
+    private Long readerId;
+
+    // Tek mesaj okunduysa id'si; null ise readerId'nin readAt anına kadarki tüm mesajları okundu
+    private Long messageId;
+
+    private LocalDateTime readAt;
+}
@@ -0,0 +1,17 @@
+package com.pappgroup.pappapp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountEvent {
+
+    // Sayının değiştiği konuşmadaki karşı taraf
+    private Long otherUserId;
+
+    // Toplam okunmamış sayısına eklenecek fark (yeni mesaj: +1, okundu/silindi: negatif)
+    private Long delta;
+}
@@ -7,6 +7,7 @@ public class VerificationResponse {
     private boolean success;
     private String message;
     private String token;
+    private String refreshToken;
     private Object user;
 
     // Constructors
@@ -49,6 +50,14 @@ public class VerificationResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public Object getUser() {
         return user;
     }
@@ -0,0 +1,51 @@
+package com.pappgroup.pappapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Gelen kutusu özeti: (user, otherUser) çifti başına bir satır, her iki katılımcının kendi satırı vardır.
+// Son mesaj ve okunmamış sayısı satırın sahibinin gördüğü mesajlara göre tutulur.
+// ConversationService tarafından güncel tutulur.
+@Entity
+@Table(name = "conversations",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_conversations_pair", columnNames = {"user_id", "other_user_id"})
+        },
+        indexes = {
+                @Index(name = "idx_conversations_inbox", columnList = "user_id, last_message_at DESC, id DESC")
+        })
+@Data
+@NoArgsConstructor
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "other_user_id", nullable = false)
+    private User otherUser;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_message_preview", nullable = false)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_property_id")
+    private Property lastProperty;
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount = 0L;
+}
@@ -0,0 +1,122 @@
+package com.pappgroup.pappapp.entity;
+
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Public ilan listeleri için denormalize okuma modeli (sadece onaylı ve aktif ilanlar).
+// Kart alanları + ilan sahibinin adı + puan ve favori sayısı tek satırda; listeler properties,
+// property_images ve users tablolarına join yapmaz. ListingCardService tarafından güncel tutulur.
+@Entity
+@Table(name = "listing_cards", indexes = {
+        @Index(name = "idx_listing_cards_feed", columnList = "created_at DESC, property_id DESC"),
+        @Index(name = "idx_listing_cards_most_viewed", columnList = "view_count DESC, property_id DESC"),
+        @Index(name = "idx_listing_cards_listing_type", columnList = "listing_type, created_at DESC"),
+        @Index(name = "idx_listing_cards_property_type", columnList = "property_type, created_at DESC"),
+        @Index(name = "idx_listing_cards_location", columnList = "city_key, district_key, created_at DESC"),
+        @Index(name = "idx_listing_cards_price", columnList = "price"),
+        @Index(name = "idx_listing_cards_featured", columnList = "featured, created_at DESC"),
+        @Index(name = "idx_listing_cards_papp_sellable", columnList = "papp_sellable, created_at DESC"),
+        @Index(name = "idx_listing_cards_owner", columnList = "owner_id, created_at DESC")
+})
+@Data
+@NoArgsConstructor
+public class ListingCard {
+
+    // İlan id'si; ayrı bir anahtar üretilmez
+    @Id
+    @Column(name = "property_id")
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "listing_type", nullable = false)
+    private ListingType listingType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "property_type", nullable = false)
+    private PropertyType propertyType;
+
+    @Column(nullable = false)
+    private String city;
+
+    @Column(nullable = false)
+    private String district;
+
+    // Büyük/küçük harf duyarsız şehir/ilçe filtresi için normalize edilmiş anahtarlar
+    @Column(name = "city_key", nullable = false)
+    private String cityKey;
+
+    @Column(name = "district_key", nullable = false)
+    private String districtKey;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private Boolean negotiable;
+
+    @Column(name = "gross_area")
+    private Integer grossArea;
+
+    @Column(nullable = false)
+    private Boolean elevator;
+
+    @Column(nullable = false)
+    private Boolean parking;
+
+    @Column(nullable = false)
+    private Boolean balcony;
+
+    @Column(nullable = false)
+    private Boolean furnished;
+
+    @Column(name = "room_count")
+    private Integer roomCount;
+
+    @Column(name = "hall_count")
+    private Integer hallCount;
+
+    @Column(nullable = false)
+    private Boolean featured;
+
+    @Column(name = "papp_sellable", nullable = false)
+    private Boolean pappSellable;
+
+    @Column(name = "primary_image_url", length = 500)
+    private String primaryImageUrl;
+
+    @Column(name = "view_count", nullable = false)
+    private Long viewCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // İlan sahibi
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "owner_display_name", nullable = false)
+    private String ownerDisplayName;
+
+    // Yorum puanları toplam + adet olarak tutulur, ortalama okumada hesaplanır
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "favorite_count", nullable = false)
+    private long favoriteCount;
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -15,7 +16,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "properties")
+@Table(name = "properties", indexes = {
+        @Index(name = "idx_properties_location", columnList = "latitude, longitude"),
+        @Index(name = "idx_properties_user", columnList = "user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,6 +49,11 @@ public class Property {
     @Column(nullable = false)
     private String neighborhood;
 
+    // Harita araması için konum (WGS84, derece)
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal price;
 
@@ -97,6 +106,7 @@ public class Property {
     private Integer currentFloor;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "property_heating", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "heating_type")
     private List<String> heatingTypes = new ArrayList<>();
@@ -128,11 +138,22 @@ public class Property {
     private LocalDateTime lastReportedAt;
 
     // View/İstatistik
-    @Column(name = "view_count", nullable = false)
+    // Sadece ViewCountAggregator'ın toplu UPDATE'i ile artar; entity save'leri bu kolonu ezmez
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Long viewCount = 0L;
 
+    // Yorum puanlarının toplamı ve adedi; sadece CommentService'in atomik UPDATE'leri
+    // ve RatingAggregateService'in mutabakatı yazar
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private long ratingCount;
+
     // Resim yönetimi
+    // Liste sayfalarında tek sorguda sayfadaki tüm ilanlar için yüklenir (N+1 yerine)
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "property_images", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "image_url", length = 500)
     private List<String> imageUrls = new ArrayList<>();
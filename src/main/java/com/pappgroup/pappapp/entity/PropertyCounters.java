@@ -0,0 +1,64 @@
+package com.pappgroup.pappapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Admin paneli için tek satırlık ilan sayaçları (id = 1).
+// İlan yazma yolları aynı transaction içinde farkları uygular; panel okuması tek satır.
+@Entity
+@Table(name = "property_counters")
+@Data
+@NoArgsConstructor
+public class PropertyCounters {
+
+    public static final Long GLOBAL_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(name = "approved_active", nullable = false)
+    private long approvedActive;
+
+    @Column(name = "pending_approval", nullable = false)
+    private long pendingApproval;
+
+    @Column(nullable = false)
+    private long reported;
+
+    @Column(nullable = false)
+    private long featured;
+
+    @Column(nullable = false)
+    private long active;
+
+    @Column(nullable = false)
+    private long inactive;
+
+    @Column(nullable = false)
+    private long sale;
+
+    @Column(nullable = false)
+    private long rent;
+
+    @Column(nullable = false)
+    private long residential;
+
+    @Column(nullable = false)
+    private long commercial;
+
+    @Column(nullable = false)
+    private long land;
+
+    @Column(name = "daily_rental", nullable = false)
+    private long dailyRental;
+
+    // Son tam sayım zamanı
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+}
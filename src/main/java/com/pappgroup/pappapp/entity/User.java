@@ -40,7 +40,8 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.USER;
 
-    @Column(nullable = false)
+    // Kayıtta yazılır, sonra sadece UserRepository.updateEnabled ile değişir (profil vb. save'ler eski değeri geri yazamaz)
+    @Column(nullable = false, updatable = false)
     private boolean enabled = true;
 
     @CreationTimestamp
@@ -128,4 +129,16 @@ public class User {
 
     @Column(name = "marketing_emails_enabled")
     private Boolean marketingEmailsEnabled = false;
+
+    // Kullanıcının ilanlarına gelen yorum puanları (toplam + adet); Property ile aynı şekilde güncellenir
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private long ratingCount;
+
+    // Access token'lardaki "epoch" claim'i ile karşılaştırılır; artırılınca eski token'lar reddedilir.
+    // Sadece UserRepository.incrementTokenEpoch ile değişir
+    @Column(name = "token_epoch", nullable = false, updatable = false)
+    private int tokenEpoch;
 }
\ No newline at end of file
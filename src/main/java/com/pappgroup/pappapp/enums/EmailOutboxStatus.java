@@ -0,0 +1,6 @@
+package com.pappgroup.pappapp.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    DEAD
+}
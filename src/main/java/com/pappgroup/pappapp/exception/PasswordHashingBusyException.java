@@ -0,0 +1,7 @@
+package com.pappgroup.pappapp.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
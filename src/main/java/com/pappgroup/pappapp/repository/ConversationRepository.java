@@ -0,0 +1,38 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.entity.Conversation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    // Gelen kutusu: tek index aralığı okuması, karşı taraf ve ilan aynı sorguda gelir
+    @Query("SELECT c FROM Conversation c " +
+           "JOIN FETCH c.otherUser " +
+           "LEFT JOIN FETCH c.lastProperty " +
+           "WHERE c.user.id = :userId " +
+           "ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<Conversation> findInbox(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = c.unreadCount - 1 " +
+           "WHERE c.user.id = :userId AND c.otherUser.id = :otherUserId AND c.unreadCount > 0")
+    int decrementUnread(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    // Sadece okunan mesaj sayısı düşülür; okuma ile eşzamanlı gelen yeni mesajın sayacı sıfırlanmaz
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = GREATEST(c.unreadCount - :count, 0) " +
+           "WHERE c.user.id = :userId AND c.otherUser.id = :otherUserId AND c.unreadCount > 0")
+    int subtractUnread(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId,
+                       @Param("count") long count);
+
+    @Modifying
+    @Query("DELETE FROM Conversation c WHERE c.user.id = :userId AND c.otherUser.id = :otherUserId")
+    int deleteSide(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+}
@@ -0,0 +1,12 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.entity.EmailOutbox;
+import com.pappgroup.pappapp.enums.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    long countByStatus(EmailOutboxStatus status);
+}
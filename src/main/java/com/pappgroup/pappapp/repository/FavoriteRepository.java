@@ -20,7 +20,7 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
 
     boolean existsByUserAndProperty(User user, Property property);
 
-    void deleteByUserAndProperty(User user, Property property);
+    long deleteByUserAndProperty(User user, Property property);
 
     @Query("SELECT f.property FROM Favorite f WHERE f.user = :user ORDER BY f.createdAt DESC")
     Page<Property> findFavoritePropertiesByUser(@Param("user") User user, Pageable pageable);
@@ -0,0 +1,92 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.entity.ListingCard;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Tablodaki tüm kartlar onaylı ve aktif ilanlara ait; sorgular approved/active filtresi içermez
+@Repository
+public interface ListingCardRepository extends JpaRepository<ListingCard, Long> {
+
+    Page<ListingCard> findByListingType(ListingType listingType, Pageable pageable);
+
+    Page<ListingCard> findByPropertyType(PropertyType propertyType, Pageable pageable);
+
+    // Anahtarlar kartta lower(trim(...)) ile yazılır; parametre de veritabanında aynı fonksiyonla normalize edilir
+    @Query("SELECT c FROM ListingCard c WHERE c.cityKey = lower(trim(:city))")
+    Page<ListingCard> findByCity(@Param("city") String city, Pageable pageable);
+
+    @Query("SELECT c FROM ListingCard c WHERE c.cityKey = lower(trim(:city)) AND c.districtKey = lower(trim(:district))")
+    Page<ListingCard> findByCityAndDistrict(@Param("city") String city,
+                                            @Param("district") String district,
+                                            Pageable pageable);
+
+    Page<ListingCard> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    Page<ListingCard> findByFeaturedTrue(Pageable pageable);
+
+    Page<ListingCard> findByPappSellableTrue(Pageable pageable);
+
+    Page<ListingCard> findByOwnerId(Long ownerId, Pageable pageable);
+
+    Page<ListingCard> findAllByOrderByViewCountDescIdDesc(Pageable pageable);
+
+    // ========== KEYSET (CURSOR) SAYFALAMA ==========
+
+    @Query("SELECT c FROM ListingCard c ORDER BY c.createdAt DESC, c.id DESC")
+    List<ListingCard> findFeed(Pageable pageable);
+
+    @Query("SELECT c FROM ListingCard c WHERE " +
+            "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ListingCard> findFeedAfter(@Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    @Query("SELECT c FROM ListingCard c ORDER BY c.viewCount DESC, c.id DESC")
+    List<ListingCard> findMostViewedFeed(Pageable pageable);
+
+    @Query("SELECT c FROM ListingCard c WHERE " +
+            "(c.viewCount < :viewCount OR (c.viewCount = :viewCount AND c.id < :id)) " +
+            "ORDER BY c.viewCount DESC, c.id DESC")
+    List<ListingCard> findMostViewedFeedAfter(@Param("viewCount") Long viewCount,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    // ========== ARTIMLI GÜNCELLEMELER ==========
+
+    // Kart yoksa (ilan yayında değil) hiçbir satır etkilenmez
+    @Modifying
+    @Query("UPDATE ListingCard c SET c.ratingSum = c.ratingSum + :ratingDelta, " +
+            "c.ratingCount = c.ratingCount + :countDelta WHERE c.id = :id")
+    int addRating(@Param("id") Long id,
+                  @Param("ratingDelta") long ratingDelta,
+                  @Param("countDelta") long countDelta);
+
+    @Modifying
+    @Query("UPDATE ListingCard c SET c.favoriteCount = c.favoriteCount + :delta WHERE c.id = :id")
+    int addFavorites(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE ListingCard c SET c.ownerDisplayName = :displayName WHERE c.ownerId = :ownerId")
+    int updateOwnerDisplayName(@Param("ownerId") Long ownerId, @Param("displayName") String displayName);
+
+    @Modifying
+    @Query("DELETE FROM ListingCard c WHERE c.id = :id")
+    int deleteCard(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM ListingCard c WHERE c.ownerId = :ownerId")
+    int deleteByOwner(@Param("ownerId") Long ownerId);
+}
@@ -3,11 +3,14 @@ package com.pappgroup.pappapp.repository;
 import com.pappgroup.pappapp.entity.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -26,14 +29,30 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
            "ORDER BY m.createdAt ASC")
     List<Message> findConversationBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
 
-    // Kullanıcının konuşmalarını getir (her kişiyle son mesaj) - soft delete kontrolü ile
-    @Query("SELECT m FROM Message m WHERE m.id IN (" +
-           "SELECT MAX(m2.id) FROM Message m2 WHERE " +
-           "(m2.sender.id = :userId OR m2.receiver.id = :userId) AND " +
-           "((:userId = m2.sender.id AND m2.deletedBySender = false) OR (:userId = m2.receiver.id AND m2.deletedByReceiver = false)) " +
-           "GROUP BY CASE WHEN m2.sender.id = :userId THEN m2.receiver.id ELSE m2.sender.id END" +
-           ") ORDER BY m.createdAt DESC")
-    List<Message> findUserConversations(@Param("userId") Long userId);
+    // Konuşma geçmişi: çiftin (küçük id, büyük id) index'i üzerinden en yeni mesajlardan geriye doğru.
+    // Silme kontrolü isteyen kullanıcının tarafına göre yapılır.
+    // JOIN FETCH yerine EntityGraph: fetch join'de m.sender.id join tablosuna çözülür ve index ifadesiyle eşleşmez.
+    @EntityGraph(attributePaths = {"sender", "receiver", "property"})
+    @Query("SELECT m FROM Message m " +
+           "WHERE least(m.sender.id, m.receiver.id) = :lowUserId AND greatest(m.sender.id, m.receiver.id) = :highUserId " +
+           "AND ((m.sender.id = :userId AND m.deletedBySender = false) OR (m.receiver.id = :userId AND m.deletedByReceiver = false)) " +
+           "ORDER BY m.id DESC")
+    List<Message> findHistory(@Param("userId") Long userId,
+                              @Param("lowUserId") Long lowUserId,
+                              @Param("highUserId") Long highUserId,
+                              Pageable pageable);
+
+    @EntityGraph(attributePaths = {"sender", "receiver", "property"})
+    @Query("SELECT m FROM Message m " +
+           "WHERE least(m.sender.id, m.receiver.id) = :lowUserId AND greatest(m.sender.id, m.receiver.id) = :highUserId " +
+           "AND m.id < :beforeId " +
+           "AND ((m.sender.id = :userId AND m.deletedBySender = false) OR (m.receiver.id = :userId AND m.deletedByReceiver = false)) " +
+           "ORDER BY m.id DESC")
+    List<Message> findHistoryBefore(@Param("userId") Long userId,
+                                    @Param("lowUserId") Long lowUserId,
+                                    @Param("highUserId") Long highUserId,
+                                    @Param("beforeId") Long beforeId,
+                                    Pageable pageable);
 
     // Kullanıcının okunmamış mesaj sayısı - soft delete kontrolü ile
     @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver.id = :userId AND m.isRead = false AND m.deletedByReceiver = false")
@@ -46,4 +65,34 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     // Kullanıcının belirli bir kişiyle okunmamış mesajları - soft delete kontrolü ile
     @Query("SELECT m FROM Message m WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId AND m.isRead = false AND m.deletedByReceiver = false")
     List<Message> findUnreadMessagesBetweenUsers(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
+
+    // ========== TOPLU GÜNCELLEMELER ==========
+    // Mesajlar persistence context'e yüklenmez; etkilenen satır sayısı döner.
+    // Toplu JPQL güncellemesi @UpdateTimestamp'i tetiklemez, updatedAt elle yazılır.
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true, m.readAt = :readAt, m.updatedAt = :readAt " +
+           "WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId " +
+           "AND m.isRead = false AND m.deletedByReceiver = false")
+    int markReadBetweenUsers(@Param("receiverId") Long receiverId,
+                             @Param("senderId") Long senderId,
+                             @Param("readAt") LocalDateTime readAt);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId " +
+           "AND m.isRead = false AND m.deletedByReceiver = false")
+    long countUnreadBetweenUsers(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.deletedBySender = true, m.senderDeletedAt = :deletedAt, m.updatedAt = :deletedAt " +
+           "WHERE m.sender.id = :senderId AND m.receiver.id = :receiverId AND m.deletedBySender = false")
+    int softDeleteSent(@Param("senderId") Long senderId,
+                       @Param("receiverId") Long receiverId,
+                       @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.deletedByReceiver = true, m.receiverDeletedAt = :deletedAt, m.updatedAt = :deletedAt " +
+           "WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId AND m.deletedByReceiver = false")
+    int softDeleteReceived(@Param("receiverId") Long receiverId,
+                           @Param("senderId") Long senderId,
+                           @Param("deletedAt") LocalDateTime deletedAt);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.entity.PropertyCounters;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PropertyCountersRepository extends JpaRepository<PropertyCounters, Long> {
+
+    // Yeniden sayım sırasında yazma yollarının farkları beklesin
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM PropertyCounters c WHERE c.id = :id")
+    Optional<PropertyCounters> findForUpdate(@Param("id") Long id);
+
+    // Satır yoksa sıfırlarla oluşturulur; reconciled_at boş kaldığı sürece okuma yolu canlı sayıma düşer
+    @Modifying
+    @Query(value = "INSERT INTO property_counters (id, total, approved_active, pending_approval, reported, " +
+            "featured, active, inactive, sale, rent, residential, commercial, land, daily_rental) " +
+            "VALUES (:id, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") Long id);
+
+    // Farklar mevcut değerin üzerine eklenir; okuma-yazma yarışı olmaz
+    @Modifying
+    @Query("UPDATE PropertyCounters c SET " +
+            "c.total = c.total + :#{#delta.total}, " +
+            "c.approvedActive = c.approvedActive + :#{#delta.approvedActive}, " +
+            "c.pendingApproval = c.pendingApproval + :#{#delta.pendingApproval}, " +
+            "c.reported = c.reported + :#{#delta.reported}, " +
+            "c.featured = c.featured + :#{#delta.featured}, " +
+            "c.active = c.active + :#{#delta.active}, " +
+            "c.inactive = c.inactive + :#{#delta.inactive}, " +
+            "c.sale = c.sale + :#{#delta.sale}, " +
+            "c.rent = c.rent + :#{#delta.rent}, " +
+            "c.residential = c.residential + :#{#delta.residential}, " +
+            "c.commercial = c.commercial + :#{#delta.commercial}, " +
+            "c.land = c.land + :#{#delta.land}, " +
+            "c.dailyRental = c.dailyRental + :#{#delta.dailyRental} " +
+            "WHERE c.id = :#{#delta.id}")
+    int applyDelta(@Param("delta") PropertyCounters delta);
+}
@@ -0,0 +1,35 @@
+package com.pappgroup.pappapp.repository;
+
+// PropertyRepository.countStats* sorgularının tek satırlık sonucu
+public interface PropertyCountsView {
+
+    long getTotal();
+
+    long getApproved();
+
+    long getApprovedActive();
+
+    long getPendingApproval();
+
+    long getReported();
+
+    long getFeatured();
+
+    long getActive();
+
+    long getInactive();
+
+    long getSale();
+
+    long getRent();
+
+    long getResidential();
+
+    long getCommercial();
+
+    long getLand();
+
+    long getDailyRental();
+
+    long getTotalViews();
+}
@@ -6,58 +6,61 @@ import com.pappgroup.pappapp.enums.ListingType;
 import com.pappgroup.pappapp.enums.PropertyType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>,
+        PropertyRepositoryCustom {
+
+    // Tüm sayaçlar tek taramada koşullu toplamlarla (COUNT ... FILTER) hesaplanır
+    String COUNT_STATS_SELECT = "SELECT " +
+            "COUNT(p) AS total, " +
+            "COUNT(p) FILTER (WHERE p.approved = true) AS approved, " +
+            "COUNT(p) FILTER (WHERE p.approved = true AND p.active = true) AS approvedActive, " +
+            "COUNT(p) FILTER (WHERE p.approved = false) AS pendingApproval, " +
+            "COUNT(p) FILTER (WHERE p.reported = true) AS reported, " +
+            "COUNT(p) FILTER (WHERE p.featured = true) AS featured, " +
+            "COUNT(p) FILTER (WHERE p.active = true) AS active, " +
+            "COUNT(p) FILTER (WHERE p.active = false) AS inactive, " +
+            "COUNT(p) FILTER (WHERE p.listingType = com.pappgroup.pappapp.enums.ListingType.SALE) AS sale, " +
+            "COUNT(p) FILTER (WHERE p.listingType = com.pappgroup.pappapp.enums.ListingType.RENT) AS rent, " +
+            "COUNT(p) FILTER (WHERE p.propertyType = com.pappgroup.pappapp.enums.PropertyType.RESIDENTIAL) AS residential, " +
+            "COUNT(p) FILTER (WHERE p.propertyType = com.pappgroup.pappapp.enums.PropertyType.COMMERCIAL) AS commercial, " +
+            "COUNT(p) FILTER (WHERE p.propertyType = com.pappgroup.pappapp.enums.PropertyType.LAND) AS land, " +
+            "COUNT(p) FILTER (WHERE p.propertyType = com.pappgroup.pappapp.enums.PropertyType.DAILY_RENTAL) AS dailyRental, " +
+            "COALESCE(SUM(p.viewCount), 0) AS totalViews " +
+            "FROM Property p";
 
     // Kullanıcının ilanlarını getir
     List<Property> findByUser(User user);
 
     // Kullanıcının ilanlarını sayfalı getir
+    @EntityGraph(attributePaths = "user")
     Page<Property> findByUser(User user, Pageable pageable);
 
     // Kullanıcının ilan sayısı
     long countByUser(User user);
 
-    // Aktif ve onaylanmış konut ilanları
-    Page<Property> findByPropertyTypeAndApprovedTrueAndActiveTrue(
-            PropertyType propertyType,
-            Pageable pageable
-    );
-
-    // Listing type'a göre filtrele
-    Page<Property> findByListingType(ListingType listingType, Pageable pageable);
-
     // Property type'a göre filtrele
     Page<Property> findByPropertyType(PropertyType propertyType, Pageable pageable);
 
-    // Şehir bazında arama
-    Page<Property> findByCityIgnoreCase(String city, Pageable pageable);
-
-    // Şehir ve ilçe bazında arama
-    Page<Property> findByCityIgnoreCaseAndDistrictIgnoreCase(String city, String district, Pageable pageable);
-
-    // Fiyat aralığında arama
-    Page<Property> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
-
-    // Öne çıkarılan ilanlar
-    Page<Property> findByFeaturedTrue(Pageable pageable);
-
-    // PAPP ile satılabilir ilanlar
-    Page<Property> findByPappSellableTrue(Pageable pageable);
-
     // Başlık ile arama (içinde geçen)
-    Page<Property> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+    Page<PropertySummaryView> findSummariesByTitleContainingIgnoreCase(String title, Pageable pageable);
 
     // Açıklama ile arama
-    Page<Property> findByDescriptionContainingIgnoreCase(String description, Pageable pageable);
+    Page<PropertySummaryView> findSummariesByDescriptionContainingIgnoreCase(String description, Pageable pageable);
 
     // Kombinasyon sorguları
     @Query("SELECT p FROM Property p WHERE " +
@@ -84,96 +87,77 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
     Page<Property> findByActiveUsers(Pageable pageable);
 
     // Kullanıcının belirli tipte ilanları
+    @EntityGraph(attributePaths = "user")
     Page<Property> findByUserAndListingType(User user, ListingType listingType, Pageable pageable);
 
     // ========== ONAY SİSTEMİ ==========
 
     // Onaylanmamış ilanlar (Admin için)
+    @EntityGraph(attributePaths = "user")
     Page<Property> findByApprovedFalse(Pageable pageable);
 
-    // Onaylanmış ilanlar (Public için)
+    // Onaylanmış ilanlar (Admin listesi ve index rebuild)
+    @EntityGraph(attributePaths = "user")
     Page<Property> findByApprovedTrueAndActiveTrue(Pageable pageable);
 
+    // Index rebuild için id üzerinden keyset batch'ler (OFFSET taraması yok)
+    List<Property> findByApprovedTrueAndActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Bellek içi index'in değişiklik akışı: başka instance'ta güncellenen ilanlar (onay, yayından kaldırma, düzenleme)
+    @EntityGraph(attributePaths = "user")
+    Slice<Property> findByUpdatedAtBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    // Id listesiyle toplu yükleme (rebuild sırasında sayacı değişen ilanlar, kartı olmayan arama sonuçları)
+    @EntityGraph(attributePaths = "user")
+    List<Property> findByIdIn(Collection<Long> ids);
+
     // Onaylanmış ve aktif ilanlar sayısı
     long countByApprovedTrueAndActiveTrue();
 
     // Kullanıcının onaylanmış ilanları
+    @EntityGraph(attributePaths = "user")
     Page<Property> findByUserAndApprovedTrue(User user, Pageable pageable);
 
-    // Kullanıcının onaylanmış ve aktif ilanları (public için)
-    Page<Property> findByUserAndApprovedTrueAndActiveTrue(User user, Pageable pageable);
-
     // ========== ŞİKAYET SİSTEMİ ==========
 
     // Şikayet edilmiş ilanlar (Admin için)
+    @EntityGraph(attributePaths = "user")
     Page<Property> findByReportedTrue(Pageable pageable);
 
     // Şikayet sayısı yüksek ilanlar
-    @Query("SELECT p FROM Property p WHERE p.reportCount >= :minReportCount ORDER BY p.reportCount DESC")
+    @EntityGraph(attributePaths = "user")
+    // reported = true koşulu idx_properties_reported partial index'ini kullandırır
+    @Query("SELECT p FROM Property p WHERE p.reported = true AND p.reportCount >= :minReportCount ORDER BY p.reportCount DESC")
     Page<Property> findByReportCountGreaterThanEqual(@Param("minReportCount") Integer minReportCount, Pageable pageable);
 
     // ========== İSTATİSTİK ==========
 
-    // En çok görüntülenen ilanlar
-    Page<Property> findByApprovedTrueAndActiveTrueOrderByViewCountDesc(Pageable pageable);
+    // Sistem geneli sayaçlar
+    @Query(COUNT_STATS_SELECT)
+    PropertyCountsView countStats();
+
+    // Kullanıcının sayaçları (idx_properties_user)
+    @Query(COUNT_STATS_SELECT + " WHERE p.user = :user")
+    PropertyCountsView countStatsByUser(@Param("user") User user);
 
     // Kullanıcının toplam görüntülenme sayısı
     @Query("SELECT COALESCE(SUM(p.viewCount), 0) FROM Property p WHERE p.user = :user")
     Long getTotalViewCountByUser(@Param("user") User user);
 
+    // Yorum eklendi/güncellendi/silindi; farklar mevcut değerin üzerine eklenir
+    @Modifying
+    @Query("UPDATE Property p SET p.ratingSum = p.ratingSum + :sumDelta, " +
+            "p.ratingCount = p.ratingCount + :countDelta WHERE p.id = :id")
+    int addRating(@Param("id") Long id, @Param("sumDelta") long sumDelta, @Param("countDelta") long countDelta);
+
     // ========== AKTİFLİK DURUMU ==========
 
     // Aktif ilanlar
     Page<Property> findByActiveTrue(Pageable pageable);
 
     // Pasif ilanlar (Kullanıcının kendi ilanları için)
+    @EntityGraph(attributePaths = "user")
     Page<Property> findByUserAndActiveFalse(User user, Pageable pageable);
 
-    // ========== GELİŞMİŞ FİLTRELEME ==========
-
-    @Query(value = "SELECT p FROM Property p WHERE " +
-            "p.approved = true AND p.active = true AND " +
-            "(:listingType IS NULL OR p.listingType = :listingType) AND " +
-            "(:propertyType IS NULL OR p.propertyType = :propertyType) AND " +
-            "(:city IS NULL OR p.city = :city) AND " +
-            "(:district IS NULL OR p.district = :district) AND " +
-            "(:neighborhood IS NULL OR p.neighborhood = :neighborhood) AND " +
-            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-            "(:minArea IS NULL OR p.grossArea >= :minArea) AND " +
-            "(:maxArea IS NULL OR p.grossArea <= :maxArea) AND " +
-            "(:furnished IS NULL OR p.furnished = :furnished) AND " +
-            "(:elevator IS NULL OR p.elevator = :elevator) AND " +
-            "(:parking IS NULL OR p.parking = :parking) AND " +
-            "(:balcony IS NULL OR p.balcony = :balcony) AND " +
-            "(:security IS NULL OR p.security = :security) AND " +
-            "(:negotiable IS NULL OR p.negotiable = :negotiable) AND " +
-            "(:featured IS NULL OR p.featured = :featured) AND " +
-            "(:pappSellable IS NULL OR p.pappSellable = :pappSellable) AND " +
-            "(:minRoomCount IS NULL OR (p.roomCount IS NOT NULL AND p.roomCount >= :minRoomCount)) AND " +
-            "(:maxRoomCount IS NULL OR (p.roomCount IS NOT NULL AND p.roomCount <= :maxRoomCount)) AND " +
-            "(:hallCount IS NULL OR (p.hallCount IS NOT NULL AND p.hallCount = :hallCount)) AND " +
-            "(:keyword IS NULL)")
-    Page<Property> findActivePropertiesWithFilters(@Param("listingType") ListingType listingType,
-                                                   @Param("propertyType") PropertyType propertyType,
-                                                   @Param("city") String city,
-                                                   @Param("district") String district,
-                                                   @Param("neighborhood") String neighborhood,
-                                                   @Param("minPrice") BigDecimal minPrice,
-                                                   @Param("maxPrice") BigDecimal maxPrice,
-                                                   @Param("minArea") Integer minArea,
-                                                   @Param("maxArea") Integer maxArea,
-                                                   @Param("furnished") Boolean furnished,
-                                                   @Param("elevator") Boolean elevator,
-                                                   @Param("parking") Boolean parking,
-                                                   @Param("balcony") Boolean balcony,
-                                                   @Param("security") Boolean security,
-                                                   @Param("negotiable") Boolean negotiable,
-                                                   @Param("featured") Boolean featured,
-                                                   @Param("pappSellable") Boolean pappSellable,
-                                                   @Param("minRoomCount") Integer minRoomCount,
-                                                   @Param("maxRoomCount") Integer maxRoomCount,
-                                                   @Param("hallCount") Integer hallCount,
-                                                   @Param("keyword") String keyword,
-                                                   Pageable pageable);
+    // Gelişmiş filtreleme için bkz. PropertySpecifications (JpaSpecificationExecutor)
 }
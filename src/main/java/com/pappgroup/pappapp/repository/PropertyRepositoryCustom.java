@@ -0,0 +1,17 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.dto.response.MapClusterResponse;
+import com.pappgroup.pappapp.dto.response.PropertyFacetsResponse;
+import com.pappgroup.pappapp.entity.Property;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface PropertyRepositoryCustom {
+
+    // Verilen filtre için şehir, ilçe, tip, oda ve fiyat kovası bazında sayılar
+    PropertyFacetsResponse countFacets(Specification<Property> specification);
+
+    // Konumlu ilanları cellDegrees boyutlu ızgara hücrelerinde sayar (harita kümeleri)
+    List<MapClusterResponse> clusterByGrid(Specification<Property> specification, double cellDegrees, int limit);
+}
@@ -0,0 +1,143 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.dto.response.MapClusterResponse;
+import com.pappgroup.pappapp.dto.response.PropertyFacetsResponse;
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.util.PriceBuckets;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bellek içi index kapalıyken facet sayıları ve harita kümeleri için veritabanı yolu
+public class PropertyRepositoryImpl implements PropertyRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public PropertyFacetsResponse countFacets(Specification<Property> specification) {
+        PropertyFacetsResponse response = new PropertyFacetsResponse();
+        response.setCities(countBy(specification, "city"));
+        response.setDistricts(countBy(specification, "district"));
+        response.setPropertyTypes(countBy(specification, "propertyType"));
+        response.setListingTypes(countBy(specification, "listingType"));
+        response.setRoomConfigurations(countRoomConfigurations(specification));
+        countPriceBuckets(specification, response);
+        return response;
+    }
+
+    private Map<String, Long> countBy(Specification<Property> specification, String attribute) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        Path<Object> path = root.get(attribute);
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(path, count)
+                .where(specification.toPredicate(root, query, cb))
+                .groupBy(path)
+                .orderBy(cb.desc(count), cb.asc(path));
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            Object key = row.get(0);
+            if (key != null) {
+                result.put(key instanceof Enum<?> e ? e.name() : key.toString(), row.get(1, Long.class));
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Long> countRoomConfigurations(Specification<Property> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        Path<Integer> roomCount = root.get("roomCount");
+        Path<Integer> hallCount = root.get("hallCount");
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(roomCount, hallCount, count)
+                .where(cb.and(specification.toPredicate(root, query, cb),
+                        cb.isNotNull(roomCount), cb.isNotNull(hallCount)))
+                .groupBy(roomCount, hallCount)
+                .orderBy(cb.desc(count), cb.asc(roomCount), cb.asc(hallCount));
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            result.put(row.get(0) + "+" + row.get(1), row.get(2, Long.class));
+        }
+        return result;
+    }
+
+    // Kovalar GROUP BY yerine koşullu toplamlarla tek satırda sayılır
+    private void countPriceBuckets(Specification<Property> specification, PropertyFacetsResponse response) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        Path<BigDecimal> price = root.get("price");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(cb.count(root));
+        for (int i = 0; i < PriceBuckets.count(); i++) {
+            Expression<Boolean> inBucket = cb.greaterThanOrEqualTo(price, BigDecimal.valueOf(PriceBuckets.lowerBound(i)));
+            if (i + 1 < PriceBuckets.count()) {
+                inBucket = cb.and(inBucket, cb.lessThan(price, BigDecimal.valueOf(PriceBuckets.lowerBound(i + 1))));
+            }
+            selections.add(cb.sum(cb.<Long>selectCase().when(inBucket, 1L).otherwise(0L)));
+        }
+
+        query.multiselect(selections).where(specification.toPredicate(root, query, cb));
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+
+        response.setTotal(row.get(0, Long.class));
+        for (int i = 0; i < PriceBuckets.count(); i++) {
+            Number bucketCount = (Number) row.get(i + 1);
+            if (bucketCount != null && bucketCount.longValue() > 0) {
+                response.getPriceBuckets().put(PriceBuckets.label(i), bucketCount.longValue());
+            }
+        }
+    }
+
+    // Hücre ifadeleri SELECT ve GROUP BY'da aynı nesne; PostgreSQL'de GROUP BY 1, 2 olarak yazılır
+    @Override
+    public List<MapClusterResponse> clusterByGrid(Specification<Property> specification, double cellDegrees, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        Path<Double> latitude = root.get("latitude");
+        Path<Double> longitude = root.get("longitude");
+        Expression<Double> cellY = cb.function("floor", Double.class, cb.quot(latitude, cellDegrees));
+        Expression<Double> cellX = cb.function("floor", Double.class, cb.quot(longitude, cellDegrees));
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(cellY, cellX, count, cb.avg(latitude), cb.avg(longitude), cb.min(root.<Long>get("id")))
+                .where(cb.and(specification.toPredicate(root, query, cb),
+                        cb.isNotNull(latitude), cb.isNotNull(longitude)))
+                .groupBy(cellY, cellX)
+                .orderBy(cb.desc(count));
+
+        List<MapClusterResponse> clusters = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            Long clusterCount = row.get(2, Long.class);
+            clusters.add(new MapClusterResponse(
+                    row.get(3, Double.class),
+                    row.get(4, Double.class),
+                    clusterCount,
+                    clusterCount == 1 ? row.get(5, Long.class) : null));
+        }
+        return clusters;
+    }
+}
@@ -0,0 +1,220 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.util.GeoUtils;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Arama isteğinde sadece dolu olan filtreler için predicate üretir.
+// Böylece PostgreSQL her filtre kombinasyonu için seçici index'leri kullanabilir.
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> activeWithFilters(PropertySearchRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            predicates.add(cb.isTrue(root.get("approved")));
+            predicates.add(cb.isTrue(root.get("active")));
+
+            if (request.getListingType() != null) {
+                predicates.add(cb.equal(root.get("listingType"), request.getListingType()));
+            }
+            if (request.getPropertyType() != null) {
+                predicates.add(cb.equal(root.get("propertyType"), request.getPropertyType()));
+            }
+            if (hasText(request.getCity())) {
+                predicates.add(cb.equal(root.get("city"), request.getCity().trim()));
+            }
+            if (hasText(request.getDistrict())) {
+                predicates.add(cb.equal(root.get("district"), request.getDistrict().trim()));
+            }
+            if (hasText(request.getNeighborhood())) {
+                predicates.add(cb.equal(root.get("neighborhood"), request.getNeighborhood().trim()));
+            }
+            if (request.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), request.getMaxPrice()));
+            }
+            if (request.getMinArea() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("grossArea"), request.getMinArea()));
+            }
+            if (request.getMaxArea() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("grossArea"), request.getMaxArea()));
+            }
+
+            addFlag(predicates, cb, root.get("furnished"), request.getFurnished());
+            addFlag(predicates, cb, root.get("elevator"), request.getElevator());
+            addFlag(predicates, cb, root.get("parking"), request.getParking());
+            addFlag(predicates, cb, root.get("balcony"), request.getBalcony());
+            addFlag(predicates, cb, root.get("security"), request.getSecurity());
+            addFlag(predicates, cb, root.get("negotiable"), request.getNegotiable());
+            addFlag(predicates, cb, root.get("featured"), request.getFeatured());
+            addFlag(predicates, cb, root.get("pappSellable"), request.getPappSellable());
+
+            // NULL oda sayıları karşılaştırmada zaten elenir
+            if (request.getMinRoomCount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("roomCount"), request.getMinRoomCount()));
+            }
+            if (request.getMaxRoomCount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("roomCount"), request.getMaxRoomCount()));
+            }
+            if (request.getHallCount() != null) {
+                predicates.add(cb.equal(root.get("hallCount"), request.getHallCount()));
+            }
+
+            addGeoPredicates(predicates, root, cb, request);
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Yarıçap: önce (latitude, longitude) index'iyle kutu, sonra küresel merkez açısı kontrolü.
+    // cos(açı) >= cos(r / R) karşılaştırması acos hesaplamadan aynı sonucu verir.
+    private static void addGeoPredicates(List<Predicate> predicates,
+                                         Root<Property> root,
+                                         CriteriaBuilder cb,
+                                         PropertySearchRequest request) {
+        Path<Double> latitude = root.get("latitude");
+        Path<Double> longitude = root.get("longitude");
+
+        if (request.getLatitude() != null && request.getLongitude() != null && request.getRadiusKm() != null) {
+            double[] box = GeoUtils.boundingBox(request.getLatitude(), request.getLongitude(), request.getRadiusKm());
+            predicates.add(cb.between(latitude, box[0], box[1]));
+            predicates.add(cb.between(longitude, box[2], box[3]));
+
+            double centerLat = Math.toRadians(request.getLatitude());
+            double centerLng = Math.toRadians(request.getLongitude());
+            Expression<Double> latRad = cb.function("radians", Double.class, latitude);
+            Expression<Double> lngDelta = cb.diff(cb.function("radians", Double.class, longitude), centerLng);
+            Expression<Double> cosAngle = cb.sum(
+                    cb.prod(Math.sin(centerLat), cb.function("sin", Double.class, latRad)),
+                    cb.prod(cb.prod(Math.cos(centerLat), cb.function("cos", Double.class, latRad)),
+                            cb.function("cos", Double.class, lngDelta)));
+            double minCos = Math.cos(Math.min(Math.PI, request.getRadiusKm() / GeoUtils.EARTH_RADIUS_KM));
+            predicates.add(cb.greaterThanOrEqualTo(cosAngle, minCos));
+        }
+
+        if (request.getMinLatitude() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(latitude, request.getMinLatitude()));
+        }
+        if (request.getMaxLatitude() != null) {
+            predicates.add(cb.lessThanOrEqualTo(latitude, request.getMaxLatitude()));
+        }
+        if (request.getMinLongitude() != null && request.getMaxLongitude() != null
+                && request.getMinLongitude() > request.getMaxLongitude()) {
+            // 180. meridyeni geçen görünüm
+            predicates.add(cb.or(
+                    cb.greaterThanOrEqualTo(longitude, request.getMinLongitude()),
+                    cb.lessThanOrEqualTo(longitude, request.getMaxLongitude())));
+        } else {
+            if (request.getMinLongitude() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(longitude, request.getMinLongitude()));
+            }
+            if (request.getMaxLongitude() != null) {
+                predicates.add(cb.lessThanOrEqualTo(longitude, request.getMaxLongitude()));
+            }
+        }
+    }
+
+    public static boolean hasGeoFilter(PropertySearchRequest request) {
+        return (request.getLatitude() != null && request.getLongitude() != null && request.getRadiusKm() != null)
+                || request.getMinLatitude() != null || request.getMaxLatitude() != null
+                || request.getMinLongitude() != null || request.getMaxLongitude() != null;
+    }
+
+    // Başlık + açıklamada kelime araması.
+    // fullText: tsvector (Türkçe kök + unaccent) veya başlıkta trigram benzerliği, ikisi de GIN index'ten gelir.
+    // Arama nesneleri kurulamadıysa upper(...) LIKE ile eski davranışa düşer.
+    public static Specification<Property> keywordMatches(String keyword, boolean fullText) {
+        String term = keyword.trim();
+        return (root, query, cb) -> {
+            if (!fullText) {
+                Expression<String> pattern = cb.upper(cb.literal("%" + escapeLike(term) + "%"));
+                return cb.or(
+                        cb.like(cb.upper(root.get("title")), pattern, '\\'),
+                        cb.like(cb.upper(root.get("description")), pattern, '\\'));
+            }
+            return cb.or(
+                    cb.isTrue(cb.function("fts_match", Boolean.class,
+                            root.get("title"), root.get("description"), cb.literal(term))),
+                    cb.isTrue(cb.function("trgm_match", Boolean.class,
+                            root.get("title"), cb.literal(term))));
+        };
+    }
+
+    // Alaka düzeyine göre sıralama; eşitlikte sayfalamanın kendi sıralaması kullanılır.
+    // Sayfalı sorguya unsorted Pageable verilmeli, yoksa Spring Data bu sıralamayı ezer.
+    public static Specification<Property> orderByRelevance(String keyword, Sort tieBreak) {
+        String term = keyword.trim();
+        return (root, query, cb) -> {
+            // Count ve facet (Tuple) sorgularında sıralama anlamsız
+            if (query.getResultType() != Property.class) {
+                return null;
+            }
+            Expression<Double> relevance = cb.sum(
+                    cb.function("fts_rank", Double.class,
+                            root.get("title"), root.get("description"), cb.literal(term)),
+                    cb.function("trgm_similarity", Double.class, root.get("title"), cb.literal(term)));
+
+            List<Order> orders = new ArrayList<>();
+            orders.add(cb.desc(relevance));
+            orders.addAll(toOrders(root, cb, tieBreak));
+            orders.add(cb.desc(root.get("id")));
+            query.orderBy(orders);
+            return null;
+        };
+    }
+
+    // Keyset sayfalama: (createdAt, id) < (cursorCreatedAt, cursorId)
+    public static Specification<Property> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static void addFlag(List<Predicate> predicates,
+                                CriteriaBuilder cb,
+                                Path<Boolean> path,
+                                Boolean value) {
+        if (value != null) {
+            predicates.add(cb.equal(path, value));
+        }
+    }
+
+    private static List<Order> toOrders(Root<Property> root, CriteriaBuilder cb, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if ("id".equals(order.getProperty())) {
+                continue;
+            }
+            orders.add(order.isAscending()
+                    ? cb.asc(root.get(order.getProperty()))
+                    : cb.desc(root.get(order.getProperty())));
+        }
+        return orders;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// İlan kartı (PropertySummaryResponse) için gereken kolonlar.
+// Kapalı projeksiyon olduğu için sorgu sadece bu kolonları seçer; açıklama, koleksiyonlar ve kullanıcı yüklenmez.
+public interface PropertySummaryView {
+
+    Long getId();
+
+    String getTitle();
+
+    ListingType getListingType();
+
+    PropertyType getPropertyType();
+
+    String getCity();
+
+    String getDistrict();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    BigDecimal getPrice();
+
+    Boolean getNegotiable();
+
+    Integer getGrossArea();
+
+    Boolean getElevator();
+
+    Boolean getParking();
+
+    Boolean getBalcony();
+
+    Boolean getFurnished();
+
+    Integer getRoomCount();
+
+    Integer getHallCount();
+
+    Boolean getFeatured();
+
+    Boolean getPappSellable();
+
+    Long getViewCount();
+
+    LocalDateTime getCreatedAt();
+
+    String getPrimaryImageUrl();
+}
@@ -2,9 +2,11 @@ package com.pappgroup.pappapp.repository;
 
 import com.pappgroup.pappapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -25,4 +27,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPhoneNumber(String phoneNumber);
 
     boolean existsByPhoneNumber(String phoneNumber);
+
+    // İlan sahibinin puan toplamı; farklar mevcut değerin üzerine eklenir
+    @Modifying
+    @Query("UPDATE User u SET u.ratingSum = u.ratingSum + :sumDelta, " +
+            "u.ratingCount = u.ratingCount + :countDelta WHERE u.id = :id")
+    int addRating(@Param("id") Long id, @Param("sumDelta") long sumDelta, @Param("countDelta") long countDelta);
+
+    // Oturum iptali tek UPDATE ile; token_epoch entity'den yazılmaz, eşzamanlı save'ler eski değeri geri yazamaz
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1 WHERE u.id = :id")
+    int incrementTokenEpoch(@Param("id") Long id);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :id")
+    int findTokenEpoch(@Param("id") Long id);
+
+    // Hesap durumu sadece bu sorguyla değişir (enabled entity'den yazılmaz)
+    @Modifying
+    @Query("UPDATE User u SET u.enabled = :enabled WHERE u.id = :id")
+    int updateEnabled(@Param("id") Long id, @Param("enabled") boolean enabled);
+
+    // Compare-and-set: hash sadece okunduğu değerden değişmemişse yazılır, satırın diğer alanlarına dokunulmaz
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.pappgroup.pappapp.security;
 
-import com.pappgroup.pappapp.entity.User;
-import com.pappgroup.pappapp.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,16 +14,18 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtTokenProvider tokenProvider;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private RevokedTokenFamilies revokedTokenFamilies;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -34,14 +35,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
-
-                Optional<User> userOptional = userRepository.findByEmail(email);
-                if (userOptional.isPresent()) {
-                    User user = userOptional.get();
-                    UserPrincipal userPrincipal = new UserPrincipal(user);
-
+            if (StringUtils.hasText(jwt)) {
+                UserPrincipal userPrincipal = authenticate(jwt);
+                if (userPrincipal != null) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userPrincipal,
@@ -60,6 +56,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Principal token claim'lerinden kurulur; imza sadece cache'te olmayan token için, DB sadece
+    // UserStatusCache'te olmayan kullanıcı için kontrol edilir
+    private UserPrincipal authenticate(String jwt) {
+        TokenClaims claims;
+        try {
+            claims = verifiedTokenCache.parse(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        // Refresh token access token yerine kullanılamaz
+        if (!claims.isAccessToken() || !userStatusCache.isActive(claims.userId(), claims.epoch())) {
+            return null;
+        }
+        // Çıkış yapılan girişin access token'ları
+        if (claims.familyId() != null && revokedTokenFamilies.isRevoked(claims.familyId())) {
+            return null;
+        }
+        return UserPrincipal.fromToken(claims.userId(), claims.email(), claims.role());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -2,11 +2,15 @@ package com.pappgroup.pappapp.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
@@ -20,70 +24,77 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh.expiration}")
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Anahtar ve parser bir kez kurulur; ikisi de thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    public String generateToken(String email, String role, Long userId, int tokenEpoch) {
+        return generateToken(email, role, userId, tokenEpoch, null);
     }
 
-    public String generateToken(String email, String role, Long userId) {
+    // familyId verilirse aile iptal edildiğinde (çıkış) access token da reddedilir
+    public String generateToken(String email, String role, Long userId, int tokenEpoch, UUID familyId) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(email)
                 .claim("role", role)
                 .claim("userId", userId)
+                .claim("epoch", tokenEpoch);
+        if (familyId != null) {
+            builder.claim("fam", familyId.toString());
+        }
+        return builder
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String generateRefreshToken(String email) {
-        Date expiryDate = new Date(System.currentTimeMillis() + refreshExpiration);
-
+    // expiresAt, aile satırına yazılan değerle aynı olmalı (bkz. getRefreshExpiry)
+    public String generateRefreshToken(String email, UUID familyId, UUID tokenId, Instant expiresAt) {
         return Jwts.builder()
                 .setSubject(email)
+                .setId(tokenId.toString())
+                .claim("fam", familyId.toString())
                 .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Instant getRefreshExpiry() {
+        return Instant.now().plusMillis(refreshExpiration);
+    }
 
-        return claims.getSubject();
+    // İmza ve süre tek seferde doğrulanır; geçersiz token'da JwtException fırlatır
+    public TokenClaims parseToken(String token) {
+        return TokenClaims.from(parser.parseClaimsJws(token).getBody());
     }
 
-    public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String getEmailFromToken(String token) {
+        return parseToken(token).email();
+    }
 
-        return claims.get("role", String.class);
+    public String getRoleFromToken(String token) {
+        return parseToken(token).role();
     }
 
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("userId", Long.class);
+        return parseToken(token).userId();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parseToken(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -92,12 +103,8 @@ public class JwtTokenProvider {
 
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claims.getExpiration().before(new Date());
+            parseToken(token);
+            return false;
         } catch (JwtException | IllegalArgumentException e) {
             return true;
         }
@@ -0,0 +1,147 @@
+package com.pappgroup.pappapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pappgroup.pappapp.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// İptal edilmiş refresh token ailelerinin bellekteki listesi; her istekte DB'ye gitmeden O(1) kontrol.
+// Açılışta tablodaki (milyonlarca olabilecek) iptaller kompakt bir bloom filter'a yüklenir; filtrenin
+// "olabilir" dediği aile DB'den doğrulanır ve sonuç cache'lenir. Açılıştan sonraki iptaller (bu instance'ta
+// veya periyodik senkronla diğerlerinden gelen) kesin listede, aile süresi dolana kadar tutulur.
+@Component
+@Slf4j
+public class RevokedTokenFamilies {
+
+    private static final String COUNT_SQL =
+            "SELECT count(*) FROM refresh_token_families WHERE revoked_at IS NOT NULL AND expires_at > ?";
+
+    private static final String LOAD_SQL =
+            "SELECT id FROM refresh_token_families WHERE revoked_at IS NOT NULL AND expires_at > ?";
+
+    private static final String SYNC_SQL = "SELECT id, expires_at, revoked_at FROM refresh_token_families "
+            + "WHERE revoked_at IS NOT NULL AND revoked_at > ? AND expires_at > ?";
+
+    private static final String IS_REVOKED_SQL =
+            "SELECT count(*) FROM refresh_token_families WHERE id = ? AND revoked_at IS NOT NULL";
+
+    // Geç commit edilen iptaller ve instance'lar arası saat farkı için senkron penceresi geriye kaydırılır
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double falsePositiveRate;
+
+    private final Map<UUID, Instant> recent = new ConcurrentHashMap<>();
+    private final Cache<UUID, Boolean> confirmed;
+    private volatile BloomFilter loaded;
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    public RevokedTokenFamilies(JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.security.refresh-tokens.bloom-false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(10_000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+
+        Gauge.builder("refresh.revoked.recent.size", recent, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("refresh.revoked.bloom.bytes", this, families -> {
+                    BloomFilter filter = families.loaded;
+                    return filter != null ? filter.sizeInBytes() : 0;
+                })
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // İstek kabul edilmeden önce yüklenir; aksi halde açılışta iptal edilmiş aileler kabul edilirdi
+    @PostConstruct
+    public void reload() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Timestamp nowTs = Timestamp.from(now);
+
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, nowTs);
+        BloomFilter filter = new BloomFilter(count != null ? count : 0, falsePositiveRate);
+        // PostgreSQL sadece transaction içinde fetch size ile satırları parça parça getirir
+        transactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(LOAD_SQL, rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            filter.put(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }, nowTs));
+
+        loaded = filter;
+        recent.clear();
+        confirmed.invalidateAll();
+        syncedUntil = now;
+        log.info("Loaded {} revoked refresh token families into a {} KB bloom filter in {} ms",
+                count, filter.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isRevoked(UUID familyId) {
+        if (recent.containsKey(familyId)) {
+            return true;
+        }
+        BloomFilter filter = loaded;
+        if (filter == null || !filter.mightContain(familyId.getMostSignificantBits(), familyId.getLeastSignificantBits())) {
+            return false;
+        }
+        return confirmed.get(familyId, id -> {
+            Long rows = jdbcTemplate.queryForObject(IS_REVOKED_SQL, Long.class, id);
+            return rows != null && rows > 0;
+        });
+    }
+
+    // Commit sonrası çağrılır; expiresAt'ten sonra aile zaten geçersizdir
+    public void add(UUID familyId, Instant expiresAt) {
+        recent.put(familyId, expiresAt);
+    }
+
+    // Diğer instance'lardaki iptalleri alır ve süresi dolan kayıtları bırakır
+    @Scheduled(fixedDelayString = "${app.security.refresh-tokens.revocation-sync-ms:5000}",
+            initialDelayString = "${app.security.refresh-tokens.revocation-sync-ms:5000}")
+    public void sync() {
+        try {
+            Instant now = Instant.now();
+            Instant[] latest = {syncedUntil};
+            jdbcTemplate.query(SYNC_SQL, rs -> {
+                Instant revokedAt = rs.getTimestamp("revoked_at").toInstant();
+                recent.put(rs.getObject("id", UUID.class), rs.getTimestamp("expires_at").toInstant());
+                if (revokedAt.isAfter(latest[0])) {
+                    latest[0] = revokedAt;
+                }
+            }, Timestamp.from(syncedUntil.minus(SYNC_OVERLAP)), Timestamp.from(now));
+            syncedUntil = latest[0];
+
+            recent.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        } catch (Exception e) {
+            log.error("Refresh token revocation sync failed: {}", e.getMessage(), e);
+        }
+    }
+}
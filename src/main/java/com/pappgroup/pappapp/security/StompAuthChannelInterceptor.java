@@ -0,0 +1,77 @@
+package com.pappgroup.pappapp.security;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+// STOMP CONNECT çerçevesindeki "Authorization: Bearer <jwt>" başlığını doğrular.
+// Principal adı kullanıcı id'sidir; /user/queue/... hedefleri bu id ile eşleşir.
+// Kanal sadece sunucudan istemciye çalışır: SEND reddedilir, abonelik sadece kullanıcının kendi kuyruklarına yapılır.
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String USER_QUEUE_PREFIX = "/user/queue/";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevokedTokenFamilies revokedTokenFamilies;
+    private final UserStatusCache userStatusCache;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (command == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+                throw new MessageDeliveryException("Subscription not allowed: " + destination);
+            }
+        } else if (command == StompCommand.SEND) {
+            throw new MessageDeliveryException("Sending over WebSocket is not supported, use the REST API");
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String header) {
+        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing bearer token");
+        }
+        TokenClaims claims;
+        try {
+            claims = verifiedTokenCache.parse(header.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new MessageDeliveryException("Invalid token");
+        }
+        if (!claims.isAccessToken()) {
+            throw new MessageDeliveryException("Token has no user id");
+        }
+        // HTTP filtresiyle aynı: pasif hesap veya eski epoch'lu token bağlanamaz
+        if (!userStatusCache.isActive(claims.userId(), claims.epoch())) {
+            throw new MessageDeliveryException("Token is no longer valid");
+        }
+        if (claims.familyId() != null && revokedTokenFamilies.isRevoked(claims.familyId())) {
+            throw new MessageDeliveryException("Token has been revoked");
+        }
+
+        return new UsernamePasswordAuthenticationToken(claims.userId().toString(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + claims.role())));
+    }
+}
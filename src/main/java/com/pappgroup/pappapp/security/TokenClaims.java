@@ -0,0 +1,31 @@
+package com.pappgroup.pappapp.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// İmzası doğrulanmış token'ın claim'leri. Token istek başına bir kez çözülür, sonra bu nesne kullanılır.
+// Refresh token'larda userId ve role null'dır; tokenId (jti) sadece refresh token'da bulunur.
+// familyId, token'ın ait olduğu refresh token ailesidir (girişte açılır, çıkışta iptal edilir).
+public record TokenClaims(String email, Long userId, String role, int epoch, UUID familyId, UUID tokenId,
+                          Instant issuedAt, Instant expiresAt) {
+
+    static TokenClaims from(Claims claims) {
+        Integer epoch = claims.get("epoch", Integer.class);
+        String familyId = claims.get("fam", String.class);
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("role", String.class),
+                epoch != null ? epoch : 0,
+                familyId != null ? UUID.fromString(familyId) : null,
+                claims.getId() != null ? UUID.fromString(claims.getId()) : null,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isAccessToken() {
+        return userId != null && role != null;
+    }
+}
@@ -8,29 +8,46 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
 
+// Kimliği doğrulanmış kullanıcının sadece kimlik bilgileri; User entity'si taşınmaz.
+// JWT ile gelen isteklerde token claim'lerinden, form girişinde User satırından kurulur.
 public class UserPrincipal implements UserDetails {
 
-    private final User user;
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final boolean enabled;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    private UserPrincipal(Long id, String email, String password, boolean enabled, String role) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.enabled = enabled;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
 
     public UserPrincipal(User user) {
-        this.user = user;
+        this(user.getId(), user.getEmail(), user.getPassword(), user.isEnabled(), user.getRole().name());
+    }
+
+    // Hesap durumu JwtAuthenticationFilter'da UserStatusCache ile kontrol edilir
+    public static UserPrincipal fromToken(Long userId, String email, String role) {
+        return new UserPrincipal(userId, email, null, true, role);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
+        return authorities;
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -50,14 +67,10 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.isEnabled();
-    }
-
-    public User getUser() {
-        return user;
+        return enabled;
     }
 
     public Long getId() {
-        return user.getId();
+        return id;
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.pappgroup.pappapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Kimlik doğrulamada token claim'leri yeterli; DB'ye sadece hesabın hâlâ aktif olup olmadığı
+// ve token sürümü (epoch) için gidilir, o da bu cache üzerinden.
+// Admin işlemleri commit sonrası kaydı siler; diğer instance'larda eski değer en fazla TTL kadar yaşar.
+@Component
+public class UserStatusCache {
+
+    private static final String STATUS_SQL = "SELECT enabled, token_epoch FROM users WHERE id = ?";
+
+    // Silinmiş kullanıcı da cache'lenir; token'ı her istekte DB'ye gitmeden reddedilir
+    private static final UserStatus MISSING = new UserStatus(false, Integer.MAX_VALUE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, UserStatus> cache;
+
+    public UserStatusCache(JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.security.user-status.maximum-size:100000}") long maximumSize,
+                           @Value("${app.security.user-status.ttl-seconds:30}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.status");
+    }
+
+    // Hesap aktif ve token güncel epoch ile üretilmişse true
+    public boolean isActive(Long userId, int tokenEpoch) {
+        UserStatus status = cache.get(userId, this::load);
+        return status.enabled() && tokenEpoch >= status.tokenEpoch();
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private UserStatus load(Long userId) {
+        List<UserStatus> rows = jdbcTemplate.query(STATUS_SQL,
+                (rs, rowNum) -> new UserStatus(rs.getBoolean("enabled"), rs.getInt("token_epoch")),
+                userId);
+        return rows.isEmpty() ? MISSING : rows.get(0);
+    }
+
+    private record UserStatus(boolean enabled, int tokenEpoch) {
+    }
+}
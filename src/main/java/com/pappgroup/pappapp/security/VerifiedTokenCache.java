@@ -0,0 +1,134 @@
+package com.pappgroup.pappapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+// Doğrulanmış access token'ların claim'leri; aynı token'la gelen istekler imza doğrulamasını atlar.
+// Anahtar token'ın SHA-256 özetidir, token metni bellekte tutulmaz. Kayıt token'ın exp anında düşer.
+// Aile (fam) taşıyan token'ın çıkışı RevokedTokenFamilies'teki aile iptaliyle reddedilir, burada kayıt tutulmaz.
+// Sadece ailesiz (aileler öncesi üretilmiş) token'lar exp'e kadar ayrı bir listede tutulur; bu liste instance'a özeldir.
+// Listenin boyut sınırı yoktur (taşan kayıt atılsaydı token tekrar geçerdi). Ailesiz token artık üretilmediği için
+// liste en fazla bir access token ömrü boyunca ve eski token sayısı kadar büyüyebilir.
+@Component
+public class VerifiedTokenCache {
+
+    // Kayıt başına yaklaşık heap (özet anahtarı, TokenClaims ve Caffeine düğümü); ölçüm VerifiedTokenCacheTests'te
+    static final long ESTIMATED_ENTRY_BYTES = 384;
+
+    private final JwtTokenProvider tokenProvider;
+    private final Cache<TokenHash, TokenClaims> verified;
+    private final Cache<TokenHash, Instant> revoked;
+
+    public VerifiedTokenCache(JwtTokenProvider tokenProvider,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.security.token-cache.maximum-size:50000}") long maximumSize) {
+        this.tokenProvider = tokenProvider;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(UntilTokenExpiry.of(TokenClaims::expiresAt))
+                .recordStats()
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(UntilTokenExpiry.<Instant>of(expiresAt -> expiresAt))
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+        Gauge.builder("jwt.verified.cache.estimated.bytes", verified,
+                        cache -> cache.estimatedSize() * ESTIMATED_ENTRY_BYTES)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revoked.size", revoked, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    // Cache'te yoksa token doğrulanır; geçersiz veya çıkış yapılmış token'da JwtException fırlatır
+    public TokenClaims parse(String token) {
+        TokenHash hash = TokenHash.of(token);
+        if (revoked.getIfPresent(hash) != null) {
+            throw new JwtException("Token has been revoked");
+        }
+
+        TokenClaims claims = verified.getIfPresent(hash);
+        if (claims == null) {
+            claims = tokenProvider.parseToken(token);
+            if (claims.isAccessToken() && claims.expiresAt() != null) {
+                verified.put(hash, claims);
+            }
+        }
+        return claims;
+    }
+
+    // Geçersiz token sessizce yok sayılır (null döner); çıkış isteği her durumda başarılı döner
+    public TokenClaims revoke(String token) {
+        TokenClaims claims;
+        try {
+            claims = parse(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        TokenHash hash = TokenHash.of(token);
+        verified.invalidate(hash);
+        if (claims.familyId() == null && claims.expiresAt() != null) {
+            revoked.put(hash, claims.expiresAt());
+        }
+        return claims;
+    }
+
+    // Özet eşitliği token eşitliği yerine geçer; 256 bitlik SHA-256 çakışması pratikte imkânsız
+    record TokenHash(long h0, long h1, long h2, long h3) {
+
+        // MessageDigest.getInstance provider araması her çağrıda maliyetli; thread başına bir örnek yeterli
+        private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        });
+
+        static TokenHash of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenHash(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+
+    // Kayıt, değerden okunan exp anına kadar yaşar; okuma ve güncelleme süreyi değiştirmez
+    private record UntilTokenExpiry<V>(Function<V, Instant> expiresAt) implements Expiry<TokenHash, V> {
+
+        static <V> UntilTokenExpiry<V> of(Function<V, Instant> expiresAt) {
+            return new UntilTokenExpiry<>(expiresAt);
+        }
+
+        @Override
+        public long expireAfterCreate(TokenHash key, V value, long currentTime) {
+            long nanos = Duration.between(Instant.now(), expiresAt.apply(value)).toNanos();
+            return Math.max(0, nanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,8 +3,11 @@ package com.pappgroup.pappapp.service;
 import com.pappgroup.pappapp.dto.response.UserResponse;
 import com.pappgroup.pappapp.entity.User;
 import com.pappgroup.pappapp.repository.UserRepository;
+import com.pappgroup.pappapp.security.UserStatusCache;
+import com.pappgroup.pappapp.util.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,6 +21,12 @@ public class AdminService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ListingCardService listingCardService;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
+
     public List<UserResponse> getAllUsers() {
         List<User> users = userRepository.findAll();
         return users.stream()
@@ -31,19 +40,29 @@ public class AdminService {
         return userService.convertToUserResponse(user);
     }
 
+    @Transactional
     public UserResponse updateUserStatus(Long id, boolean enabled) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        userRepository.updateEnabled(id, enabled);
         user.setEnabled(enabled);
+        // Pasifleştirilen hesabın açık oturumları, hesap tekrar açılsa bile geçersiz kalır
+        if (!enabled) {
+            userService.revokeSessions(user);
+        }
         User updatedUser = userRepository.save(user);
+        TransactionUtils.afterCommit(() -> userStatusCache.invalidate(id));
         return userService.convertToUserResponse(updatedUser);
     }
 
+    @Transactional
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        listingCardService.removeOwner(id);
         userRepository.delete(user);
+        TransactionUtils.afterCommit(() -> userStatusCache.invalidate(id));
     }
 
     public Long getTotalUserCount() {
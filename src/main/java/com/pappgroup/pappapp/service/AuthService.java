@@ -9,7 +9,8 @@ import com.pappgroup.pappapp.enums.Role;
 import com.pappgroup.pappapp.exception.InvalidCredentialsException;
 import com.pappgroup.pappapp.exception.UserNotFoundException;
 import com.pappgroup.pappapp.repository.UserRepository;
-import com.pappgroup.pappapp.security.JwtTokenProvider;
+import com.pappgroup.pappapp.security.TokenClaims;
+import com.pappgroup.pappapp.security.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -27,10 +28,13 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private UserService userService;
 
     @Autowired
-    private UserService userService;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
     public AuthResponse register(RegisterRequest request) {
         // Email kontrolü
@@ -79,41 +83,40 @@ public class AuthService {
             throw new RuntimeException("User account is disabled");
         }
 
-        // Token oluştur
-        String token = jwtTokenProvider.generateToken(
-                user.getEmail(),
-                user.getRole().name(),
-                user.getId()
-        );
+        // Hash eski algoritma/parametrelerle üretilmişse şifre elimizdeyken yeniden hash'lenir.
+        // Entity iki yavaş hash'ten önce okundu; save etmek arada yapılan pasifleştirmeyi (enabled, token_epoch)
+        // geri alabilirdi. Sadece şifre kolonu, o arada değişmediyse güncellenir
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            String upgraded = passwordEncoder.encode(request.getPassword());
+            if (userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(), upgraded) == 1) {
+                user.setPassword(upgraded);
+            }
+        }
 
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
+        // Token oluştur (yeni refresh token ailesi)
+        RefreshTokenService.IssuedTokens tokens = refreshTokenService.issue(user);
 
         // Response oluştur
         UserResponse userResponse = userService.convertToUserResponse(user);
 
-        return new AuthResponse(token, refreshToken, userResponse);
+        return new AuthResponse(tokens.accessToken(), tokens.refreshToken(), userResponse);
     }
 
     public AuthResponse refreshToken(String refreshToken) {
-        // Refresh token doğrula
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new RuntimeException("Invalid refresh token");
-        }
-
-        String email = jwtTokenProvider.getEmailFromToken(refreshToken);
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Yeni access token oluştur
-        String newToken = jwtTokenProvider.generateToken(
-                user.getEmail(),
-                user.getRole().name(),
-                user.getId()
-        );
+        // Refresh token tek kullanımlık: doğrulanır, ailesi yeni token'a döner
+        RefreshTokenService.IssuedTokens tokens = refreshTokenService.rotate(refreshToken);
 
         // Response oluştur
-        UserResponse userResponse = userService.convertToUserResponse(user);
+        UserResponse userResponse = userService.convertToUserResponse(tokens.user());
 
-        return new AuthResponse(newToken, refreshToken, userResponse);
+        return new AuthResponse(tokens.accessToken(), tokens.refreshToken(), userResponse);
+    }
+
+    // Token'ın ailesi iptal edilir: aynı girişe ait refresh ve access token'lar artık kabul edilmez
+    public void logout(String token) {
+        TokenClaims claims = verifiedTokenCache.revoke(token);
+        if (claims != null && claims.familyId() != null) {
+            refreshTokenService.revoke(claims.familyId());
+        }
     }
 }
\ No newline at end of file
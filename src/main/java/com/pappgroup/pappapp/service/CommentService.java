@@ -25,6 +25,7 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
+    private final ListingCardService listingCardService;
 
     @Transactional
     public CommentResponse addComment(Long userId, CommentRequest request) {
@@ -51,6 +52,7 @@ public class CommentService {
         comment.setRating(request.getRating());
 
         Comment savedComment = commentRepository.save(comment);
+        applyRatingDelta(property, savedComment.getRating(), 1);
         log.info("User {} added comment to property {}", userId, request.getPropertyId());
 
         return convertToCommentResponse(savedComment);
@@ -70,13 +72,8 @@ public class CommentService {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
 
-        Double averageRating = commentRepository.findAverageRatingByProperty(property);
-        Long totalComments = commentRepository.countByProperty(property);
-
-        return new PropertyRatingResponse(
-                averageRating != null ? averageRating : 0.0,
-                totalComments
-        );
+        // Önceden hesaplanmış toplam + adet; comments tablosu taranmaz
+        return toRatingResponse(property.getRatingSum(), property.getRatingCount());
     }
 
     @Transactional
@@ -89,10 +86,12 @@ public class CommentService {
             throw new RuntimeException("You can only update your own comments");
         }
 
+        int previousRating = comment.getRating();
         comment.setComment(request.getComment());
         comment.setRating(request.getRating());
 
         Comment updatedComment = commentRepository.save(comment);
+        applyRatingDelta(comment.getProperty(), updatedComment.getRating() - previousRating, 0);
         log.info("User {} updated comment {}", userId, commentId);
 
         return convertToCommentResponse(updatedComment);
@@ -109,6 +108,7 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        applyRatingDelta(comment.getProperty(), -comment.getRating(), -1);
         log.info("User {} deleted comment {}", userId, commentId);
     }
 
@@ -126,12 +126,23 @@ public class CommentService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Double averageRating = commentRepository.findAverageRatingByPropertyUser(user);
-        Long totalComments = commentRepository.countByPropertyUser(user);
+        return toRatingResponse(user.getRatingSum(), user.getRatingCount());
+    }
+
+    // İlan, ilan sahibi ve ilan kartındaki puan toplamları aynı transaction'da güncellenir
+    private void applyRatingDelta(Property property, long sumDelta, long countDelta) {
+        if (sumDelta == 0 && countDelta == 0) {
+            return;
+        }
+        propertyRepository.addRating(property.getId(), sumDelta, countDelta);
+        userRepository.addRating(property.getUser().getId(), sumDelta, countDelta);
+        listingCardService.addRating(property.getId(), sumDelta, countDelta);
+    }
 
+    private PropertyRatingResponse toRatingResponse(long ratingSum, long ratingCount) {
         return new PropertyRatingResponse(
-                averageRating != null ? averageRating : 0.0,
-                totalComments
+                ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0,
+                ratingCount
         );
     }
 
@@ -0,0 +1,92 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.Message;
+import com.pappgroup.pappapp.repository.ConversationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// conversations özet tablosunu günceller. Tüm metotlar mesaj yazan transaction içinde çağrılır.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationService {
+
+    private static final String CONVERSATION_COLUMNS = "user_id, other_user_id, last_message_id, "
+            + "last_message_preview, last_message_at, last_property_id, unread_count";
+
+    // Eşzamanlı gönderimlerde commit sırası id sırasından farklı olabilir; son mesaj sadece daha yeni id ile değişir.
+    // Okunmamış sayısı her durumda eklenir.
+    private static final String RECORD_SQL = "INSERT INTO conversations (" + CONVERSATION_COLUMNS + ") VALUES "
+            + "(?, ?, ?, left(?, 255), ?, ?, ?), (?, ?, ?, left(?, 255), ?, ?, ?) "
+            + "ON CONFLICT (user_id, other_user_id) DO UPDATE SET "
+            + "last_message_preview = CASE WHEN EXCLUDED.last_message_id > conversations.last_message_id "
+            + "THEN EXCLUDED.last_message_preview ELSE conversations.last_message_preview END, "
+            + "last_message_at = CASE WHEN EXCLUDED.last_message_id > conversations.last_message_id "
+            + "THEN EXCLUDED.last_message_at ELSE conversations.last_message_at END, "
+            + "last_property_id = CASE WHEN EXCLUDED.last_message_id > conversations.last_message_id "
+            + "THEN EXCLUDED.last_property_id ELSE conversations.last_property_id END, "
+            + "last_message_id = GREATEST(EXCLUDED.last_message_id, conversations.last_message_id), "
+            + "unread_count = conversations.unread_count + EXCLUDED.unread_count";
+
+    // Tarafın görebildiği son mesaj ve okunmamış sayısı messages tablosundan yeniden okunur
+    private static final String REFRESH_SQL = "INSERT INTO conversations (" + CONVERSATION_COLUMNS + ") "
+            + "SELECT ?, ?, m.id, left(m.content, 255), m.created_at, m.property_id, "
+            + "(SELECT COUNT(*) FROM messages r WHERE r.receiver_id = ? AND r.sender_id = ? "
+            + "AND r.is_read = false AND r.deleted_by_receiver = false) "
+            + "FROM messages m "
+            + "WHERE (m.sender_id = ? AND m.receiver_id = ? AND m.deleted_by_sender = false) "
+            + "OR (m.sender_id = ? AND m.receiver_id = ? AND m.deleted_by_receiver = false) "
+            + "ORDER BY m.id DESC LIMIT 1 "
+            + "ON CONFLICT (user_id, other_user_id) DO UPDATE SET "
+            + "last_message_id = EXCLUDED.last_message_id, last_message_preview = EXCLUDED.last_message_preview, "
+            + "last_message_at = EXCLUDED.last_message_at, last_property_id = EXCLUDED.last_property_id, "
+            + "unread_count = EXCLUDED.unread_count";
+
+    private final ConversationRepository conversationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Yeni mesaj: iki tarafın satırı da güncellenir, alıcının okunmamış sayısı artar.
+    // Satırlar her zaman küçük user_id önce kilitlenir; karşılıklı gönderimler deadlock'a girmez.
+    @Transactional
+    public void recordMessage(Message message) {
+        Long senderId = message.getSender().getId();
+        Long receiverId = message.getReceiver().getId();
+        Long propertyId = message.getProperty() != null ? message.getProperty().getId() : null;
+
+        Object[] senderRow = {senderId, receiverId, message.getId(), message.getContent(),
+                message.getCreatedAt(), propertyId, 0L};
+        Object[] receiverRow = {receiverId, senderId, message.getId(), message.getContent(),
+                message.getCreatedAt(), propertyId, 1L};
+
+        Object[] args = new Object[14];
+        boolean senderFirst = senderId < receiverId;
+        System.arraycopy(senderFirst ? senderRow : receiverRow, 0, args, 0, 7);
+        System.arraycopy(senderFirst ? receiverRow : senderRow, 0, args, 7, 7);
+        jdbcTemplate.update(RECORD_SQL, args);
+    }
+
+    @Transactional
+    public void messageRead(Long receiverId, Long senderId) {
+        conversationRepository.decrementUnread(receiverId, senderId);
+    }
+
+    @Transactional
+    public void conversationRead(Long userId, Long otherUserId, int readCount) {
+        conversationRepository.subtractUnread(userId, otherUserId, readCount);
+    }
+
+    // Silme sonrası: tarafın görebildiği mesaj kalmadıysa satır silinir, kaldıysa son mesaj yeniden hesaplanır.
+    // Çağıran, mesaj değişikliklerini önceden flush etmiş olmalı (sorgu JDBC üzerinden çalışır).
+    @Transactional
+    public void refresh(Long userId, Long otherUserId) {
+        conversationRepository.deleteSide(userId, otherUserId);
+        jdbcTemplate.update(REFRESH_SQL,
+                userId, otherUserId,
+                userId, otherUserId,
+                userId, otherUserId,
+                otherUserId, userId);
+    }
+}
@@ -0,0 +1,299 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.EmailOutbox;
+import com.pappgroup.pappapp.enums.EmailOutboxStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// email_outbox tablosunu boşaltır.
+// Satırlar batch halinde kiralanır (next_attempt_at ileri alınır, SKIP LOCKED ile birden fazla instance çakışmaz);
+// her batch tek SMTP bağlantısı üzerinden gönderilir. Başarısız satırlar üstel bekleme ile tekrar denenir,
+// deneme hakkı bitince DEAD olur. Worker çökerse kira süresi dolunca satır tekrar alınır.
+// Gönderilen satırlar hemen silinir; DEAD satırlarda şablon değişkenleri (sıfırlama token'ı, doğrulama kodu)
+// silinir, satırın kendisi de saklama süresi dolunca temizlenir.
+@Service
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final String CLAIM_SQL = "UPDATE email_outbox SET next_attempt_at = ? "
+            + "WHERE id IN (SELECT id FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= ? "
+            + "ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, template, recipient, subject, variables, attempts";
+
+    private static final String DELETE_SQL = "DELETE FROM email_outbox WHERE id = ?";
+
+    private static final String FAILURE_SQL = "UPDATE email_outbox "
+            + "SET attempts = ?, next_attempt_at = ?, status = 'PENDING', last_error = ? WHERE id = ?";
+
+    private static final String DEAD_SQL = "UPDATE email_outbox "
+            + "SET attempts = ?, status = 'DEAD', variables = '{}', last_error = ? WHERE id = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM email_outbox WHERE id IN ("
+            + "SELECT id FROM email_outbox WHERE status = 'DEAD' AND created_at < ? "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final RowMapper<EmailOutbox> ROW_MAPPER = (rs, rowNum) -> {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(rs.getLong("id"));
+        email.setTemplate(rs.getString("template"));
+        email.setRecipient(rs.getString("recipient"));
+        email.setSubject(rs.getString("subject"));
+        email.setVariables(rs.getString("variables"));
+        email.setAttempts(rs.getInt("attempts"));
+        return email;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JavaMailSender mailSender;
+    private final EmailService emailService;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffBaseSeconds;
+    private final long backoffMaxSeconds;
+    private final long leaseSeconds;
+
+    @Value("${app.email.outbox.dead-retention-hours:168}")
+    private long deadRetentionHours;
+
+    @Value("${app.email.outbox.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    private final ExecutorService workers;
+    private final Semaphore slots;
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    public EmailOutboxDispatcher(JdbcTemplate jdbcTemplate,
+                                 JavaMailSender mailSender,
+                                 EmailService emailService,
+                                 @Value("${app.email.outbox.enabled:true}") boolean enabled,
+                                 @Value("${app.email.outbox.workers:4}") int workerCount,
+                                 @Value("${app.email.outbox.batch-size:20}") int batchSize,
+                                 @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${app.email.outbox.backoff-base-seconds:30}") long backoffBaseSeconds,
+                                 @Value("${app.email.outbox.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                                 @Value("${app.email.outbox.lease-seconds:300}") long leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailSender = mailSender;
+        this.emailService = emailService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseSeconds = backoffBaseSeconds;
+        this.backoffMaxSeconds = backoffMaxSeconds;
+        this.leaseSeconds = leaseSeconds;
+        this.slots = new Semaphore(workerCount);
+        // Drain görevi de havuzda çalışır; sabit havuzda onun için bir thread fazladan ayrılır
+        this.workers = newWorkerExecutor(workerCount + 1);
+    }
+
+    // Yeni email commit edildi: beklemeden gönderime başla
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnqueued(EmailOutbox email) {
+        if (enabled) {
+            workers.execute(this::drain);
+        }
+    }
+
+    // Uyandırma kaçarsa (başka instance, yeniden başlatma) ve tekrar denemeler için
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        if (enabled) {
+            drain();
+        }
+    }
+
+    // Boş worker olduğu sürece batch kiralayıp worker'lara dağıtır; aynı anda tek drain çalışır
+    void drain() {
+        if (!drainLock.tryLock()) {
+            return;
+        }
+        try {
+            while (slots.tryAcquire()) {
+                List<EmailOutbox> batch;
+                try {
+                    batch = claim();
+                } catch (Exception e) {
+                    slots.release();
+                    log.error("Email outbox claim failed: {}", e.getMessage());
+                    return;
+                }
+                if (batch.isEmpty()) {
+                    slots.release();
+                    return;
+                }
+                workers.execute(() -> {
+                    try {
+                        deliver(batch);
+                    } finally {
+                        slots.release();
+                    }
+                    // Dolu batch geldiyse kuyrukta daha fazlası olabilir
+                    if (batch.size() == batchSize) {
+                        drain();
+                    }
+                });
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    // Vadesi gelen tüm email'leri çağıran thread'de gönderir; gönderilen/başarısız toplamını döner
+    public int dispatchPending() {
+        int processed = 0;
+        List<EmailOutbox> batch;
+        while (!(batch = claim()).isEmpty()) {
+            deliver(batch);
+            processed += batch.size();
+        }
+        return processed;
+    }
+
+    private List<EmailOutbox> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER, now.plusSeconds(leaseSeconds), now, batchSize);
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(emailService.render(email), email);
+            } catch (Exception e) {
+                markFailed(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        // JavaMailSenderImpl tüm diziyi tek bağlantıyla gönderir
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : new IdentityHashMap<>(e.getFailedMessages());
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+
+        List<Object[]> sent = new ArrayList<>();
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                markFailed(entry.getValue(), failure);
+            } else {
+                sent.add(new Object[]{entry.getValue().getId()});
+            }
+        }
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, sent);
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutbox> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private void markFailed(EmailOutbox email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        EmailOutboxStatus status = attempts >= maxAttempts ? EmailOutboxStatus.DEAD : EmailOutboxStatus.PENDING;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+
+        if (status == EmailOutboxStatus.DEAD) {
+            jdbcTemplate.update(DEAD_SQL, attempts, error, email.getId());
+            log.error("Email {} to {} moved to dead letter after {} attempts: {}",
+                    email.getId(), email.getRecipient(), attempts, error);
+        } else {
+            jdbcTemplate.update(FAILURE_SQL, attempts, LocalDateTime.now().plusSeconds(backoffSeconds(attempts)),
+                    error, email.getId());
+            log.warn("Email {} to {} failed (attempt {}): {}", email.getId(), email.getRecipient(), attempts, error);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${app.email.outbox.purge-interval-ms:3600000}")
+    public void scheduledPurge() {
+        try {
+            int purged = purgeDead();
+            if (purged > 0) {
+                log.info("Purged {} dead outbox emails", purged);
+            }
+        } catch (Exception e) {
+            log.error("Email outbox purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Saklama süresini aşan DEAD satırları batch halinde siler
+    public int purgeDead() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(deadRetentionHours);
+        int total = 0;
+        while (true) {
+            int deleted = jdbcTemplate.update(PURGE_SQL, cutoff, purgeBatchSize);
+            total += deleted;
+            if (deleted < purgeBatchSize) {
+                return total;
+            }
+        }
+    }
+
+    // base * 2^(deneme-1), üst sınırlı; ±%20 sapma ile aynı anda düşen email'ler aynı anda tekrar denenmez
+    long backoffSeconds(int attempts) {
+        long delay = backoffBaseSeconds << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, backoffMaxSeconds);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Math.max(1, Math.round(delay * jitter));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    // Java 21+ çalışma zamanında virtual thread, aksi halde sabit boyutlu havuz
+    private static ExecutorService newWorkerExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "email-outbox-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -1,24 +1,38 @@
 package com.pappgroup.pappapp.service;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pappgroup.pappapp.entity.EmailOutbox;
+import com.pappgroup.pappapp.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import java.io.UnsupportedEncodingException;
 import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
+// Email'ler çağıranın transaction'ı içinde email_outbox tablosuna yazılır;
+// render ve SMTP gönderimi EmailOutboxDispatcher'ın worker thread'lerinde yapılır.
 @Service
 public class EmailService {
 
+    private static final TypeReference<Map<String, String>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
@@ -29,7 +43,16 @@ public class EmailService {
     private JavaMailSender mailSender;
 
     @Autowired
-    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -37,9 +60,15 @@ public class EmailService {
     @Value("${app.name:İlan Platformu}")
     private String appName;
 
+    @Value("${app.email.locale:tr-TR}")
+    private Locale locale;
+
+    private static final DateTimeFormatter CHANGED_AT_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     private static final String CHARACTERS = "0123456789";
     private static final int CODE_LENGTH = 6;
     private final SecureRandom random = new SecureRandom();
+    private volatile InternetAddress fromAddress;
 
     public String generateVerificationCode() {
         StringBuilder code = new StringBuilder();
@@ -50,107 +79,82 @@ public class EmailService {
     }
 
     public void sendVerificationEmail(String toEmail, String userName, String verificationCode) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        Map<String, String> variables = new HashMap<>();
+        variables.put("userName", userName);
+        variables.put("verificationCode", verificationCode);
 
-            helper.setFrom(fromEmail, appName);
-            helper.setTo(toEmail);
-            helper.setSubject("Email Doğrulama Kodu - " + appName);
-
-            // Thymeleaf template için context
-            Context context = new Context();
-            context.setVariable("userName", userName);
-            context.setVariable("verificationCode", verificationCode);
-            context.setVariable("appName", appName);
-
-            String htmlContent = templateEngine.process("email-verification", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-
-        } catch (MessagingException e) {
-            throw new RuntimeException("Email gönderilemedi: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Email gönderim hatası: " + e.getMessage());
-        }
+        enqueue("email-verification", toEmail, "Email Doğrulama Kodu - " + appName, variables);
     }
 
     public void sendWelcomeEmail(String toEmail, String userName) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail, appName);
-            helper.setTo(toEmail);
-            helper.setSubject("Hoş Geldiniz - " + appName);
+        Map<String, String> variables = new HashMap<>();
+        variables.put("userName", userName);
 
-            Context context = new Context();
-            context.setVariable("userName", userName);
-            context.setVariable("appName", appName);
-
-            String htmlContent = templateEngine.process("welcome-email", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-
-        } catch (MessagingException e) {
-            throw new RuntimeException("Hoş geldin emaili gönderilemedi: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Email gönderim hatası: " + e.getMessage());
-        }
+        enqueue("welcome-email", toEmail, "Hoş Geldiniz - " + appName, variables);
     }
-    public void sendPasswordResetEmail(String toEmail, String userName, String resetToken) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-            helper.setFrom(fromEmail, appName);
-            helper.setTo(toEmail);
-            helper.setSubject("Şifre Sıfırlama - " + appName);
+    public void sendPasswordResetEmail(String toEmail, String userName, String resetToken) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("userName", userName);
+        variables.put("resetToken", resetToken);
+        // Düzeltme: ikinci parametre & ile başlamalı
+        variables.put("resetUrl", frontendUrl + resetPasswordPath + "&token=" + resetToken);
 
-            Context context = new Context();
-            context.setVariable("userName", userName);
-            context.setVariable("resetToken", resetToken);
-            context.setVariable("appName", appName);
-            // Düzeltme: ikinci parametre & ile başlamalı
-            context.setVariable("resetUrl", frontendUrl + resetPasswordPath + "&token=" + resetToken);
+        enqueue("password-reset", toEmail, "Şifre Sıfırlama - " + appName, variables);
+    }
 
-            String htmlContent = templateEngine.process("password-reset", context);
-            helper.setText(htmlContent, true);
+    public void sendPasswordChangeConfirmationEmail(String toEmail, String userName) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("userName", userName);
 
-            mailSender.send(message);
+        // Gönderim anı değil değişiklik anı (email kuyrukta bekleyebilir)
+        variables.put("changedAt", LocalDateTime.now().format(CHANGED_AT_FORMAT));
 
-        } catch (MessagingException e) {
-            throw new RuntimeException("Şifre sıfırlama emaili gönderilemedi: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Email gönderim hatası: " + e.getMessage());
-        }
+        enqueue("password-change-confirmation", toEmail, "Şifre Değişikliği Onayı - " + appName, variables);
     }
 
-    public void sendPasswordChangeConfirmationEmail(String toEmail, String userName) {
+    // Outbox satırından gönderime hazır mesaj üretir (dispatcher worker'ında çalışır).
+    // Ek olmadığı için multipart yapı kurulmaz; gönderen adresi bir kez oluşturulur.
+    public MimeMessage render(EmailOutbox email) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail, appName);
-            helper.setTo(toEmail);
-            helper.setSubject("Şifre Değişikliği Onayı - " + appName);
+            Map<String, String> variables = objectMapper.readValue(email.getVariables(), VARIABLES_TYPE);
+            String htmlContent = templateRenderer.render(email.getTemplate(), locale, appName, variables);
 
-            Context context = new Context();
-            context.setVariable("userName", userName);
-            context.setVariable("appName", appName);
-
-            String htmlContent = templateEngine.process("password-change-confirmation", context);
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+            helper.setFrom(fromAddress());
+            helper.setTo(email.getRecipient());
+            helper.setSubject(email.getSubject());
             helper.setText(htmlContent, true);
+            return message;
 
-            mailSender.send(message);
+        } catch (MessagingException | UnsupportedEncodingException | JsonProcessingException e) {
+            throw new RuntimeException("Email hazırlanamadı: " + e.getMessage());
+        }
+    }
 
-        } catch (MessagingException e) {
-            throw new RuntimeException("Şifre değişikliği onay emaili gönderilemedi: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Email gönderim hatası: " + e.getMessage());
+    private InternetAddress fromAddress() throws UnsupportedEncodingException {
+        InternetAddress address = fromAddress;
+        if (address == null) {
+            address = new InternetAddress(fromEmail, appName, "UTF-8");
+            fromAddress = address;
         }
+        return address;
     }
 
-}
\ No newline at end of file
+    // save çağıranın transaction'ına katılır; commit sonrası dispatcher uyandırılır
+    private void enqueue(String template, String toEmail, String subject, Map<String, String> variables) {
+        try {
+            EmailOutbox email = new EmailOutbox();
+            email.setTemplate(template);
+            email.setRecipient(toEmail);
+            email.setSubject(subject);
+            email.setVariables(objectMapper.writeValueAsString(variables));
+            email.setNextAttemptAt(LocalDateTime.now());
+
+            eventPublisher.publishEvent(emailOutboxRepository.save(email));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Email kuyruğa eklenemedi: " + e.getMessage());
+        }
+    }
+}
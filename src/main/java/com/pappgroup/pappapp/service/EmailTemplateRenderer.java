@@ -0,0 +1,114 @@
+package com.pappgroup.pappapp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Email şablonlarını segment cache'i ile render eder.
+// Şablon (şablon, locale, appName, değişken adları) başına bir kez Thymeleaf ile işlenir; değişkenlerin yerine
+// işaretçi konur ve çıktı sabit parçalar + değişken yuvaları olarak saklanır. Sonraki render'lar sadece
+// parçaları birleştirip değerleri th:text ile aynı şekilde (HTML4/XML escape) yerleştirir.
+// Şablonlar sadece th:text / th:href ile değişken basmalı; koşul veya döngü içeren şablonlar bu yapıya uymaz.
+@Service
+@RequiredArgsConstructor
+public class EmailTemplateRenderer {
+
+    private static final String MARKER_PREFIX = "__EMAILVAR_";
+    private static final String MARKER_SUFFIX = "__";
+    private static final Pattern MARKER = Pattern.compile("__EMAILVAR_([A-Za-z0-9]+)__");
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final Map<Key, CompiledTemplate> compiled = new ConcurrentHashMap<>();
+
+    public String render(String template, Locale locale, String appName, Map<String, String> variables) {
+        return compiled(template, locale, appName, variables).assemble(variables);
+    }
+
+    // Toplu bildirimler: değişken adları aynı kaldıkça cache araması da tekrarlanmaz
+    public List<String> renderBatch(String template, Locale locale, String appName, List<Map<String, String>> variablesList) {
+        List<String> rendered = new ArrayList<>(variablesList.size());
+        CompiledTemplate current = null;
+        Set<String> currentNames = null;
+        for (Map<String, String> variables : variablesList) {
+            if (current == null || !currentNames.equals(variables.keySet())) {
+                current = compiled(template, locale, appName, variables);
+                currentNames = variables.keySet();
+            }
+            rendered.add(current.assemble(variables));
+        }
+        return rendered;
+    }
+
+    public void clearCache() {
+        compiled.clear();
+    }
+
+    private CompiledTemplate compiled(String template, Locale locale, String appName, Map<String, String> variables) {
+        Key key = new Key(template, locale, appName, Set.copyOf(variables.keySet()));
+        return compiled.computeIfAbsent(key, k -> compile(template, locale, appName, variables));
+    }
+
+    private CompiledTemplate compile(String template, Locale locale, String appName, Map<String, String> variables) {
+        Context context = new Context(locale);
+        for (String name : variables.keySet()) {
+            context.setVariable(name, MARKER_PREFIX + name + MARKER_SUFFIX);
+        }
+        context.setVariable("appName", appName);
+        String html = templateEngine.process(template, context);
+
+        List<Segment> segments = new ArrayList<>();
+        int staticLength = 0;
+        Matcher matcher = MARKER.matcher(html);
+        int position = 0;
+        while (matcher.find()) {
+            if (matcher.start() > position) {
+                segments.add(new Segment(html.substring(position, matcher.start()), null));
+                staticLength += matcher.start() - position;
+            }
+            segments.add(new Segment(null, matcher.group(1)));
+            position = matcher.end();
+        }
+        if (position < html.length()) {
+            segments.add(new Segment(html.substring(position), null));
+            staticLength += html.length() - position;
+        }
+        return new CompiledTemplate(segments.toArray(new Segment[0]), staticLength);
+    }
+
+    private record Key(String template, Locale locale, String appName, Set<String> variableNames) {
+    }
+
+    private record CompiledTemplate(Segment[] segments, int staticLength) {
+
+        String assemble(Map<String, String> variables) {
+            StringBuilder html = new StringBuilder(staticLength + 256);
+            for (Segment segment : segments) {
+                if (segment.text() != null) {
+                    html.append(segment.text());
+                } else {
+                    String value = variables.get(segment.variable());
+                    if (value != null) {
+                        html.append(HtmlEscape.escapeHtml4Xml(value));
+                    }
+                }
+            }
+            return html.toString();
+        }
+    }
+
+    // Ya sabit metin ya da değişken yuvası
+    private record Segment(String text, String variable) {
+    }
+}
@@ -4,7 +4,6 @@ import com.pappgroup.pappapp.dto.request.EmailVerificationRequest;
 import com.pappgroup.pappapp.dto.response.VerificationResponse;
 import com.pappgroup.pappapp.entity.User;
 import com.pappgroup.pappapp.repository.UserRepository;
-import com.pappgroup.pappapp.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,6 +12,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -27,7 +27,7 @@ public class EmailVerificationService {
     private EmailService emailService;
 
     @Autowired
-    private JwtTokenProvider jwtUtil;
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
     private UserDetailsService userDetailsService;
@@ -41,6 +41,8 @@ public class EmailVerificationService {
     @Value("${app.verification.block.time:900000}") // 15 dakika block
     private long blockTime;
 
+    // Kullanıcı güncellemesi ve outbox satırı aynı transaction'da
+    @Transactional
     public VerificationResponse sendVerificationCode(String email) {
         Optional<User> userOptional = userRepository.findByEmail(email);
 
@@ -78,6 +80,7 @@ public class EmailVerificationService {
         }
     }
 
+    @Transactional
     public VerificationResponse verifyEmail(EmailVerificationRequest request) {
         Optional<User> userOptional = userRepository.findByEmail(request.getEmail());
 
@@ -113,6 +116,7 @@ public class EmailVerificationService {
 
         // Doğrulama başarılı
         user.setIsVerified(true);
+        userRepository.updateEnabled(user.getId(), true);
         user.setEnabled(true);
         user.setVerificationCode(null);
         user.setVerificationCodeExpiresAt(null);
@@ -121,9 +125,9 @@ public class EmailVerificationService {
 
         userRepository.save(user);
 
-        // JWT token üret
+        // Token üret (yeni refresh token ailesi; çıkışta aile tüm instance'larda iptal edilir)
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        String token = jwtUtil.generateToken(user.getEmail(),user.getRole().toString(),user.getId());
+        RefreshTokenService.IssuedTokens tokens = refreshTokenService.issue(user);
 
         // Security context'e kullanıcıyı set et
         Authentication authentication = new UsernamePasswordAuthenticationToken(
@@ -138,7 +142,10 @@ public class EmailVerificationService {
             System.err.println("Hoş geldin emaili gönderilemedi: " + e.getMessage());
         }
 
-        return new VerificationResponse(true, "Email doğrulaması başarılı. Hoş geldiniz!", token, user);
+        VerificationResponse response = new VerificationResponse(true, "Email doğrulaması başarılı. Hoş geldiniz!",
+                tokens.accessToken(), user);
+        response.setRefreshToken(tokens.refreshToken());
+        return response;
     }
 
     private boolean isBlocked(User user) {
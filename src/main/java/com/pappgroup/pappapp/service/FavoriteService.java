@@ -29,6 +29,7 @@ public class FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
+    private final ListingCardService listingCardService;
 
     @Transactional
     public boolean toggleFavorite(Long userId, Long propertyId) {
@@ -42,6 +43,7 @@ public class FavoriteService {
 
         if (exists) {
             favoriteRepository.deleteByUserAndProperty(user, property);
+            listingCardService.addFavorites(propertyId, -1);
             log.info("Removed property {} from user {}'s favorites", propertyId, userId);
             return false;
         } else {
@@ -49,6 +51,7 @@ public class FavoriteService {
             favorite.setUser(user);
             favorite.setProperty(property);
             favoriteRepository.save(favorite);
+            listingCardService.addFavorites(propertyId, 1);
             log.info("Added property {} to user {}'s favorites", propertyId, userId);
             return true;
         }
@@ -93,7 +96,8 @@ public class FavoriteService {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
 
-        favoriteRepository.deleteByUserAndProperty(user, property);
+        long removed = favoriteRepository.deleteByUserAndProperty(user, property);
+        listingCardService.addFavorites(propertyId, -removed);
         log.info("Removed property {} from user {}'s favorites", propertyId, userId);
     }
 
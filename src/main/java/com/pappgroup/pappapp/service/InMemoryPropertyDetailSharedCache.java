@@ -0,0 +1,46 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.response.PropertyResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Paylaşılan cache'in yerel karşılığı; testlerde ve tek instance kurulumlarda L2 davranışını taklit eder.
+// Silinen kayıt sayacıyla birlikte boş olarak kalır (ilan başına bir sayaç)
+@Service
+@ConditionalOnProperty(name = "app.cache.property-detail.l2", havingValue = "memory")
+public class InMemoryPropertyDetailSharedCache implements PropertyDetailSharedCache {
+
+    private record Entry(long generation, PropertyResponse response) {
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<PropertyResponse> get(Long propertyId) {
+        Entry entry = entries.get(propertyId);
+        return entry != null ? Optional.ofNullable(entry.response()) : Optional.empty();
+    }
+
+    @Override
+    public long generation(Long propertyId) {
+        Entry entry = entries.get(propertyId);
+        return entry != null ? entry.generation() : 0L;
+    }
+
+    @Override
+    public void put(Long propertyId, PropertyResponse response, long generation) {
+        entries.compute(propertyId, (id, current) -> {
+            long currentGeneration = current != null ? current.generation() : 0L;
+            return currentGeneration == generation ? new Entry(generation, response) : current;
+        });
+    }
+
+    @Override
+    public void evict(Long propertyId) {
+        entries.compute(propertyId, (id, current) -> new Entry(current != null ? current.generation() + 1 : 1L, null));
+    }
+}
@@ -0,0 +1,31 @@
+package com.pappgroup.pappapp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+// Spring'in bellek içi STOMP broker'ı üzerinden bu instance'a bağlı oturumlara gönderir
+@Service
+@ConditionalOnProperty(name = "app.realtime.broker", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryRealtimeBroker implements RealtimeBroker {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceService presenceService;
+
+    @Override
+    public void publishToUser(Long userId, String destination, Object payload) {
+        // Bağlı olmayan kullanıcı için mesaj serileştirilmez; istemci bağlanınca REST ile senkronize olur
+        if (!presenceService.isOnline(userId)) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(userId.toString(), destination, payload);
+        } catch (Exception e) {
+            log.warn("Realtime publish to user {} failed: {}", userId, e.getMessage());
+        }
+    }
+}
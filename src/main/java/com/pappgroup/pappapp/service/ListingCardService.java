@@ -0,0 +1,221 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.ListingCardRepository;
+import com.pappgroup.pappapp.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// listing_cards okuma modelini güncel tutar.
+// Yazma yolları (ilan, yorum, favori, profil) aynı transaction içinde ilgili kartı günceller;
+// periyodik yeniden kurulum kaçan farkları (örn. eşzamanlı ilk ekleme) düzeltir.
+// Artımlı değişiklikler commit sonrası bellek içi arama index'indeki kartlara da uygulanır.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ListingCardService {
+
+    private static final String CARD_COLUMNS = "property_id, title, listing_type, property_type, city, district, "
+            + "city_key, district_key, latitude, longitude, price, negotiable, gross_area, elevator, parking, "
+            + "balcony, furnished, room_count, hall_count, featured, papp_sellable, primary_image_url, view_count, "
+            + "created_at, owner_id, owner_display_name, rating_sum, rating_count, favorite_count";
+
+    // İlan güncellemesinde yeniden yazılan kart alanları (sayaçlar hariç)
+    private static final String CARD_UPDATE_SET = "title = EXCLUDED.title, listing_type = EXCLUDED.listing_type, "
+            + "property_type = EXCLUDED.property_type, "
+            + "city = EXCLUDED.city, district = EXCLUDED.district, "
+            + "city_key = EXCLUDED.city_key, district_key = EXCLUDED.district_key, "
+            + "latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude, price = EXCLUDED.price, "
+            + "negotiable = EXCLUDED.negotiable, gross_area = EXCLUDED.gross_area, elevator = EXCLUDED.elevator, "
+            + "parking = EXCLUDED.parking, balcony = EXCLUDED.balcony, furnished = EXCLUDED.furnished, "
+            + "room_count = EXCLUDED.room_count, hall_count = EXCLUDED.hall_count, featured = EXCLUDED.featured, "
+            + "papp_sellable = EXCLUDED.papp_sellable, primary_image_url = EXCLUDED.primary_image_url, "
+            + "created_at = EXCLUDED.created_at, owner_id = EXCLUDED.owner_id, "
+            + "owner_display_name = EXCLUDED.owner_display_name";
+
+    // Puan (properties üzerindeki toplamlar) ve favori sayısı sadece ilk eklemede okunur, sonrasında artımlı güncellenir.
+    // view_count ViewCountAggregator tarafından yazılır, ilan güncellemesi üzerine yazmaz.
+    private static final String UPSERT_SQL = "INSERT INTO listing_cards (" + CARD_COLUMNS + ") VALUES ("
+            + "?, ?, ?, ?, ?, ?, lower(trim(?)), lower(trim(?)), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "(SELECT p.rating_sum FROM properties p WHERE p.id = ?), "
+            + "(SELECT p.rating_count FROM properties p WHERE p.id = ?), "
+            + "(SELECT COUNT(*) FROM favorites f WHERE f.property_id = ?)) "
+            + "ON CONFLICT (property_id) DO UPDATE SET " + CARD_UPDATE_SET;
+
+    // Yeniden kurulum id aralıkları halinde yapılır, her aralık ayrı transaction.
+    // Önce aralıktaki kartlar kilitlenir: kartı bekleyen eşzamanlı favori/puan/görüntülenme farkı kurulumdan
+    // sonra uygulanır, kilitten önce commit edilmiş fark ise kurulum sorgusunun snapshot'ında zaten vardır.
+    private static final String REBUILD_MAX_ID_SQL = "SELECT GREATEST("
+            + "(SELECT COALESCE(MAX(id), 0) FROM properties), "
+            + "(SELECT COALESCE(MAX(property_id), 0) FROM listing_cards))";
+
+    private static final String REBUILD_LOCK_SQL = "SELECT property_id FROM listing_cards "
+            + "WHERE property_id >= ? AND property_id < ? ORDER BY property_id FOR UPDATE";
+
+    // Yayından kalkmış veya silinmiş ilanların kartları
+    private static final String REBUILD_DELETE_SQL = "DELETE FROM listing_cards c "
+            + "WHERE c.property_id >= ? AND c.property_id < ? AND NOT EXISTS ("
+            + "SELECT 1 FROM properties p WHERE p.id = c.property_id AND p.approved = true AND p.active = true)";
+
+    // Sayaçlar dahil tüm alanlar kaynaktan yeniden yazılır
+    private static final String REBUILD_UPSERT_SQL = "INSERT INTO listing_cards (" + CARD_COLUMNS + ") "
+            + "SELECT p.id, p.title, p.listing_type, p.property_type, p.city, p.district, "
+            + "lower(trim(p.city)), lower(trim(p.district)), p.latitude, p.longitude, p.price, p.negotiable, "
+            + "p.gross_area, p.elevator, p.parking, p.balcony, p.furnished, p.room_count, p.hall_count, "
+            + "p.featured, p.papp_sellable, p.primary_image_url, p.view_count, p.created_at, "
+            + "u.id, trim(u.first_name || ' ' || u.last_name), "
+            + "p.rating_sum, p.rating_count, COALESCE(f.favorite_count, 0) "
+            + "FROM properties p "
+            + "JOIN users u ON u.id = p.user_id "
+            + "LEFT JOIN (SELECT property_id, COUNT(*) AS favorite_count FROM favorites "
+            + "WHERE property_id >= ? AND property_id < ? GROUP BY property_id) f ON f.property_id = p.id "
+            + "WHERE p.approved = true AND p.active = true AND p.id >= ? AND p.id < ? "
+            + "ON CONFLICT (property_id) DO UPDATE SET " + CARD_UPDATE_SET + ", "
+            + "view_count = EXCLUDED.view_count, rating_sum = EXCLUDED.rating_sum, "
+            + "rating_count = EXCLUDED.rating_count, favorite_count = EXCLUDED.favorite_count";
+
+    private static final String ADD_VIEWS_SQL =
+            "UPDATE listing_cards SET view_count = view_count + ? WHERE property_id = ?";
+
+    private final ListingCardRepository listingCardRepository;
+    private final PropertySearchIndex propertySearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.listing-cards.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${app.listing-cards.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    // Yayındaki ilanın kartı eklenir/güncellenir, yayından kalkan ilanın kartı silinir
+    @Transactional
+    public void sync(Property property) {
+        if (!Boolean.TRUE.equals(property.getApproved()) || !Boolean.TRUE.equals(property.getActive())) {
+            listingCardRepository.deleteCard(property.getId());
+            return;
+        }
+
+        User owner = property.getUser();
+        jdbcTemplate.update(UPSERT_SQL,
+                property.getId(),
+                property.getTitle(),
+                property.getListingType().name(),
+                property.getPropertyType().name(),
+                property.getCity(),
+                property.getDistrict(),
+                property.getCity(),
+                property.getDistrict(),
+                property.getLatitude(),
+                property.getLongitude(),
+                property.getPrice(),
+                property.getNegotiable(),
+                property.getGrossArea(),
+                property.getElevator(),
+                property.getParking(),
+                property.getBalcony(),
+                property.getFurnished(),
+                property.getRoomCount(),
+                property.getHallCount(),
+                property.getFeatured(),
+                property.getPappSellable(),
+                property.getPrimaryImageUrl(),
+                property.getViewCount() != null ? property.getViewCount() : 0L,
+                property.getCreatedAt(),
+                owner.getId(),
+                displayName(owner),
+                property.getId(),
+                property.getId(),
+                property.getId());
+    }
+
+    @Transactional
+    public void remove(Long propertyId) {
+        listingCardRepository.deleteCard(propertyId);
+    }
+
+    // Yorum eklendi: (rating, +1), silindi: (-rating, -1), puan değişti: (yeni - eski, 0)
+    @Transactional
+    public void addRating(Long propertyId, long ratingDelta, long countDelta) {
+        if (ratingDelta != 0 || countDelta != 0) {
+            listingCardRepository.addRating(propertyId, ratingDelta, countDelta);
+            TransactionUtils.afterCommit(() -> propertySearchIndex.addRating(propertyId, ratingDelta, countDelta));
+        }
+    }
+
+    @Transactional
+    public void addFavorites(Long propertyId, long delta) {
+        if (delta != 0) {
+            listingCardRepository.addFavorites(propertyId, delta);
+            TransactionUtils.afterCommit(() -> propertySearchIndex.addFavorites(propertyId, delta));
+        }
+    }
+
+    @Transactional
+    public void updateOwner(User owner) {
+        String displayName = displayName(owner);
+        listingCardRepository.updateOwnerDisplayName(owner.getId(), displayName);
+        TransactionUtils.afterCommit(() -> propertySearchIndex.updateOwnerDisplayName(owner.getId(), displayName));
+    }
+
+    @Transactional
+    public void removeOwner(Long ownerId) {
+        listingCardRepository.deleteByOwner(ownerId);
+        TransactionUtils.afterCommit(() -> propertySearchIndex.removeOwner(ownerId));
+    }
+
+    // ViewCountAggregator'ın batch'i: {delta, propertyId}
+    @Transactional
+    public void addViews(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(ADD_VIEWS_SQL, batch);
+        TransactionUtils.afterCommit(() -> propertySearchIndex.addViews(batch));
+    }
+
+    // Kartlar silinip baştan eklenmez, yerinde güncellenir; okuyucular her an dolu bir tablo görür
+    public int rebuild() {
+        Long maxId = jdbcTemplate.queryForObject(REBUILD_MAX_ID_SQL, Long.class);
+        int cards = 0;
+        for (long from = 1; maxId != null && from <= maxId; from += rebuildBatchSize) {
+            long start = from;
+            long end = from + rebuildBatchSize;
+            Integer upserted = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForList(REBUILD_LOCK_SQL, Long.class, start, end);
+                jdbcTemplate.update(REBUILD_DELETE_SQL, start, end);
+                return jdbcTemplate.update(REBUILD_UPSERT_SQL, start, end, start, end);
+            });
+            cards += upserted != null ? upserted : 0;
+        }
+        log.info("Listing cards rebuilt: {} cards", cards);
+        return cards;
+    }
+
+    // Arama index'i kartları buradan okuduğu için önce kurulur
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${app.listing-cards.rebuild-cron:0 45 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    private static String displayName(User owner) {
+        return (owner.getFirstName() + " " + owner.getLastName()).trim();
+    }
+}
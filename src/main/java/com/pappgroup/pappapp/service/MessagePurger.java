@@ -0,0 +1,56 @@
+package com.pappgroup.pappapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Gönderen ve alıcının ikisinin de sildiği mesajları toplu olarak kaldırır.
+// Her batch ayrı transaction'da çalışır; kilitli satırlar atlanır, bir sonraki çalışmada silinir.
+@Service
+@Slf4j
+public class MessagePurger {
+
+    private static final String PURGE_SQL = "DELETE FROM messages WHERE id IN ("
+            + "SELECT id FROM messages WHERE deleted_by_sender = true AND deleted_by_receiver = true "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.messages.purge.batch-size:5000}")
+    private int batchSize;
+
+    public MessagePurger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.purge.interval-ms:600000}",
+            initialDelayString = "${app.messages.purge.interval-ms:600000}")
+    public void scheduledPurge() {
+        try {
+            int purged = purge();
+            if (purged > 0) {
+                log.info("Purged {} messages deleted by both sides", purged);
+            }
+        } catch (Exception e) {
+            log.error("Message purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public int purge() {
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(PURGE_SQL, batchSize));
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            if (count < batchSize) {
+                return total;
+            }
+        }
+    }
+}
@@ -2,26 +2,32 @@ package com.pappgroup.pappapp.service;
 
 import com.pappgroup.pappapp.dto.request.MessageRequest;
 import com.pappgroup.pappapp.dto.response.ConversationResponse;
+import com.pappgroup.pappapp.dto.response.CursorPageResponse;
 import com.pappgroup.pappapp.dto.response.MessageResponse;
+import com.pappgroup.pappapp.dto.response.ReadReceiptEvent;
+import com.pappgroup.pappapp.dto.response.UnreadCountEvent;
+import com.pappgroup.pappapp.entity.Conversation;
 import com.pappgroup.pappapp.entity.Message;
 import com.pappgroup.pappapp.entity.Property;
 import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.ConversationRepository;
 import com.pappgroup.pappapp.repository.MessageRepository;
 import com.pappgroup.pappapp.repository.PropertyRepository;
 import com.pappgroup.pappapp.repository.UserRepository;
+import com.pappgroup.pappapp.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,9 +36,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class MessageService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationService conversationService;
+    private final RealtimeBroker realtimeBroker;
+    private final PresenceService presenceService;
 
     public MessageResponse sendMessage(Long senderId, MessageRequest request) {
         User sender = userRepository.findById(senderId)
@@ -61,7 +73,17 @@ public class MessageService {
         }
 
         Message savedMessage = messageRepository.save(message);
-        return convertToMessageResponse(savedMessage);
+        conversationService.recordMessage(savedMessage);
+
+        MessageResponse response = convertToMessageResponse(savedMessage);
+        // Gönderenin diğer oturumları da (sekme, cihaz) mesajı alır
+        Long receiverId = receiver.getId();
+        TransactionUtils.afterCommit(() -> {
+            realtimeBroker.publishToUser(receiverId, RealtimeBroker.MESSAGES, response);
+            realtimeBroker.publishToUser(senderId, RealtimeBroker.MESSAGES, response);
+            realtimeBroker.publishToUser(receiverId, RealtimeBroker.UNREAD_COUNT, new UnreadCountEvent(senderId, 1L));
+        });
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -76,43 +98,40 @@ public class MessageService {
                 .collect(Collectors.toList());
     }
 
+    // En yeni mesajlardan geriye doğru sayfa; sayfa içi eskiden yeniye sıralıdır.
+    // nextCursor sayfadaki en eski mesajın id'sidir, bir önceki sayfa için before olarak gönderilir.
     @Transactional(readOnly = true)
-    public List<ConversationResponse> getUserConversations(Long userId) {
-        List<Message> lastMessages = messageRepository.findUserConversations(userId);
-        Map<Long, ConversationResponse> conversationsMap = new HashMap<>();
-
-        for (Message message : lastMessages) {
-            Long otherUserId = message.getSender().getId().equals(userId)
-                    ? message.getReceiver().getId()
-                    : message.getSender().getId();
-
-            if (!conversationsMap.containsKey(otherUserId)) {
-                User otherUser = message.getSender().getId().equals(userId)
-                        ? message.getReceiver()
-                        : message.getSender();
-
-                ConversationResponse conversation = new ConversationResponse();
-                conversation.setOtherUserId(otherUserId);
-                conversation.setOtherUserName(otherUser.getFirstName() + " " + otherUser.getLastName());
-                conversation.setOtherUserEmail(otherUser.getEmail());
-                conversation.setLastMessage(message.getContent());
-                conversation.setLastMessageTime(message.getCreatedAt());
-
-                if (message.getProperty() != null) {
-                    conversation.setPropertyId(message.getProperty().getId());
-                    conversation.setPropertyTitle(message.getProperty().getTitle());
-                }
-
-                // Check for unread messages
-                List<Message> unreadMessages = messageRepository.findUnreadMessagesBetweenUsers(userId, otherUserId);
-                conversation.setHasUnreadMessages(!unreadMessages.isEmpty());
-                conversation.setUnreadCount((long) unreadMessages.size());
-
-                conversationsMap.put(otherUserId, conversation);
-            }
+    public CursorPageResponse<MessageResponse> getConversationHistory(Long userId, Long otherUserId, Long beforeId, int size) {
+        if (userId.equals(otherUserId)) {
+            throw new RuntimeException("Cannot get conversation with yourself");
         }
 
-        return new ArrayList<>(conversationsMap.values());
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        // Bir fazla kayıt çekilir; fazlalık varsa daha eski mesaj var demektir
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        Long lowUserId = Math.min(userId, otherUserId);
+        Long highUserId = Math.max(userId, otherUserId);
+
+        List<Message> rows = beforeId == null
+                ? messageRepository.findHistory(userId, lowUserId, highUserId, limit)
+                : messageRepository.findHistoryBefore(userId, lowUserId, highUserId, beforeId, limit);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Message> page = new ArrayList<>(hasNext ? rows.subList(0, pageSize) : rows);
+        String nextCursor = page.isEmpty() ? null : String.valueOf(page.get(page.size() - 1).getId());
+        Collections.reverse(page);
+
+        List<MessageResponse> content = page.stream()
+                .map(this::convertToMessageResponse)
+                .collect(Collectors.toList());
+        return CursorPageResponse.of(new SliceImpl<>(content, PageRequest.of(0, pageSize), hasNext), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ConversationResponse> getUserConversations(Long userId) {
+        return conversationRepository.findInbox(userId).stream()
+                .map(this::convertToConversationResponse)
+                .collect(Collectors.toList());
     }
 
     public void markAsRead(Long messageId, Long userId) {
@@ -127,20 +146,33 @@ public class MessageService {
             message.setIsRead(true);
             message.setReadAt(LocalDateTime.now());
             messageRepository.save(message);
+            conversationService.messageRead(userId, message.getSender().getId());
+
+            Long senderId = message.getSender().getId();
+            ReadReceiptEvent receipt = new ReadReceiptEvent(userId, messageId, message.getReadAt());
+            TransactionUtils.afterCommit(() -> {
+                realtimeBroker.publishToUser(senderId, RealtimeBroker.READ_RECEIPTS, receipt);
+                realtimeBroker.publishToUser(userId, RealtimeBroker.UNREAD_COUNT, new UnreadCountEvent(senderId, -1L));
+            });
         }
     }
 
-    public void markConversationAsRead(Long userId, Long otherUserId) {
-        List<Message> unreadMessages = messageRepository.findUnreadMessagesBetweenUsers(userId, otherUserId);
+    // Tek UPDATE ile okundu işaretlenir; okunan mesaj sayısı döner
+    public int markConversationAsRead(Long userId, Long otherUserId) {
+        LocalDateTime readAt = LocalDateTime.now();
+        int updated = messageRepository.markReadBetweenUsers(userId, otherUserId, readAt);
 
-        for (Message message : unreadMessages) {
-            message.setIsRead(true);
-            message.setReadAt(LocalDateTime.now());
-        }
+        if (updated > 0) {
+            conversationService.conversationRead(userId, otherUserId, updated);
 
-        if (!unreadMessages.isEmpty()) {
-            messageRepository.saveAll(unreadMessages);
+            ReadReceiptEvent receipt = new ReadReceiptEvent(userId, null, readAt);
+            long delta = -updated;
+            TransactionUtils.afterCommit(() -> {
+                realtimeBroker.publishToUser(otherUserId, RealtimeBroker.READ_RECEIPTS, receipt);
+                realtimeBroker.publishToUser(userId, RealtimeBroker.UNREAD_COUNT, new UnreadCountEvent(otherUserId, delta));
+            });
         }
+        return updated;
     }
 
     @Transactional(readOnly = true)
@@ -164,6 +196,27 @@ public class MessageService {
                 .collect(Collectors.toList());
     }
 
+    private ConversationResponse convertToConversationResponse(Conversation conversation) {
+        User otherUser = conversation.getOtherUser();
+
+        ConversationResponse response = new ConversationResponse();
+        response.setOtherUserId(otherUser.getId());
+        response.setOtherUserName(otherUser.getFirstName() + " " + otherUser.getLastName());
+        response.setOtherUserEmail(otherUser.getEmail());
+        response.setLastMessage(conversation.getLastMessagePreview());
+        response.setLastMessageTime(conversation.getLastMessageAt());
+        response.setHasUnreadMessages(conversation.getUnreadCount() > 0);
+        response.setUnreadCount(conversation.getUnreadCount());
+        response.setOtherUserOnline(presenceService.isOnline(otherUser.getId()));
+
+        if (conversation.getLastProperty() != null) {
+            response.setPropertyId(conversation.getLastProperty().getId());
+            response.setPropertyTitle(conversation.getLastProperty().getTitle());
+        }
+
+        return response;
+    }
+
     private MessageResponse convertToMessageResponse(Message message) {
         MessageResponse response = new MessageResponse();
         response.setId(message.getId());
@@ -192,6 +245,10 @@ public class MessageService {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
 
+        // Okunmamış gelen mesaj siliniyorsa okunmamış sayısı düşer
+        boolean unreadForUser = message.getReceiver().getId().equals(userId)
+                && !message.getIsRead() && !message.getDeletedByReceiver();
+
         // Kullanıcı mesajın göndereni mi alıcısı mı kontrolü
         if (message.getSender().getId().equals(userId)) {
             // Gönderen tarafından siliniyor
@@ -211,30 +268,35 @@ public class MessageService {
         if (message.getDeletedBySender() && message.getDeletedByReceiver()) {
             messageRepository.delete(message);
         }
-    }
 
-    public void deleteConversation(Long userId, Long otherUserId) {
-        // Kullanıcının belirtilen kişiyle olan tüm mesajlarını soft delete yap
-        List<Message> messages = messageRepository.findConversationBetweenUsers(userId, otherUserId);
+        // Silinen mesaj son mesaj veya okunmamış olabilir; silen tarafın özeti yeniden hesaplanır
+        Long otherUserId = message.getSender().getId().equals(userId)
+                ? message.getReceiver().getId()
+                : message.getSender().getId();
+        messageRepository.flush();
+        conversationService.refresh(userId, otherUserId);
 
-        for (Message message : messages) {
-            if (message.getSender().getId().equals(userId)) {
-                // Kullanıcı gönderen ise
-                message.setDeletedBySender(true);
-                message.setSenderDeletedAt(LocalDateTime.now());
-            } else if (message.getReceiver().getId().equals(userId)) {
-                // Kullanıcı alıcı ise
-                message.setDeletedByReceiver(true);
-                message.setReceiverDeletedAt(LocalDateTime.now());
-            }
+        if (unreadForUser) {
+            TransactionUtils.afterCommit(() ->
+                    realtimeBroker.publishToUser(userId, RealtimeBroker.UNREAD_COUNT, new UnreadCountEvent(otherUserId, -1L)));
         }
+    }
 
-        // Güncellenen mesajları kaydet
-        messageRepository.saveAll(messages);
+    // Kullanıcının taraftaki tüm mesajları iki UPDATE ile soft delete edilir; etkilenen mesaj sayısı döner.
+    // Her iki tarafın da sildiği mesajlar MessagePurger tarafından toplu olarak kaldırılır.
+    public int deleteConversation(Long userId, Long otherUserId) {
+        LocalDateTime deletedAt = LocalDateTime.now();
+        long unreadDeleted = messageRepository.countUnreadBetweenUsers(userId, otherUserId);
 
-        // Eğer her iki kullanıcı da tüm mesajları sildiyse, gerçekten sil
-        messages.stream()
-            .filter(msg -> msg.getDeletedBySender() && msg.getDeletedByReceiver())
-            .forEach(messageRepository::delete);
+        int deleted = messageRepository.softDeleteSent(userId, otherUserId, deletedAt)
+                + messageRepository.softDeleteReceived(userId, otherUserId, deletedAt);
+
+        conversationService.refresh(userId, otherUserId);
+
+        if (unreadDeleted > 0) {
+            TransactionUtils.afterCommit(() ->
+                    realtimeBroker.publishToUser(userId, RealtimeBroker.UNREAD_COUNT, new UnreadCountEvent(otherUserId, -unreadDeleted)));
+        }
+        return deleted;
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.response.PropertyResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+// L2 kapalıyken sadece yerel Caffeine cache kullanılır
+@Service
+@ConditionalOnProperty(name = "app.cache.property-detail.l2", havingValue = "none", matchIfMissing = true)
+public class NoOpPropertyDetailSharedCache implements PropertyDetailSharedCache {
+
+    @Override
+    public Optional<PropertyResponse> get(Long propertyId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public long generation(Long propertyId) {
+        return 0L;
+    }
+
+    @Override
+    public void put(Long propertyId, PropertyResponse response, long generation) {
+    }
+
+    @Override
+    public void evict(Long propertyId) {
+    }
+}
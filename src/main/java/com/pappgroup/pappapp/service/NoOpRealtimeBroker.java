@@ -0,0 +1,14 @@
+package com.pappgroup.pappapp.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+// Anlık gönderim kapalıyken istemciler REST ile sorgulamaya devam eder
+@Service
+@ConditionalOnProperty(name = "app.realtime.broker", havingValue = "none")
+public class NoOpRealtimeBroker implements RealtimeBroker {
+
+    @Override
+    public void publishToUser(Long userId, String destination, Object payload) {
+    }
+}
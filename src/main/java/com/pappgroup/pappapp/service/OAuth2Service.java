@@ -7,7 +7,6 @@ import com.pappgroup.pappapp.dto.response.UserResponse;
 import com.pappgroup.pappapp.entity.User;
 import com.pappgroup.pappapp.enums.Role;
 import com.pappgroup.pappapp.repository.UserRepository;
-import com.pappgroup.pappapp.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -22,7 +21,7 @@ import java.util.UUID;
 public class OAuth2Service {
 
     private final UserRepository userRepository;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     @Transactional
     public OAuthResponse processOAuthUser(OAuth2User oauth2User, String provider) {
@@ -77,27 +76,25 @@ public class OAuth2Service {
         user = userRepository.save(user);
 
         // JWT token oluştur
-        String token = jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getId());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
+        RefreshTokenService.IssuedTokens tokens = refreshTokenService.issue(user);
 
         // UserResponse oluştur
         UserResponse userResponse = new UserResponse();
         BeanUtils.copyProperties(user, userResponse);
 
-        return new AuthResponse(token, refreshToken, userResponse, "OAuth kayıt başarılı");
+        return new AuthResponse(tokens.accessToken(), tokens.refreshToken(), userResponse, "OAuth kayıt başarılı");
     }
 
     private OAuthResponse createCompleteAuthResponse(User user) {
-        String token = jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getId());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
+        RefreshTokenService.IssuedTokens tokens = refreshTokenService.issue(user);
 
         UserResponse userResponse = new UserResponse();
         BeanUtils.copyProperties(user, userResponse);
 
         OAuthResponse response = new OAuthResponse();
         response.setNeedsCompletion(false);
-        response.setToken(token);
-        response.setRefreshToken(refreshToken);
+        response.setToken(tokens.accessToken());
+        response.setRefreshToken(tokens.refreshToken());
         response.setUser(userResponse);
         response.setMessage("Giriş başarılı");
 
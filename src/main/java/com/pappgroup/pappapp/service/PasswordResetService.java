@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
@@ -26,6 +27,9 @@ public class PasswordResetService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserService userService;
+
     @Value("${app.password.reset.token.expiry:3600000}") // 1 saat default
     private long resetTokenExpiryTime;
 
@@ -33,6 +37,8 @@ public class PasswordResetService {
     private static final int TOKEN_LENGTH = 32;
     private final SecureRandom random = new SecureRandom();
 
+    // Kullanıcı güncellemesi ve outbox satırı aynı transaction'da
+    @Transactional
     public PasswordResetResponse sendResetPasswordEmail(ForgotPasswordRequest request) {
         Optional<User> userOptional = userRepository.findByEmail(request.getEmail());
 
@@ -66,6 +72,7 @@ public class PasswordResetService {
         }
     }
 
+    @Transactional
     public PasswordResetResponse resetPassword(ResetPasswordRequest request) {
         Optional<User> userOptional = userRepository.findByResetToken(request.getToken());
 
@@ -85,10 +92,12 @@ public class PasswordResetService {
             return new PasswordResetResponse(false, "Reset token'ın süresi dolmuş. Yeni reset talebi oluşturun.");
         }
 
-        // Şifreyi güncelle
+        // Şifreyi güncelle; sıfırlamadan önce açılmış oturumlar kapatılır.
+        // Hash havuzu doluysa PasswordHashingBusyException yakalanmaz: transaction geri alınır, token geçerli kalır, 503 döner
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setResetToken(null);
         user.setResetTokenExpiresAt(null);
+        userService.revokeSessions(user);
 
         userRepository.save(user);
 
@@ -0,0 +1,89 @@
+package com.pappgroup.pappapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bu instance'a bağlı WebSocket oturumlarından çevrimiçi kullanıcıları takip eder.
+// Bir kullanıcının birden fazla oturumu (sekme, cihaz) olabilir; son oturum kapanınca çevrimdışı olur.
+@Service
+@Slf4j
+public class PresenceService {
+
+    private final Map<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Long userId = userId(event.getUser());
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (userId == null || sessionId == null) {
+            return;
+        }
+        sessionsByUser.compute(userId, (id, sessions) -> {
+            Set<String> result = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            if (result.add(sessionId)) {
+                connections.incrementAndGet();
+            }
+            return result;
+        });
+    }
+
+    // Disconnect olayı aynı oturum için birden fazla gelebilir; set sayesinde sayaç bir kez düşer
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        Long userId = userId(event.getUser());
+        if (userId == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+            if (sessions.remove(event.getSessionId())) {
+                connections.decrementAndGet();
+            }
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public boolean isOnline(Long userId) {
+        return sessionsByUser.containsKey(userId);
+    }
+
+    public Map<Long, Boolean> getPresence(Collection<Long> userIds) {
+        Map<Long, Boolean> presence = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            presence.put(userId, isOnline(userId));
+        }
+        return presence;
+    }
+
+    public int getOnlineUserCount() {
+        return sessionsByUser.size();
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    // STOMP principal adı kullanıcı id'sidir (StompAuthChannelInterceptor)
+    private static Long userId(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(principal.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
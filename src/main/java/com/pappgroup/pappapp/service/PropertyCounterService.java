@@ -0,0 +1,153 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.PropertyCounters;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import com.pappgroup.pappapp.repository.PropertyCountersRepository;
+import com.pappgroup.pappapp.repository.PropertyCountsView;
+import com.pappgroup.pappapp.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// İsteğe bağlı (app.stats.counters.enabled) artımlı ilan sayaçları.
+// Yazma yolları değişiklik öncesi/sonrası durumu verir, fark aynı transaction'da sayaç satırına eklenir.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyCounterService {
+
+    private final PropertyCountersRepository propertyCountersRepository;
+    private final PropertyRepository propertyRepository;
+
+    @Value("${app.stats.counters.enabled:false}")
+    private boolean enabled;
+
+    // Sayaçları etkileyen alanların anlık görüntüsü
+    public record Snapshot(boolean approved,
+                           boolean active,
+                           boolean reported,
+                           boolean featured,
+                           ListingType listingType,
+                           PropertyType propertyType) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Snapshot snapshot(Property property) {
+        return new Snapshot(
+                Boolean.TRUE.equals(property.getApproved()),
+                Boolean.TRUE.equals(property.getActive()),
+                Boolean.TRUE.equals(property.getReported()),
+                Boolean.TRUE.equals(property.getFeatured()),
+                property.getListingType(),
+                property.getPropertyType());
+    }
+
+    // before: yeni ilan için null, after: silinen ilan için null
+    @Transactional
+    public void record(Snapshot before, Snapshot after) {
+        if (!enabled || (before != null && before.equals(after))) {
+            return;
+        }
+
+        PropertyCounters delta = new PropertyCounters();
+        delta.setId(PropertyCounters.GLOBAL_ID);
+        add(delta, before, -1);
+        add(delta, after, 1);
+        if (propertyCountersRepository.applyDelta(delta) == 0) {
+            // Satır henüz yok (ilk reconcile öncesi); fark düşmesin diye satır oluşturulup tekrar uygulanır.
+            // Satır kilidi commit'e kadar tutulur, eşzamanlı reconcile bu yazmayı sayımına dahil eder.
+            propertyCountersRepository.insertIfAbsent(PropertyCounters.GLOBAL_ID);
+            propertyCountersRepository.applyDelta(delta);
+        }
+    }
+
+    // Hiç reconcile edilmemiş satırdaki değerler sadece farklardan ibaret, kullanılmaz
+    public Optional<PropertyCounters> getCounters() {
+        return propertyCountersRepository.findById(PropertyCounters.GLOBAL_ID)
+                .filter(counters -> counters.getReconciledAt() != null);
+    }
+
+    // Sayaç satırı kilitlenir, böylece sayım sırasında gelen farklar sayımdan sonra uygulanır.
+    // Satır yoksa önce oluşturulur; iki instance aynı anda ilk reconcile'ı yapsa da çakışma olmaz.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.stats.counters.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        propertyCountersRepository.insertIfAbsent(PropertyCounters.GLOBAL_ID);
+        PropertyCounters counters = propertyCountersRepository.findForUpdate(PropertyCounters.GLOBAL_ID)
+                .orElseThrow();
+
+        PropertyCountsView counts = propertyRepository.countStats();
+        counters.setTotal(counts.getTotal());
+        counters.setApprovedActive(counts.getApprovedActive());
+        counters.setPendingApproval(counts.getPendingApproval());
+        counters.setReported(counts.getReported());
+        counters.setFeatured(counts.getFeatured());
+        counters.setActive(counts.getActive());
+        counters.setInactive(counts.getInactive());
+        counters.setSale(counts.getSale());
+        counters.setRent(counts.getRent());
+        counters.setResidential(counts.getResidential());
+        counters.setCommercial(counts.getCommercial());
+        counters.setLand(counts.getLand());
+        counters.setDailyRental(counts.getDailyRental());
+        counters.setReconciledAt(LocalDateTime.now());
+        propertyCountersRepository.save(counters);
+
+        log.info("Property counters reconciled: {} listings", counts.getTotal());
+    }
+
+    private static void add(PropertyCounters delta, Snapshot state, int sign) {
+        if (state == null) {
+            return;
+        }
+        delta.setTotal(delta.getTotal() + sign);
+        if (state.approved() && state.active()) {
+            delta.setApprovedActive(delta.getApprovedActive() + sign);
+        }
+        if (!state.approved()) {
+            delta.setPendingApproval(delta.getPendingApproval() + sign);
+        }
+        if (state.reported()) {
+            delta.setReported(delta.getReported() + sign);
+        }
+        if (state.featured()) {
+            delta.setFeatured(delta.getFeatured() + sign);
+        }
+        if (state.active()) {
+            delta.setActive(delta.getActive() + sign);
+        } else {
+            delta.setInactive(delta.getInactive() + sign);
+        }
+        if (state.listingType() == ListingType.SALE) {
+            delta.setSale(delta.getSale() + sign);
+        } else if (state.listingType() == ListingType.RENT) {
+            delta.setRent(delta.getRent() + sign);
+        }
+        if (state.propertyType() != null) {
+            switch (state.propertyType()) {
+                case RESIDENTIAL -> delta.setResidential(delta.getResidential() + sign);
+                case COMMERCIAL -> delta.setCommercial(delta.getCommercial() + sign);
+                case LAND -> delta.setLand(delta.getLand() + sign);
+                case DAILY_RENTAL -> delta.setDailyRental(delta.getDailyRental() + sign);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pappgroup.pappapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pappgroup.pappapp.dto.response.PropertyResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// İlan detay cevabı için iki seviyeli cache: yerel Caffeine (L1) + isteğe bağlı paylaşılan L2.
+// Kayıtlar PropertyService'in yazma yollarında commit sonrası silinir; TTL sadece emniyet payı.
+@Service
+@Slf4j
+public class PropertyDetailCache {
+
+    private final Cache<Long, PropertyResponse> local;
+    private final PropertyDetailSharedCache shared;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public PropertyDetailCache(PropertyDetailSharedCache shared,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.cache.property-detail.maximum-size:10000}") long maximumSize,
+                               @Value("${app.cache.property-detail.ttl-seconds:60}") long ttlSeconds) {
+        this.shared = shared;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "property.detail");
+        this.sharedHits = Counter.builder("property.detail.shared.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.sharedMisses = Counter.builder("property.detail.shared.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    // Sırayla L1, L2 ve loader; bulunan değer üst seviyelere yazılır
+    public Optional<PropertyResponse> get(Long propertyId, Function<Long, Optional<PropertyResponse>> loader) {
+        PropertyResponse response = local.get(propertyId, id -> {
+            Optional<PropertyResponse> fromShared = shared.get(id);
+            if (fromShared.isPresent()) {
+                sharedHits.increment();
+                return fromShared.get();
+            }
+            sharedMisses.increment();
+
+            // Yükleme sırasında başka bir instance'tan gelen evict'ten sonra eski cevap L2'ye yazılmasın
+            long generation = shared.generation(id);
+            PropertyResponse loaded = loader.apply(id).orElse(null);
+            if (loaded != null) {
+                shared.put(id, loaded, generation);
+            }
+            return loaded;
+        });
+        return Optional.ofNullable(response);
+    }
+
+    public void evict(Long propertyId) {
+        local.invalidate(propertyId);
+        shared.evict(propertyId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.response.PropertyResponse;
+
+import java.util.Optional;
+
+// İlan detayı için instance'lar arası paylaşılan (L2) cache.
+// app.cache.property-detail.l2 ile seçilir: none (varsayılan) veya memory.
+public interface PropertyDetailSharedCache {
+
+    Optional<PropertyResponse> get(Long propertyId);
+
+    // Kaydın silinme sayacı; yükleme başlamadan okunur ve put'a verilir
+    long generation(Long propertyId);
+
+    // Yükleme sürerken evict geldiyse (sayaç değiştiyse) eski cevap yazılmaz
+    void put(Long propertyId, PropertyResponse response, long generation);
+
+    void evict(Long propertyId);
+}
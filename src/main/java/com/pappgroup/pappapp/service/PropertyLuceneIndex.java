@@ -0,0 +1,573 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
+import com.pappgroup.pappapp.entity.Property;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.snowball.SnowballFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tr.ApostropheFilter;
+import org.apache.lucene.analysis.tr.TurkishAnalyzer;
+import org.apache.lucene.analysis.tr.TurkishLowerCaseFilter;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.FeatureField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Onaylı ve aktif ilanların gömülü Lucene index'i (isteğe bağlı, app.search.lucene.enabled).
+// Anahtar kelime + filtre + öne çıkarma (featured / görüntülenme) sıralaması gereken aramalar için.
+// Yazmalar IndexWriter'a gider, near-real-time okuyucu arka planda yenilenir.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyLuceneIndex {
+
+    private static final String ID = "id";
+    private static final String ID_TERM = "id_term";
+    private static final String GENERATION = "generation";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String FEATURES = "features";
+    private static final String FLAG = "flag";
+    private static final String LOCATION = "location";
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.search.lucene.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.search.lucene.directory:${java.io.tmpdir}/pappapp-lucene}")
+    private String indexDirectory;
+
+    // NRT yenileme aralığı: bekleyen yazma yoksa en geç, varsa en erken
+    @Value("${app.search.lucene.refresh.max-stale-seconds:1.0}")
+    private double maxStaleSeconds;
+
+    @Value("${app.search.lucene.refresh.min-stale-seconds:0.05}")
+    private double minStaleSeconds;
+
+    private final Analyzer analyzer = new TurkishFoldingAnalyzer();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private volatile boolean ready = false;
+
+    // Her rebuild yeni bir nesil numarası alır; eski nesildeki dokümanlar sonunda silinir
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // Rebuild sırasında gelen değişiklikler; boş Optional silme demek
+    private volatile Map<Long, Optional<Document>> touchedDuringRebuild;
+
+    // Okuyucuya henüz yansımamış en eski yazmanın zamanı (0: bekleyen yazma yok)
+    private final AtomicLong oldestPendingWriteNanos = new AtomicLong();
+    private volatile long refreshingWriteNanos;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        directory = FSDirectory.open(Paths.get(indexDirectory));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        searcherManager.addListener(new RefreshLagListener());
+
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, maxStaleSeconds, minStaleSeconds);
+        reopenThread.setName("lucene-nrt-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+
+        Gauge.builder("search.lucene.refresh.lag", this, PropertyLuceneIndex::refreshLagMillis)
+                .description("Time since the oldest write not yet visible to searchers")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("search.lucene.documents", writer, w -> w.getDocStats().numDocs)
+                .description("Listings in the Lucene index")
+                .register(meterRegistry);
+
+        log.info("Lucene listing index opened at {}", indexDirectory);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        ready = false;
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // ========== GÜNCELLEME ==========
+
+    public void upsert(Property property) {
+        if (!enabled || property.getId() == null) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(property.getApproved()) || !Boolean.TRUE.equals(property.getActive())) {
+            remove(property.getId());
+            return;
+        }
+
+        Document document = toDocument(property);
+        write(property.getId(), document);
+        Map<Long, Optional<Document>> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.put(property.getId(), Optional.of(document));
+        }
+    }
+
+    public void remove(Long propertyId) {
+        if (!enabled || propertyId == null) {
+            return;
+        }
+
+        delete(propertyId);
+        Map<Long, Optional<Document>> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.put(propertyId, Optional.empty());
+        }
+    }
+
+    // Toplu yükleme: mevcut index aramaya açık kalır, dokümanlar yerinde güncellenir
+    public Rebuild beginRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RuntimeException("Lucene index rebuild is already running");
+        }
+        touchedDuringRebuild = new ConcurrentHashMap<>();
+        generation.incrementAndGet();
+        return new Rebuild();
+    }
+
+    public class Rebuild {
+
+        private int count = 0;
+
+        public void add(Property property) {
+            if (!Boolean.TRUE.equals(property.getApproved()) || !Boolean.TRUE.equals(property.getActive())) {
+                return;
+            }
+            // Rebuild başladıktan sonra değişen ilanlar zaten güncel yazıldı
+            if (touchedDuringRebuild.containsKey(property.getId())) {
+                return;
+            }
+            write(property.getId(), toDocument(property));
+            count++;
+        }
+
+        public int commit() {
+            try {
+                // Bu rebuild'de görülmeyen (artık yayında olmayan) ilanlar
+                writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, generation.get() - 1));
+
+                Map<Long, Optional<Document>> touched = touchedDuringRebuild;
+                touchedDuringRebuild = null;
+                // add() ile eşzamanlı gelen yazmalar eski veriyle ezilmiş olabilir
+                touched.forEach((id, document) -> {
+                    if (document.isPresent()) {
+                        write(id, document.get());
+                    } else {
+                        delete(id);
+                    }
+                });
+
+                writer.commit();
+                searcherManager.maybeRefreshBlocking();
+                ready = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                rebuilding.set(false);
+            }
+            log.info("Lucene listing index rebuilt with {} listings", count);
+            return count;
+        }
+
+        public void abort() {
+            touchedDuringRebuild = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private void write(Long propertyId, Document document) {
+        document.removeFields(GENERATION);
+        document.add(new LongPoint(GENERATION, generation.get()));
+        try {
+            writer.updateDocument(new Term(ID_TERM, propertyId.toString()), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        markPendingWrite();
+    }
+
+    private void delete(Long propertyId) {
+        try {
+            writer.deleteDocuments(new Term(ID_TERM, propertyId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        markPendingWrite();
+    }
+
+    // ========== ARAMA ==========
+
+    // Eşleşen ilan id'lerini sıralı döner; kartlar çağıran tarafta yüklenir
+    public Page<Long> search(PropertySearchRequest request, Pageable pageable) {
+        int offset = (int) Math.min(pageable.getOffset(), MAX_RESULT_WINDOW);
+        int limit = Math.min(offset + pageable.getPageSize(), MAX_RESULT_WINDOW);
+        boolean hasKeyword = request.getKeyword() != null && !request.getKeyword().trim().isEmpty();
+        Query query = buildQuery(request, hasKeyword);
+
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            int total = searcher.count(query);
+            List<Long> ids = new ArrayList<>();
+            if (limit > offset && total > offset) {
+                TopDocs topDocs = searcher.search(query, limit, sortOf(pageable.getSort(), hasKeyword), hasKeyword);
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                for (int i = offset; i < hits.length; i++) {
+                    ids.add(searcher.storedFields().document(hits[i].doc).getField(ID).numericValue().longValue());
+                }
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Lucene searcher could not be released: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Query buildQuery(PropertySearchRequest request, boolean hasKeyword) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+
+        if (hasKeyword) {
+            QueryBuilder builder = new QueryBuilder(analyzer);
+            String keyword = request.getKeyword().trim();
+            BooleanQuery.Builder text = new BooleanQuery.Builder();
+            Query title = builder.createBooleanQuery(TITLE, keyword, BooleanClause.Occur.SHOULD);
+            Query description = builder.createBooleanQuery(DESCRIPTION, keyword, BooleanClause.Occur.SHOULD);
+            if (title != null) {
+                text.add(new BoostQuery(title, 2f), BooleanClause.Occur.SHOULD);
+            }
+            if (description != null) {
+                text.add(description, BooleanClause.Occur.SHOULD);
+            }
+            query.add(text.build(), BooleanClause.Occur.MUST);
+
+            // Öne çıkarılan ve çok görüntülenen ilanlar skora eklenir
+            query.add(FeatureField.newLinearQuery(FEATURES, "featured", 1f), BooleanClause.Occur.SHOULD);
+            query.add(FeatureField.newLogQuery(FEATURES, "viewCount", 0.3f, 1f), BooleanClause.Occur.SHOULD);
+        } else {
+            query.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+
+        addTerm(query, "listingType", request.getListingType() != null ? request.getListingType().name() : null);
+        addTerm(query, "propertyType", request.getPropertyType() != null ? request.getPropertyType().name() : null);
+        addTerm(query, "city", trimmed(request.getCity()));
+        addTerm(query, "district", trimmed(request.getDistrict()));
+        addTerm(query, "neighborhood", trimmed(request.getNeighborhood()));
+
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            long min = request.getMinPrice() != null ? toCents(request.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long max = request.getMaxPrice() != null ? toCents(request.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            query.add(LongPoint.newRangeQuery("price", min, max), BooleanClause.Occur.FILTER);
+        }
+        addRange(query, "grossArea", request.getMinArea(), request.getMaxArea());
+        addRange(query, "roomCount", request.getMinRoomCount(), request.getMaxRoomCount());
+        if (request.getHallCount() != null) {
+            query.add(IntPoint.newExactQuery("hallCount", request.getHallCount()), BooleanClause.Occur.FILTER);
+        }
+
+        if (request.getLatitude() != null && request.getLongitude() != null && request.getRadiusKm() != null) {
+            query.add(LatLonPoint.newDistanceQuery(LOCATION, request.getLatitude(), request.getLongitude(),
+                    request.getRadiusKm() * 1000), BooleanClause.Occur.FILTER);
+        }
+        if (request.getMinLatitude() != null || request.getMaxLatitude() != null
+                || request.getMinLongitude() != null || request.getMaxLongitude() != null) {
+            // minLongitude > maxLongitude ise LatLonPoint 180. meridyeni geçen kutu olarak yorumlar
+            query.add(LatLonPoint.newBoxQuery(LOCATION,
+                    request.getMinLatitude() != null ? request.getMinLatitude() : -90,
+                    request.getMaxLatitude() != null ? request.getMaxLatitude() : 90,
+                    request.getMinLongitude() != null ? request.getMinLongitude() : -180,
+                    request.getMaxLongitude() != null ? request.getMaxLongitude() : 180), BooleanClause.Occur.FILTER);
+        }
+
+        addFlag(query, "furnished", request.getFurnished());
+        addFlag(query, "elevator", request.getElevator());
+        addFlag(query, "parking", request.getParking());
+        addFlag(query, "balcony", request.getBalcony());
+        addFlag(query, "security", request.getSecurity());
+        addFlag(query, "negotiable", request.getNegotiable());
+        addFlag(query, "featured", request.getFeatured());
+        addFlag(query, "pappSellable", request.getPappSellable());
+
+        return query.build();
+    }
+
+    // Kelime aramasında önce skor, sonra istenen sıralama; en son id
+    private static org.apache.lucene.search.Sort sortOf(Sort sort, boolean byScore) {
+        List<SortField> fields = new ArrayList<>();
+        if (byScore) {
+            fields.add(SortField.FIELD_SCORE);
+        }
+        for (Sort.Order order : sort) {
+            switch (order.getProperty()) {
+                case "createdAt", "price", "viewCount", "grossArea" ->
+                        fields.add(new SortField(order.getProperty(), SortField.Type.LONG, order.isDescending()));
+                case "id" -> fields.add(new SortField(ID, SortField.Type.LONG, order.isDescending()));
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+        }
+        if (fields.isEmpty()) {
+            fields.add(new SortField("createdAt", SortField.Type.LONG, true));
+        }
+        fields.add(new SortField(ID, SortField.Type.LONG, true));
+        return new org.apache.lucene.search.Sort(fields.toArray(new SortField[0]));
+    }
+
+    private static void addTerm(BooleanQuery.Builder query, String field, String value) {
+        if (value != null) {
+            query.add(new TermQuery(new Term(field, value)), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private static void addRange(BooleanQuery.Builder query, String field, Integer min, Integer max) {
+        if (min != null || max != null) {
+            query.add(IntPoint.newRangeQuery(field,
+                    min != null ? min : Integer.MIN_VALUE,
+                    max != null ? max : Integer.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private static void addFlag(BooleanQuery.Builder query, String flag, Boolean value) {
+        if (value != null) {
+            query.add(new TermQuery(new Term(FLAG, flag)),
+                    value ? BooleanClause.Occur.FILTER : BooleanClause.Occur.MUST_NOT);
+        }
+    }
+
+    // ========== DOKÜMAN ==========
+
+    private static Document toDocument(Property property) {
+        Document document = new Document();
+        document.add(new StoredField(ID, property.getId()));
+        document.add(new StringField(ID_TERM, property.getId().toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, property.getId()));
+
+        if (property.getTitle() != null) {
+            document.add(new TextField(TITLE, property.getTitle(), Field.Store.NO));
+        }
+        if (property.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, property.getDescription(), Field.Store.NO));
+        }
+
+        addKeyword(document, "listingType", property.getListingType() != null ? property.getListingType().name() : null);
+        addKeyword(document, "propertyType", property.getPropertyType() != null ? property.getPropertyType().name() : null);
+        addKeyword(document, "city", trimmed(property.getCity()));
+        addKeyword(document, "district", trimmed(property.getDistrict()));
+        addKeyword(document, "neighborhood", trimmed(property.getNeighborhood()));
+
+        if (property.getPrice() != null) {
+            long cents = toCents(property.getPrice(), RoundingMode.HALF_UP);
+            document.add(new LongPoint("price", cents));
+            document.add(new NumericDocValuesField("price", cents));
+        }
+        if (property.getGrossArea() != null) {
+            document.add(new IntPoint("grossArea", property.getGrossArea()));
+            document.add(new NumericDocValuesField("grossArea", property.getGrossArea()));
+        }
+        if (property.getRoomCount() != null) {
+            document.add(new IntPoint("roomCount", property.getRoomCount()));
+        }
+        if (property.getHallCount() != null) {
+            document.add(new IntPoint("hallCount", property.getHallCount()));
+        }
+        if (property.getCreatedAt() != null) {
+            long createdAt = property.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            document.add(new NumericDocValuesField("createdAt", createdAt));
+        }
+        if (property.getLatitude() != null && property.getLongitude() != null) {
+            document.add(new LatLonPoint(LOCATION, property.getLatitude(), property.getLongitude()));
+        }
+        long viewCount = property.getViewCount() != null ? property.getViewCount() : 0L;
+        document.add(new NumericDocValuesField("viewCount", viewCount));
+
+        addFlag(document, "furnished", property.getFurnished());
+        addFlag(document, "elevator", property.getElevator());
+        addFlag(document, "parking", property.getParking());
+        addFlag(document, "balcony", property.getBalcony());
+        addFlag(document, "security", property.getSecurity());
+        addFlag(document, "negotiable", property.getNegotiable());
+        addFlag(document, "featured", property.getFeatured());
+        addFlag(document, "pappSellable", property.getPappSellable());
+
+        // FeatureField sıfır değer kabul etmez
+        if (Boolean.TRUE.equals(property.getFeatured())) {
+            document.add(new FeatureField(FEATURES, "featured", 1f));
+        }
+        if (viewCount > 0) {
+            document.add(new FeatureField(FEATURES, "viewCount", (float) viewCount));
+        }
+        return document;
+    }
+
+    private static void addKeyword(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new StringField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void addFlag(Document document, String flag, Boolean value) {
+        if (Boolean.TRUE.equals(value)) {
+            document.add(new StringField(FLAG, flag, Field.Store.NO));
+        }
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.movePointRight(2).setScale(0, roundingMode).longValueExact();
+    }
+
+    private static String trimmed(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    // ========== YENİLEME GECİKMESİ ==========
+
+    private void markPendingWrite() {
+        oldestPendingWriteNanos.compareAndSet(0, System.nanoTime());
+    }
+
+    private double refreshLagMillis() {
+        long pendingSince = earliest(oldestPendingWriteNanos.get(), refreshingWriteNanos);
+        if (pendingSince == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pendingSince);
+    }
+
+    private static long earliest(long a, long b) {
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    // Yenileme başlarken bekleyen yazmalar yeni okuyucuya girer.
+    // Yenileme sırasında gelenler ayrı işaretlenir ve beklemeye devam eder.
+    private class RefreshLagListener implements ReferenceManager.RefreshListener {
+
+        @Override
+        public void beforeRefresh() {
+            refreshingWriteNanos = oldestPendingWriteNanos.getAndSet(0);
+        }
+
+        @Override
+        public void afterRefresh(boolean didRefresh) {
+            long refreshing = refreshingWriteNanos;
+            refreshingWriteNanos = 0;
+            if (!didRefresh && refreshing != 0) {
+                oldestPendingWriteNanos.accumulateAndGet(refreshing, PropertyLuceneIndex::earliest);
+            }
+        }
+    }
+
+    // Türkçe küçük harf + kök bulma, ardından ı/ş/ğ/ç/ö/ü katlama
+    private static class TurkishFoldingAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ApostropheFilter(tokenizer);
+            stream = new TurkishLowerCaseFilter(stream);
+            stream = new StopFilter(stream, TurkishAnalyzer.getDefaultStopSet());
+            stream = new SnowballFilter(stream, new org.tartarus.snowball.ext.TurkishStemmer());
+            stream = new ASCIIFoldingFilter(stream);
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
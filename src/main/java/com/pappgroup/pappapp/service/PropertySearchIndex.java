@@ -0,0 +1,713 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
+import com.pappgroup.pappapp.dto.response.PropertyFacetsResponse;
+import com.pappgroup.pappapp.dto.response.PropertySummaryResponse;
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import com.pappgroup.pappapp.repository.PropertySpecifications;
+import com.pappgroup.pappapp.util.PriceBuckets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Onaylı ve aktif ilanların bellek içi, kolon bazlı index'i.
+// Sayısal alanlar primitive dizilerde, şehir/ilçe/mahalle/tip değerleri BitSet posting listelerinde tutulur.
+// Anahtar kelime ve konum içeren aramalar desteklenmez, bunlar Lucene'e veya veritabanına gider.
+// Kartlar public listelerle aynı kaynaktan (listing_cards) gelir; puan, favori, görüntülenme ve
+// ilan sahibi adı değişiklikleri ListingCardService tarafından commit sonrası uygulanır.
+@Service
+@Slf4j
+public class PropertySearchIndex {
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    // Fiyatı olmayan ilan: fiyat filtresine hiç uymaz, fiyat sıralamasında en büyük sayılır
+    private static final long NULL_PRICE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int FURNISHED = 1;
+    private static final int ELEVATOR = 1 << 1;
+    private static final int PARKING = 1 << 2;
+    private static final int BALCONY = 1 << 3;
+    private static final int SECURITY = 1 << 4;
+    private static final int NEGOTIABLE = 1 << 5;
+    private static final int FEATURED = 1 << 6;
+    private static final int PAPP_SELLABLE = 1 << 7;
+
+    // Arama sonuçlarında izin verilen sıralama alanları; index, Lucene ve veritabanı yolu aynı kümeyi kullanır
+    public static final Set<String> SORT_PROPERTIES = Set.of("createdAt", "price", "viewCount", "grossArea", "id");
+
+    @Value("${app.search.memory-index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile boolean ready = false;
+
+    // Rebuild sırasında gelen mutlak değişiklikler (upsert, remove) yeni kolonlara tekrar uygulanır
+    private List<Runnable> pendingDuringRebuild;
+    // Rebuild sırasında sayaçları değişen ilanlar; farklar tekrar uygulanmaz, commit sonrası veritabanından okunur
+    private Set<Long> staleDuringRebuild;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public boolean supports(PropertySearchRequest request) {
+        return (request.getKeyword() == null || request.getKeyword().trim().isEmpty())
+                && !PropertySpecifications.hasGeoFilter(request);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== GÜNCELLEME ==========
+
+    public void upsert(Property property, PropertySummaryResponse card) {
+        if (!enabled) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(property.getApproved()) || !Boolean.TRUE.equals(property.getActive())) {
+            remove(property.getId());
+            return;
+        }
+
+        apply(target -> target.put(property, card));
+    }
+
+    public void remove(Long propertyId) {
+        if (propertyId == null) {
+            return;
+        }
+        apply(target -> target.remove(propertyId));
+    }
+
+    // Yorum eklendi: (rating, +1), silindi: (-rating, -1), puan değişti: (yeni - eski, 0)
+    public void addRating(Long propertyId, long ratingDelta, long countDelta) {
+        applyDelta(List.of(propertyId), target -> target.addRating(propertyId, ratingDelta, countDelta));
+    }
+
+    public void addFavorites(Long propertyId, long delta) {
+        applyDelta(List.of(propertyId), target -> target.addFavorites(propertyId, delta));
+    }
+
+    // ViewCountAggregator'ın batch'i: {delta, propertyId}
+    public void addViews(List<Object[]> batch) {
+        applyDelta(batch.stream().map(row -> (Long) row[1]).toList(),
+                target -> batch.forEach(row -> target.addViews((Long) row[1], (Long) row[0])));
+    }
+
+    public void updateOwnerDisplayName(Long ownerId, String displayName) {
+        apply(target -> target.updateOwnerDisplayName(ownerId, displayName));
+    }
+
+    public void removeOwner(Long ownerId) {
+        apply(target -> target.removeOwner(ownerId));
+    }
+
+    // Mutlak değişiklik: rebuild sürüyorsa yeni kolonlara da tekrar uygulanır, iki kez uygulanması zararsızdır
+    private void apply(Consumer<Columns> change) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            change.accept(columns);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(() -> change.accept(columns));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Artımlı değişiklik: rebuild'in okuduğu satıra yansımış olabileceği için tekrar uygulanmaz (çift sayım).
+    // İlan stale işaretlenir, rebuild commit'inden sonra güncel satırıyla yeniden yazılır.
+    private void applyDelta(Collection<Long> propertyIds, Consumer<Columns> change) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            change.accept(columns);
+            if (staleDuringRebuild != null) {
+                staleDuringRebuild.addAll(propertyIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Toplu yükleme: yeni kolonlar kilit dışında doldurulur, sonra tek seferde değiştirilir
+    public Rebuild beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+            staleDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new Rebuild();
+    }
+
+    public class Rebuild {
+
+        private final Columns fresh = new Columns(INITIAL_CAPACITY);
+
+        public void add(Property property, PropertySummaryResponse card) {
+            if (Boolean.TRUE.equals(property.getApproved()) && Boolean.TRUE.equals(property.getActive())) {
+                fresh.put(property, card);
+            }
+        }
+
+        // Rebuild sırasında sayaçları değişen ilanların id'lerini döner; çağıran bunları yeniden upsert etmeli
+        public Set<Long> commit() {
+            Set<Long> stale;
+            lock.writeLock().lock();
+            try {
+                List<Runnable> pending = pendingDuringRebuild;
+                stale = staleDuringRebuild != null ? staleDuringRebuild : Set.of();
+                pendingDuringRebuild = null;
+                staleDuringRebuild = null;
+                columns = fresh;
+                if (pending != null) {
+                    pending.forEach(Runnable::run);
+                }
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Property search index rebuilt with {} listings, {} changed during rebuild", size(), stale.size());
+            return stale;
+        }
+
+        public void abort() {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+                staleDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ========== ARAMA ==========
+
+    public Page<PropertySummaryResponse> search(PropertySearchRequest request, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            int[] matches = columns.match(request);
+            Comparator<Integer> order = columns.comparator(pageable.getSort());
+
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(columns.cards(sorted(matches, order, matches.length)), pageable, matches.length);
+            }
+
+            long offset = pageable.getOffset();
+            if (offset >= matches.length) {
+                return new PageImpl<>(Collections.emptyList(), pageable, matches.length);
+            }
+
+            int limit = (int) Math.min(matches.length, offset + pageable.getPageSize());
+            List<Integer> top = sorted(matches, order, limit);
+            return new PageImpl<>(columns.cards(top.subList((int) offset, top.size())), pageable, matches.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Tüm facet sayıları eşleşen kayıtlar üzerinde tek geçişte hesaplanır
+    public PropertyFacetsResponse facets(PropertySearchRequest request) {
+        lock.readLock().lock();
+        try {
+            int[] matches = columns.match(request);
+
+            Map<String, Long> cities = new HashMap<>();
+            Map<String, Long> districts = new HashMap<>();
+            Map<String, Long> propertyTypes = new HashMap<>();
+            Map<String, Long> listingTypes = new HashMap<>();
+            Map<String, Long> roomConfigurations = new HashMap<>();
+            long[] priceBuckets = new long[PriceBuckets.count()];
+
+            for (int slot : matches) {
+                increment(cities, columns.cityKeys[slot]);
+                increment(districts, columns.districtKeys[slot]);
+                increment(propertyTypes, columns.propertyTypes[slot] != null ? columns.propertyTypes[slot].name() : null);
+                increment(listingTypes, columns.listingTypes[slot] != null ? columns.listingTypes[slot].name() : null);
+                if (columns.roomCount[slot] != NULL_INT && columns.hallCount[slot] != NULL_INT) {
+                    increment(roomConfigurations, columns.roomCount[slot] + "+" + columns.hallCount[slot]);
+                }
+                if (columns.priceCents[slot] != NULL_PRICE) {
+                    priceBuckets[PriceBuckets.bucketOf(columns.priceCents[slot])]++;
+                }
+            }
+
+            PropertyFacetsResponse response = new PropertyFacetsResponse();
+            response.setTotal((long) matches.length);
+            response.setCities(byCountDesc(cities));
+            response.setDistricts(byCountDesc(districts));
+            response.setPropertyTypes(byCountDesc(propertyTypes));
+            response.setListingTypes(byCountDesc(listingTypes));
+            response.setRoomConfigurations(byCountDesc(roomConfigurations));
+            for (int i = 0; i < priceBuckets.length; i++) {
+                if (priceBuckets[i] > 0) {
+                    response.getPriceBuckets().put(PriceBuckets.label(i), priceBuckets[i]);
+                }
+            }
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void increment(Map<String, Long> counts, String key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private static Map<String, Long> byCountDesc(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    // Sadece ilk "limit" kayıt gerektiği için tüm eşleşmeler yerine sınırlı bir heap sıralanır
+    private List<Integer> sorted(int[] slots, Comparator<Integer> order, int limit) {
+        if (limit >= slots.length) {
+            Integer[] boxed = Arrays.stream(slots).boxed().toArray(Integer[]::new);
+            Arrays.sort(boxed, order);
+            return Arrays.asList(boxed);
+        }
+
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        for (int slot : slots) {
+            heap.offer(slot);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Integer> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    // ========== KOLONLAR ==========
+
+    private static final class Columns {
+
+        private long[] ids;
+        private long[] priceCents;
+        private int[] grossArea;
+        private int[] roomCount;
+        private int[] hallCount;
+        private int[] flags;
+        // NULL olmayan boolean alanların bitleri; SQL'de NULL ne true ne false filtresine uyar
+        private int[] knownFlags;
+        private long[] createdAt;
+        private long[] viewCount;
+        private long[] ratingSum;
+        private long[] ownerIds;
+        private PropertySummaryResponse[] cards;
+        private String[] cityKeys;
+        private String[] districtKeys;
+        private String[] neighborhoodKeys;
+        private ListingType[] listingTypes;
+        private PropertyType[] propertyTypes;
+
+        private final BitSet live = new BitSet();
+        private final Map<String, BitSet> byCity = new HashMap<>();
+        private final Map<String, BitSet> byDistrict = new HashMap<>();
+        private final Map<String, BitSet> byNeighborhood = new HashMap<>();
+        private final Map<ListingType, BitSet> byListingType = new HashMap<>();
+        private final Map<PropertyType, BitSet> byPropertyType = new HashMap<>();
+        private final Map<Long, BitSet> byOwner = new HashMap<>();
+
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private int nextSlot = 0;
+
+        private Columns(int capacity) {
+            ids = new long[capacity];
+            priceCents = new long[capacity];
+            grossArea = new int[capacity];
+            roomCount = new int[capacity];
+            hallCount = new int[capacity];
+            flags = new int[capacity];
+            knownFlags = new int[capacity];
+            createdAt = new long[capacity];
+            viewCount = new long[capacity];
+            ratingSum = new long[capacity];
+            ownerIds = new long[capacity];
+            cards = new PropertySummaryResponse[capacity];
+            cityKeys = new String[capacity];
+            districtKeys = new String[capacity];
+            neighborhoodKeys = new String[capacity];
+            listingTypes = new ListingType[capacity];
+            propertyTypes = new PropertyType[capacity];
+        }
+
+        private void put(Property property, PropertySummaryResponse card) {
+            Integer existing = slotById.get(property.getId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unlinkPostings(slot);
+            } else {
+                slot = allocate();
+                slotById.put(property.getId(), slot);
+            }
+
+            ids[slot] = property.getId();
+            priceCents[slot] = property.getPrice() != null ? toCents(property.getPrice(), RoundingMode.HALF_UP) : NULL_PRICE;
+            grossArea[slot] = orNull(property.getGrossArea());
+            roomCount[slot] = orNull(property.getRoomCount());
+            hallCount[slot] = orNull(property.getHallCount());
+            flags[slot] = flagsOf(property);
+            knownFlags[slot] = knownFlagsOf(property);
+            createdAt[slot] = property.getCreatedAt() != null
+                    ? property.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : 0L;
+            viewCount[slot] = property.getViewCount() != null ? property.getViewCount() : 0L;
+            ratingSum[slot] = property.getRatingSum();
+            ownerIds[slot] = property.getUser().getId();
+            cards[slot] = card;
+
+            cityKeys[slot] = property.getCity();
+            districtKeys[slot] = property.getDistrict();
+            neighborhoodKeys[slot] = property.getNeighborhood();
+            listingTypes[slot] = property.getListingType();
+            propertyTypes[slot] = property.getPropertyType();
+
+            link(byCity, cityKeys[slot], slot);
+            link(byDistrict, districtKeys[slot], slot);
+            link(byNeighborhood, neighborhoodKeys[slot], slot);
+            link(byListingType, listingTypes[slot], slot);
+            link(byPropertyType, propertyTypes[slot], slot);
+            link(byOwner, ownerIds[slot], slot);
+            live.set(slot);
+        }
+
+        private void remove(Long propertyId) {
+            Integer slot = slotById.remove(propertyId);
+            if (slot == null) {
+                return;
+            }
+            unlinkPostings(slot);
+            live.clear(slot);
+            cards[slot] = null;
+            freeSlots.push(slot);
+        }
+
+        private void addRating(Long propertyId, long ratingDelta, long countDelta) {
+            Integer slot = slotById.get(propertyId);
+            if (slot == null) {
+                return;
+            }
+            ratingSum[slot] += ratingDelta;
+            long sum = ratingSum[slot];
+            updateCard(slot, card -> {
+                long count = (card.getRatingCount() != null ? card.getRatingCount() : 0L) + countDelta;
+                card.setRatingCount(count);
+                card.setAverageRating(count > 0 ? (double) sum / count : 0.0);
+            });
+        }
+
+        private void addFavorites(Long propertyId, long delta) {
+            Integer slot = slotById.get(propertyId);
+            if (slot != null) {
+                updateCard(slot, card -> card.setFavoriteCount(
+                        (card.getFavoriteCount() != null ? card.getFavoriteCount() : 0L) + delta));
+            }
+        }
+
+        private void addViews(Long propertyId, long delta) {
+            Integer slot = slotById.get(propertyId);
+            if (slot == null) {
+                return;
+            }
+            viewCount[slot] += delta;
+            long views = viewCount[slot];
+            updateCard(slot, card -> card.setViewCount(views));
+        }
+
+        private void updateOwnerDisplayName(Long ownerId, String displayName) {
+            BitSet owned = byOwner.get(ownerId);
+            if (owned == null) {
+                return;
+            }
+            for (int slot = owned.nextSetBit(0); slot >= 0; slot = owned.nextSetBit(slot + 1)) {
+                updateCard(slot, card -> card.setOwnerDisplayName(displayName));
+            }
+        }
+
+        private void removeOwner(Long ownerId) {
+            BitSet owned = byOwner.get(ownerId);
+            if (owned == null) {
+                return;
+            }
+            for (int slot : owned.stream().toArray()) {
+                remove(ids[slot]);
+            }
+        }
+
+        // Arama sonuçlarında dönmüş kartlar değişmesin diye kopyası güncellenir
+        private void updateCard(int slot, Consumer<PropertySummaryResponse> change) {
+            PropertySummaryResponse copy = new PropertySummaryResponse();
+            BeanUtils.copyProperties(cards[slot], copy);
+            change.accept(copy);
+            cards[slot] = copy;
+        }
+
+        private int allocate() {
+            if (!freeSlots.isEmpty()) {
+                return freeSlots.pop();
+            }
+            if (nextSlot == ids.length) {
+                grow(ids.length * 2);
+            }
+            return nextSlot++;
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            grossArea = Arrays.copyOf(grossArea, capacity);
+            roomCount = Arrays.copyOf(roomCount, capacity);
+            hallCount = Arrays.copyOf(hallCount, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            knownFlags = Arrays.copyOf(knownFlags, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            viewCount = Arrays.copyOf(viewCount, capacity);
+            ratingSum = Arrays.copyOf(ratingSum, capacity);
+            ownerIds = Arrays.copyOf(ownerIds, capacity);
+            cards = Arrays.copyOf(cards, capacity);
+            cityKeys = Arrays.copyOf(cityKeys, capacity);
+            districtKeys = Arrays.copyOf(districtKeys, capacity);
+            neighborhoodKeys = Arrays.copyOf(neighborhoodKeys, capacity);
+            listingTypes = Arrays.copyOf(listingTypes, capacity);
+            propertyTypes = Arrays.copyOf(propertyTypes, capacity);
+        }
+
+        private void unlinkPostings(int slot) {
+            unlink(byCity, cityKeys[slot], slot);
+            unlink(byDistrict, districtKeys[slot], slot);
+            unlink(byNeighborhood, neighborhoodKeys[slot], slot);
+            unlink(byListingType, listingTypes[slot], slot);
+            unlink(byPropertyType, propertyTypes[slot], slot);
+            unlink(byOwner, ownerIds[slot], slot);
+        }
+
+        private static <K> void link(Map<K, BitSet> postings, K key, int slot) {
+            if (key != null) {
+                postings.computeIfAbsent(key, k -> new BitSet()).set(slot);
+            }
+        }
+
+        private static <K> void unlink(Map<K, BitSet> postings, K key, int slot) {
+            if (key == null) {
+                return;
+            }
+            BitSet bits = postings.get(key);
+            if (bits != null) {
+                bits.clear(slot);
+                if (bits.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+
+        // Önce posting listeleri kesiştirilir, kalan adaylar primitive kolonlar üzerinden süzülür
+        private int[] match(PropertySearchRequest request) {
+            BitSet candidates = (BitSet) live.clone();
+            if (!intersect(candidates, byListingType, request.getListingType())
+                    || !intersect(candidates, byPropertyType, request.getPropertyType())
+                    || !intersect(candidates, byCity, trimmed(request.getCity()))
+                    || !intersect(candidates, byDistrict, trimmed(request.getDistrict()))
+                    || !intersect(candidates, byNeighborhood, trimmed(request.getNeighborhood()))) {
+                return new int[0];
+            }
+
+            boolean priceFiltered = request.getMinPrice() != null || request.getMaxPrice() != null;
+            long minPrice = request.getMinPrice() != null ? toCents(request.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long maxPrice = request.getMaxPrice() != null ? toCents(request.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+            int mask = 0;
+            int expected = 0;
+            int[] flagBits = {FURNISHED, ELEVATOR, PARKING, BALCONY, SECURITY, NEGOTIABLE, FEATURED, PAPP_SELLABLE};
+            Boolean[] flagValues = {request.getFurnished(), request.getElevator(), request.getParking(),
+                    request.getBalcony(), request.getSecurity(), request.getNegotiable(),
+                    request.getFeatured(), request.getPappSellable()};
+            for (int i = 0; i < flagBits.length; i++) {
+                if (flagValues[i] != null) {
+                    mask |= flagBits[i];
+                    if (flagValues[i]) {
+                        expected |= flagBits[i];
+                    }
+                }
+            }
+
+            int[] result = new int[candidates.cardinality()];
+            int count = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (priceFiltered && priceCents[slot] == NULL_PRICE) {
+                    continue;
+                }
+                if (priceCents[slot] < minPrice || priceCents[slot] > maxPrice) {
+                    continue;
+                }
+                if ((knownFlags[slot] & mask) != mask || (flags[slot] & mask) != expected) {
+                    continue;
+                }
+                if (!inRange(grossArea[slot], request.getMinArea(), request.getMaxArea())
+                        || !inRange(roomCount[slot], request.getMinRoomCount(), request.getMaxRoomCount())
+                        || !inRange(hallCount[slot], request.getHallCount(), request.getHallCount())) {
+                    continue;
+                }
+                result[count++] = slot;
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private static <K> boolean intersect(BitSet candidates, Map<K, BitSet> postings, K key) {
+            if (key == null) {
+                return true;
+            }
+            BitSet bits = postings.get(key);
+            if (bits == null) {
+                return false;
+            }
+            candidates.and(bits);
+            return true;
+        }
+
+        // SQL davranışıyla aynı: filtre varsa NULL değerler elenir
+        private static boolean inRange(int value, Integer min, Integer max) {
+            if (min == null && max == null) {
+                return true;
+            }
+            if (value == NULL_INT) {
+                return false;
+            }
+            return (min == null || value >= min) && (max == null || value <= max);
+        }
+
+        // Bilinmeyen alan sessizce createdAt'e düşmez, reddedilir; eşitlikte id DESC
+        private Comparator<Integer> comparator(Sort sort) {
+            Comparator<Integer> byId = Comparator.comparingLong(slot -> ids[slot]);
+            Comparator<Integer> result = null;
+            for (Sort.Order order : sort) {
+                Comparator<Integer> next = switch (order.getProperty()) {
+                    case "createdAt" -> Comparator.comparingLong(slot -> createdAt[slot]);
+                    case "price" -> Comparator.comparingLong(
+                            slot -> priceCents[slot] == NULL_PRICE ? Long.MAX_VALUE : priceCents[slot]);
+                    case "viewCount" -> Comparator.comparingLong(slot -> viewCount[slot]);
+                    // PostgreSQL gibi NULL en büyük değer sayılır
+                    case "grossArea" -> Comparator.comparingLong(
+                            slot -> grossArea[slot] == NULL_INT ? Long.MAX_VALUE : grossArea[slot]);
+                    case "id" -> byId;
+                    default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+                };
+                if (order.isDescending()) {
+                    next = next.reversed();
+                }
+                result = result == null ? next : result.thenComparing(next);
+            }
+            return result == null ? byId.reversed() : result.thenComparing(byId.reversed());
+        }
+
+        private List<PropertySummaryResponse> cards(List<Integer> slots) {
+            List<PropertySummaryResponse> result = new ArrayList<>(slots.size());
+            for (Integer slot : slots) {
+                result.add(cards[slot]);
+            }
+            return result;
+        }
+
+        private static int flagsOf(Property property) {
+            int value = 0;
+            if (Boolean.TRUE.equals(property.getFurnished())) value |= FURNISHED;
+            if (Boolean.TRUE.equals(property.getElevator())) value |= ELEVATOR;
+            if (Boolean.TRUE.equals(property.getParking())) value |= PARKING;
+            if (Boolean.TRUE.equals(property.getBalcony())) value |= BALCONY;
+            if (Boolean.TRUE.equals(property.getSecurity())) value |= SECURITY;
+            if (Boolean.TRUE.equals(property.getNegotiable())) value |= NEGOTIABLE;
+            if (Boolean.TRUE.equals(property.getFeatured())) value |= FEATURED;
+            if (Boolean.TRUE.equals(property.getPappSellable())) value |= PAPP_SELLABLE;
+            return value;
+        }
+
+        private static int knownFlagsOf(Property property) {
+            int value = 0;
+            if (property.getFurnished() != null) value |= FURNISHED;
+            if (property.getElevator() != null) value |= ELEVATOR;
+            if (property.getParking() != null) value |= PARKING;
+            if (property.getBalcony() != null) value |= BALCONY;
+            if (property.getSecurity() != null) value |= SECURITY;
+            if (property.getNegotiable() != null) value |= NEGOTIABLE;
+            if (property.getFeatured() != null) value |= FEATURED;
+            if (property.getPappSellable() != null) value |= PAPP_SELLABLE;
+            return value;
+        }
+
+        private static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+            return amount.setScale(2, roundingMode).movePointRight(2).longValue();
+        }
+
+        private static int orNull(Integer value) {
+            return value != null ? value : NULL_INT;
+        }
+
+        private static String trimmed(String value) {
+            if (value == null) {
+                return null;
+            }
+            String trimmed = value.trim();
+            return trimmed.isEmpty() ? null : trimmed;
+        }
+    }
+}
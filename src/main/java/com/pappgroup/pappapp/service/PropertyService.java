@@ -1,154 +1,335 @@
 package com.pappgroup.pappapp.service;
 
+import com.pappgroup.pappapp.config.FullTextSearchSupport;
 import com.pappgroup.pappapp.dto.request.PropertyCreateRequest;
 import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
 import com.pappgroup.pappapp.dto.request.PropertyUpdateRequest;
+import com.pappgroup.pappapp.dto.response.CursorPageResponse;
+import com.pappgroup.pappapp.dto.response.MapClusterResponse;
+import com.pappgroup.pappapp.dto.response.PropertyFacetsResponse;
 import com.pappgroup.pappapp.dto.response.PropertyResponse;
 import com.pappgroup.pappapp.dto.response.PropertyStatsResponse;
 import com.pappgroup.pappapp.dto.response.PropertySummaryResponse;
+import com.pappgroup.pappapp.entity.ListingCard;
 import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.PropertyCounters;
 import com.pappgroup.pappapp.entity.RoomConfiguration;
 import com.pappgroup.pappapp.entity.User;
 import com.pappgroup.pappapp.enums.ListingType;
 import com.pappgroup.pappapp.enums.PropertyType;
+import com.pappgroup.pappapp.repository.ListingCardRepository;
+import com.pappgroup.pappapp.repository.PropertyCountsView;
 import com.pappgroup.pappapp.repository.PropertyRepository;
+import com.pappgroup.pappapp.repository.PropertySpecifications;
+import com.pappgroup.pappapp.repository.PropertySummaryView;
 import com.pappgroup.pappapp.repository.UserRepository;
 import com.pappgroup.pappapp.security.UserPrincipal;
+import com.pappgroup.pappapp.util.CursorUtils;
+import com.pappgroup.pappapp.util.GeoUtils;
+import com.pappgroup.pappapp.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional(readOnly = true)
 public class PropertyService {
 
+    private static final int INDEX_REBUILD_BATCH_SIZE = 1000;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_MAP_CLUSTERS = 2000;
+
+    // Geç commit edilen transaction'lar ve instance'lar arası saat farkı için değişiklik akışı geriye kaydırılır
+    private static final Duration SEARCH_INDEX_SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    // listing_cards'ta bulunan sıralama alanları; kartta olmayan Property alanları (örn. updatedAt) reddedilir
+    private static final Set<String> CARD_SORT_PROPERTIES =
+            Set.of("createdAt", "price", "viewCount", "grossArea", "roomCount", "title", "id");
+
     private final PropertyRepository propertyRepository;
+    private final ListingCardRepository listingCardRepository;
     private final UserRepository userRepository;
     private final IStorageService storageService;
+    private final PropertySearchIndex propertySearchIndex;
+    private final PropertyLuceneIndex propertyLuceneIndex;
+    private final ViewCountAggregator viewCountAggregator;
+    private final PropertyDetailCache propertyDetailCache;
+    private final PropertyCounterService propertyCounterService;
+    private final ListingCardService listingCardService;
+    private final FullTextSearchSupport fullTextSearch;
+
+    private volatile LocalDateTime searchIndexSyncedUntil = LocalDateTime.MIN;
 
     // ========== PUBLIC METODLAR ==========
 
+    // Public listeler listing_cards okuma modelinden gelir (join yok, sadece onaylı ve aktif ilanlar)
+
     public Page<PropertySummaryResponse> getAllActiveProperties(Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByApprovedTrueAndActiveTrue(pageable);
-        return properties.map(this::convertToSummaryResponse);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> cards = listingCardRepository.findAll(pageable);
+        return cards.map(this::convertToSummaryResponse);
     }
 
     public Optional<PropertyResponse> getPropertyById(Long id) {
-        Optional<Property> property = propertyRepository.findById(id);
-        return property.map(this::convertToResponse);
+        Optional<PropertyResponse> cached = propertyDetailCache.get(id,
+                propertyId -> propertyRepository.findById(propertyId).map(property -> {
+                    PropertyResponse response = convertToResponse(property);
+                    // Cache'e session'a bağlı lazy koleksiyon değil, istekler arasında paylaşılabilen kopyası konur
+                    response.setImageUrls(List.copyOf(property.getImageUrls()));
+                    return response;
+                }));
+        return cached.map(response -> {
+            // Cache'teki nesne paylaşıldığı için kopyası üzerinde güncellenir
+            PropertyResponse copy = new PropertyResponse();
+            BeanUtils.copyProperties(response, copy);
+            // Henüz yazılmamış görüntülenmeler de gösterilir
+            copy.setViewCount(response.getViewCount() + viewCountAggregator.pendingViews(id));
+            return copy;
+        });
     }
 
     public Page<PropertySummaryResponse> getPropertiesByListingType(ListingType listingType, Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByListingType(listingType, pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByListingType(listingType, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> getPropertiesByPropertyType(PropertyType propertyType, Pageable pageable) {
 
-        Page<Property> properties = propertyRepository.findByPropertyTypeAndApprovedTrueAndActiveTrue(propertyType, pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByPropertyType(propertyType, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> getPropertiesByCity(String city, Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByCityIgnoreCase(city, pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByCity(city, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> getPropertiesByCityAndDistrict(String city, String district, Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByCityIgnoreCaseAndDistrictIgnoreCase(city, district, pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByCityAndDistrict(city, district, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> getPropertiesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByPriceBetween(minPrice, maxPrice, pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByPriceBetween(minPrice, maxPrice, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> getFeaturedProperties(Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByFeaturedTrue(pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByFeaturedTrue(pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> getPappSellableProperties(Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByPappSellableTrue(pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByPappSellableTrue(pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> searchByTitle(String title, Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByTitleContainingIgnoreCase(title, pageable);
+        Page<PropertySummaryView> properties = propertyRepository.findSummariesByTitleContainingIgnoreCase(title, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> searchByDescription(String description, Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByDescriptionContainingIgnoreCase(description, pageable);
+        Page<PropertySummaryView> properties = propertyRepository.findSummariesByDescriptionContainingIgnoreCase(description, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
     public Page<PropertySummaryResponse> searchProperties(PropertySearchRequest searchRequest, Pageable pageable) {
-        System.out.println("=== DEBUG: Search Properties Request ===");
-        System.out.println("ListingType: " + searchRequest.getListingType());
-        System.out.println("PropertyType: " + searchRequest.getPropertyType());
-        System.out.println("City: " + searchRequest.getCity());
-        System.out.println("District: " + searchRequest.getDistrict());
-        System.out.println("MinPrice: " + searchRequest.getMinPrice());
-        System.out.println("MaxPrice: " + searchRequest.getMaxPrice());
-
-        Page<Property> properties = propertyRepository.findActivePropertiesWithFilters(
-                searchRequest.getListingType(),
-                searchRequest.getPropertyType(),
-                normalizeText(searchRequest.getCity()),
-                normalizeText(searchRequest.getDistrict()),
-                normalizeText(searchRequest.getNeighborhood()),
-                searchRequest.getMinPrice(),
-                searchRequest.getMaxPrice(),
-                searchRequest.getMinArea(),
-                searchRequest.getMaxArea(),
-                searchRequest.getFurnished(),
-                searchRequest.getElevator(),
-                searchRequest.getParking(),
-                searchRequest.getBalcony(),
-                searchRequest.getSecurity(),
-                searchRequest.getNegotiable(),
-                searchRequest.getFeatured(),
-                searchRequest.getPappSellable(),
-               
-                searchRequest.getMinRoomCount(),
-                searchRequest.getMaxRoomCount(),
-                searchRequest.getHallCount(),
-                normalizeText(searchRequest.getKeyword()),
-                pageable
-        );
-
-        System.out.println("=== DEBUG: Query Result ===");
-        System.out.println("Total Elements: " + properties.getTotalElements());
-        System.out.println("Total Pages: " + properties.getTotalPages());
-        System.out.println("Current Page: " + properties.getNumber());
-        System.out.println("Content Size: " + properties.getContent().size());
+        // Hangi yoldan cevaplanırsa cevaplansın aynı sıralama alanları geçerli
+        requireSortable(pageable, PropertySearchIndex.SORT_PROPERTIES);
+
+        // Bellek içi index hazırsa veritabanına gitmeden cevaplanır
+        if (propertySearchIndex.isReady() && propertySearchIndex.supports(searchRequest)) {
+            return propertySearchIndex.search(searchRequest, pageable);
+        }
+
+        // Kelime + öne çıkarma sıralaması gereken aramalar Lucene'den
+        if (propertyLuceneIndex.isReady()) {
+            return loadSummaries(propertyLuceneIndex.search(searchRequest, pageable));
+        }
+
+        // Sadece dolu filtreler sorguya eklenir
+        Specification<Property> specification = searchSpecification(searchRequest);
+        if (hasKeyword(searchRequest) && fullTextSearch.isAvailable()) {
+            // Kelime aramasında önce alaka düzeyi, sonra istenen sıralama
+            specification = specification.and(
+                    PropertySpecifications.orderByRelevance(searchRequest.getKeyword(), pageable.getSort()));
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        }
 
+        Page<Property> properties = propertyRepository.findAll(specification, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
+    // Arama sonuçlarının yanındaki filtre sayıları (şehir, ilçe, tip, oda, fiyat kovası)
+    public PropertyFacetsResponse searchPropertyFacets(PropertySearchRequest searchRequest) {
+        if (propertySearchIndex.isReady() && propertySearchIndex.supports(searchRequest)) {
+            return propertySearchIndex.facets(searchRequest);
+        }
+        return propertyRepository.countFacets(searchSpecification(searchRequest));
+    }
+
+    // Harita görünümü için zoom seviyesine göre kümelenmiş ilan sayıları
+    public List<MapClusterResponse> getMapClusters(PropertySearchRequest searchRequest, int zoom) {
+        return propertyRepository.clusterByGrid(
+                searchSpecification(searchRequest), GeoUtils.clusterCellDegrees(zoom), MAX_MAP_CLUSTERS);
+    }
+
+    // Index'ten gelen id sırası korunarak kartlar listing_cards'tan tek sorguda yüklenir (bellek içi index'le aynı kaynak).
+    // Kartı henüz olmayan ilan entity'den doldurulur
+    private Page<PropertySummaryResponse> loadSummaries(Page<Long> ids) {
+        Map<Long, PropertySummaryResponse> byId = new HashMap<>();
+        listingCardRepository.findAllById(ids.getContent())
+                .forEach(card -> byId.put(card.getId(), convertToSummaryResponse(card)));
+        List<Long> missing = ids.getContent().stream().filter(id -> !byId.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            propertyRepository.findByIdIn(missing)
+                    .forEach(property -> byId.put(property.getId(), convertToSummaryResponse(property)));
+        }
+        List<PropertySummaryResponse> content = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    private static void requireSortable(Pageable pageable, Set<String> allowed) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!allowed.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+        }
+    }
+
+    private Specification<Property> searchSpecification(PropertySearchRequest searchRequest) {
+        Specification<Property> specification = PropertySpecifications.activeWithFilters(searchRequest);
+        if (hasKeyword(searchRequest)) {
+            specification = specification.and(
+                    PropertySpecifications.keywordMatches(searchRequest.getKeyword(), fullTextSearch.isAvailable()));
+        }
+        return specification;
+    }
+
+    private boolean hasKeyword(PropertySearchRequest searchRequest) {
+        return searchRequest.getKeyword() != null && !searchRequest.getKeyword().trim().isEmpty();
+    }
+
     public Page<PropertySummaryResponse> getMostViewedProperties(Pageable pageable) {
-        Page<Property> properties = propertyRepository.findByApprovedTrueAndActiveTrueOrderByViewCountDesc(pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findAllByOrderByViewCountDescIdDesc(pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
-    @Transactional
-    public void incrementViewCount(Long propertyId) {
-        Optional<Property> propertyOpt = propertyRepository.findById(propertyId);
-        if (propertyOpt.isPresent()) {
-            Property property = propertyOpt.get();
-            property.setViewCount(property.getViewCount() + 1);
-            propertyRepository.save(property);
+    // ========== KEYSET (CURSOR) SAYFALAMA ==========
+
+    public CursorPageResponse<PropertySummaryResponse> getAllActivePropertiesByCursor(String cursor, int size) {
+        Pageable limit = cursorLimit(size);
+        List<ListingCard> cards;
+        if (cursor == null || cursor.isBlank()) {
+            cards = listingCardRepository.findFeed(limit);
+        } else {
+            CursorUtils.Cursor position = CursorUtils.decode(cursor);
+            cards = listingCardRepository.findFeedAfter(position.sortValueAsDateTime(), position.id(), limit);
         }
+        return toCursorPage(cards, limit.getPageSize() - 1, ListingCard::getCreatedAt,
+                ListingCard::getId, this::convertToSummaryResponse);
+    }
+
+    public CursorPageResponse<PropertySummaryResponse> getMostViewedPropertiesByCursor(String cursor, int size) {
+        Pageable limit = cursorLimit(size);
+        List<ListingCard> cards;
+        if (cursor == null || cursor.isBlank()) {
+            cards = listingCardRepository.findMostViewedFeed(limit);
+        } else {
+            CursorUtils.Cursor position = CursorUtils.decode(cursor);
+            cards = listingCardRepository.findMostViewedFeedAfter(position.sortValueAsLong(), position.id(), limit);
+        }
+        return toCursorPage(cards, limit.getPageSize() - 1, ListingCard::getViewCount,
+                ListingCard::getId, this::convertToSummaryResponse);
+    }
+
+    // Cursor ile arama her zaman createdAt DESC, id DESC sıralanır
+    public CursorPageResponse<PropertySummaryResponse> searchPropertiesByCursor(PropertySearchRequest searchRequest,
+                                                                                 String cursor, int size) {
+        Pageable limit = cursorLimit(size);
+        Specification<Property> specification = searchSpecification(searchRequest);
+        if (cursor != null && !cursor.isBlank()) {
+            CursorUtils.Cursor position = CursorUtils.decode(cursor);
+            specification = specification.and(
+                    PropertySpecifications.createdBefore(position.sortValueAsDateTime(), position.id()));
+        }
+
+        List<Property> properties = propertyRepository.findBy(specification, query -> query
+                .sortBy(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(limit.getPageSize())
+                .all());
+        return toCursorPage(properties, limit.getPageSize() - 1, Property::getCreatedAt,
+                Property::getId, this::convertToSummaryResponse);
+    }
+
+    // Bir fazla kayıt çekilir; fazlalık varsa sonraki sayfa var demektir
+    private Pageable cursorLimit(int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private <T> CursorPageResponse<PropertySummaryResponse> toCursorPage(List<T> rows, int pageSize,
+                                                                         Function<T, Object> sortKey,
+                                                                         Function<T, Long> id,
+                                                                         Function<T, PropertySummaryResponse> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (!page.isEmpty()) {
+            T last = page.get(page.size() - 1);
+            nextCursor = CursorUtils.encode(sortKey.apply(last), id.apply(last));
+        }
+
+        List<PropertySummaryResponse> content = page.stream().map(mapper).toList();
+        return CursorPageResponse.of(new SliceImpl<>(content, PageRequest.of(0, pageSize), hasNext), nextCursor);
+    }
+
+    // Artış bellekte biriktirilir, ViewCountAggregator toplu olarak yazar
+    public void incrementViewCount(Long propertyId) {
+        viewCountAggregator.record(propertyId);
     }
 
     public Page<PropertySummaryResponse> getPropertiesByUserId(Long userId, Pageable pageable) {
@@ -157,8 +338,8 @@ public class PropertyService {
             throw new RuntimeException("User not found with id: " + userId);
         }
 
-        User user = userOptional.get();
-        Page<Property> properties = propertyRepository.findByUserAndApprovedTrueAndActiveTrue(user, pageable);
+        requireSortable(pageable, CARD_SORT_PROPERTIES);
+        Page<ListingCard> properties = listingCardRepository.findByOwnerId(userId, pageable);
         return properties.map(this::convertToSummaryResponse);
     }
 
@@ -196,11 +377,22 @@ public class PropertyService {
     public PropertyStatsResponse getCurrentUserStats() {
         User currentUser = getCurrentUser();
 
+        // Tüm sayaçlar tek sorguda
+        PropertyCountsView counts = propertyRepository.countStatsByUser(currentUser);
+
         PropertyStatsResponse stats = new PropertyStatsResponse();
-        stats.setTotalProperties(propertyRepository.countByUser(currentUser));
-        stats.setApprovedProperties(propertyRepository.findByUserAndApprovedTrue(currentUser, Pageable.unpaged()).getTotalElements());
-        stats.setActiveProperties(propertyRepository.findByUserAndActiveFalse(currentUser, Pageable.unpaged()).getTotalElements());
-        stats.setTotalViews(propertyRepository.getTotalViewCountByUser(currentUser));
+        stats.setTotalProperties(counts.getTotal());
+        stats.setApprovedProperties(counts.getApproved());
+        stats.setPendingApprovalProperties(counts.getPendingApproval());
+        stats.setActiveProperties(counts.getActive());
+        stats.setInactiveProperties(counts.getInactive());
+        stats.setTotalViews(counts.getTotalViews());
+        stats.setSaleProperties(counts.getSale());
+        stats.setRentProperties(counts.getRent());
+        stats.setResidentialProperties(counts.getResidential());
+        stats.setCommercialProperties(counts.getCommercial());
+        stats.setLandProperties(counts.getLand());
+        stats.setDailyRentalProperties(counts.getDailyRental());
 
         return stats;
     }
@@ -220,6 +412,8 @@ public class PropertyService {
         property.setLastPublished(LocalDateTime.now());
 
         Property savedProperty = propertyRepository.save(property);
+        propertyCounterService.record(null, propertyCounterService.snapshot(savedProperty));
+        syncSearchIndex(savedProperty);
         return convertToResponse(savedProperty);
     }
 
@@ -234,8 +428,11 @@ public class PropertyService {
             throw new RuntimeException("You can only update your own properties");
         }
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(existingProperty);
         mapUpdateRequestToEntity(request, existingProperty);
         Property updatedProperty = propertyRepository.save(existingProperty);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        syncSearchIndex(updatedProperty);
 
         return convertToResponse(updatedProperty);
     }
@@ -251,7 +448,10 @@ public class PropertyService {
             throw new RuntimeException("You can only delete your own properties");
         }
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         propertyRepository.delete(property);
+        propertyCounterService.record(before, null);
+        removeFromSearchIndex(id);
     }
 
     @Transactional
@@ -265,10 +465,13 @@ public class PropertyService {
             throw new RuntimeException("You can only republish your own properties");
         }
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         property.setActive(true);
         property.setApproved(false);
         property.setLastPublished(LocalDateTime.now());
         Property updatedProperty = propertyRepository.save(property);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        syncSearchIndex(updatedProperty);
 
         return convertToResponse(updatedProperty);
     }
@@ -284,11 +487,14 @@ public class PropertyService {
             throw new RuntimeException("You can only toggle your own properties");
         }
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         property.setActive(!property.getActive());
         if (property.getActive()) {
             property.setLastPublished(LocalDateTime.now());
         }
         Property updatedProperty = propertyRepository.save(property);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        syncSearchIndex(updatedProperty);
 
         return convertToResponse(updatedProperty);
     }
@@ -317,11 +523,38 @@ public class PropertyService {
     public PropertyStatsResponse getSystemStats() {
         PropertyStatsResponse stats = new PropertyStatsResponse();
 
-        stats.setTotalSystemProperties(propertyRepository.count());
-        stats.setTotalApprovedSystemProperties(propertyRepository.countByApprovedTrueAndActiveTrue());
-        stats.setPendingApprovalSystemProperties(propertyRepository.findByApprovedFalse(Pageable.unpaged()).getTotalElements());
-        stats.setReportedSystemProperties(propertyRepository.findByReportedTrue(Pageable.unpaged()).getTotalElements());
-        stats.setFeaturedSystemProperties(propertyRepository.findByFeaturedTrue(Pageable.unpaged()).getTotalElements());
+        // Sayaç tablosu açıksa tek satır okunur, değilse tek koşullu toplama sorgusu
+        Optional<PropertyCounters> counters = propertyCounterService.isEnabled()
+                ? propertyCounterService.getCounters()
+                : Optional.empty();
+        if (counters.isPresent()) {
+            PropertyCounters c = counters.get();
+            stats.setTotalSystemProperties(c.getTotal());
+            stats.setTotalApprovedSystemProperties(c.getApprovedActive());
+            stats.setPendingApprovalSystemProperties(c.getPendingApproval());
+            stats.setReportedSystemProperties(c.getReported());
+            stats.setFeaturedSystemProperties(c.getFeatured());
+            stats.setSaleProperties(c.getSale());
+            stats.setRentProperties(c.getRent());
+            stats.setResidentialProperties(c.getResidential());
+            stats.setCommercialProperties(c.getCommercial());
+            stats.setLandProperties(c.getLand());
+            stats.setDailyRentalProperties(c.getDailyRental());
+            return stats;
+        }
+
+        PropertyCountsView counts = propertyRepository.countStats();
+        stats.setTotalSystemProperties(counts.getTotal());
+        stats.setTotalApprovedSystemProperties(counts.getApprovedActive());
+        stats.setPendingApprovalSystemProperties(counts.getPendingApproval());
+        stats.setReportedSystemProperties(counts.getReported());
+        stats.setFeaturedSystemProperties(counts.getFeatured());
+        stats.setSaleProperties(counts.getSale());
+        stats.setRentProperties(counts.getRent());
+        stats.setResidentialProperties(counts.getResidential());
+        stats.setCommercialProperties(counts.getCommercial());
+        stats.setLandProperties(counts.getLand());
+        stats.setDailyRentalProperties(counts.getDailyRental());
 
         return stats;
     }
@@ -333,11 +566,14 @@ public class PropertyService {
 
         User currentAdmin = getCurrentUser();
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         property.setApproved(true);
         property.setApprovedAt(LocalDateTime.now());
         property.setApprovedBy(currentAdmin.getId());
 
         Property updatedProperty = propertyRepository.save(property);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        syncSearchIndex(updatedProperty);
         return convertToResponse(updatedProperty);
     }
 
@@ -346,10 +582,13 @@ public class PropertyService {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         property.setApproved(false);
         property.setActive(false);
 
         Property updatedProperty = propertyRepository.save(property);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        syncSearchIndex(updatedProperty);
         return convertToResponse(updatedProperty);
     }
 
@@ -358,11 +597,14 @@ public class PropertyService {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         property.setReported(false);
         property.setReportCount(0);
         property.setLastReportedAt(null);
 
         Property updatedProperty = propertyRepository.save(property);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        evictPropertyDetail(id);
         return convertToResponse(updatedProperty);
     }
 
@@ -376,8 +618,11 @@ public class PropertyService {
         Property existingProperty = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(existingProperty);
         mapUpdateRequestToEntity(request, existingProperty);
         Property updatedProperty = propertyRepository.save(existingProperty);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        syncSearchIndex(updatedProperty);
 
         return convertToResponse(updatedProperty);
     }
@@ -386,7 +631,10 @@ public class PropertyService {
     public void adminDeleteProperty(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         propertyRepository.delete(property);
+        propertyCounterService.record(before, null);
+        removeFromSearchIndex(id);
     }
 
     // ========== ŞİKAYET SİSTEMİ ==========
@@ -402,6 +650,7 @@ public class PropertyService {
             throw new RuntimeException("You cannot report your own property");
         }
 
+        PropertyCounterService.Snapshot before = propertyCounterService.snapshot(property);
         property.setReported(true);
         property.setReportCount(property.getReportCount() + 1);
         property.setLastReportedAt(LocalDateTime.now());
@@ -410,7 +659,9 @@ public class PropertyService {
             property.setActive(false);
         }
 
-        propertyRepository.save(property);
+        Property updatedProperty = propertyRepository.save(property);
+        propertyCounterService.record(before, propertyCounterService.snapshot(updatedProperty));
+        syncSearchIndex(updatedProperty);
     }
 
     // ========== MAPPING METODLARI ==========
@@ -422,6 +673,8 @@ public class PropertyService {
         property.setCity(request.getCity());
         property.setDistrict(request.getDistrict());
         property.setNeighborhood(request.getNeighborhood());
+        property.setLatitude(request.getLatitude());
+        property.setLongitude(request.getLongitude());
         property.setPrice(request.getPrice());
         property.setNegotiable(request.getNegotiable());
         property.setGrossArea(request.getGrossArea());
@@ -460,6 +713,8 @@ public class PropertyService {
         property.setCity(request.getCity());
         property.setDistrict(request.getDistrict());
         property.setNeighborhood(request.getNeighborhood());
+        property.setLatitude(request.getLatitude());
+        property.setLongitude(request.getLongitude());
         property.setPrice(request.getPrice());
         property.setNegotiable(request.getNegotiable());
         property.setGrossArea(request.getGrossArea());
@@ -512,6 +767,8 @@ public class PropertyService {
         response.setCity(property.getCity());
         response.setDistrict(property.getDistrict());
         response.setNeighborhood(property.getNeighborhood());
+        response.setLatitude(property.getLatitude());
+        response.setLongitude(property.getLongitude());
         response.setPrice(property.getPrice());
         response.setNegotiable(property.getNegotiable());
         response.setGrossArea(property.getGrossArea());
@@ -556,6 +813,72 @@ public class PropertyService {
         return response;
     }
 
+    // Okuma modelindeki kart; ilan sahibi, puan ve favori sayısı da doldurulur
+    private PropertySummaryResponse convertToSummaryResponse(ListingCard card) {
+        PropertySummaryResponse response = new PropertySummaryResponse();
+
+        response.setId(card.getId());
+        response.setTitle(card.getTitle());
+        response.setListingType(card.getListingType());
+        response.setPropertyType(card.getPropertyType());
+        response.setCity(card.getCity());
+        response.setDistrict(card.getDistrict());
+        response.setLatitude(card.getLatitude());
+        response.setLongitude(card.getLongitude());
+        response.setPrice(card.getPrice());
+        response.setNegotiable(card.getNegotiable());
+        response.setGrossArea(card.getGrossArea());
+        response.setElevator(card.getElevator());
+        response.setParking(card.getParking());
+        response.setBalcony(card.getBalcony());
+        response.setFurnished(card.getFurnished());
+        if (card.getRoomCount() != null && card.getHallCount() != null) {
+            response.setRoomConfiguration(new RoomConfiguration(card.getRoomCount(), card.getHallCount()));
+        }
+        response.setFeatured(card.getFeatured());
+        response.setPappSellable(card.getPappSellable());
+        response.setPrimaryImageUrl(card.getPrimaryImageUrl());
+        response.setViewCount(card.getViewCount());
+        response.setCreatedAt(card.getCreatedAt());
+        response.setOwnerDisplayName(card.getOwnerDisplayName());
+        response.setAverageRating(card.getRatingCount() > 0 ? (double) card.getRatingSum() / card.getRatingCount() : 0.0);
+        response.setRatingCount(card.getRatingCount());
+        response.setFavoriteCount(card.getFavoriteCount());
+
+        return response;
+    }
+
+    // Projeksiyonla gelen kartlar; entity sürümüyle aynı alanları doldurur
+    private PropertySummaryResponse convertToSummaryResponse(PropertySummaryView view) {
+        PropertySummaryResponse response = new PropertySummaryResponse();
+
+        response.setId(view.getId());
+        response.setTitle(view.getTitle());
+        response.setListingType(view.getListingType());
+        response.setPropertyType(view.getPropertyType());
+        response.setCity(view.getCity());
+        response.setDistrict(view.getDistrict());
+        response.setLatitude(view.getLatitude());
+        response.setLongitude(view.getLongitude());
+        response.setPrice(view.getPrice());
+        response.setNegotiable(view.getNegotiable());
+        response.setGrossArea(view.getGrossArea());
+        response.setElevator(view.getElevator());
+        response.setParking(view.getParking());
+        response.setBalcony(view.getBalcony());
+        response.setFurnished(view.getFurnished());
+        if (view.getRoomCount() != null && view.getHallCount() != null) {
+            response.setRoomConfiguration(new RoomConfiguration(view.getRoomCount(), view.getHallCount()));
+        }
+        response.setFeatured(view.getFeatured());
+        response.setPappSellable(view.getPappSellable());
+        response.setPrimaryImageUrl(view.getPrimaryImageUrl());
+        response.setViewCount(view.getViewCount());
+        response.setCreatedAt(view.getCreatedAt());
+
+        return response;
+    }
+
     private PropertySummaryResponse convertToSummaryResponse(Property property) {
         PropertySummaryResponse response = new PropertySummaryResponse();
 
@@ -566,6 +889,8 @@ public class PropertyService {
         response.setPropertyType(property.getPropertyType());
         response.setCity(property.getCity());
         response.setDistrict(property.getDistrict());
+        response.setLatitude(property.getLatitude());
+        response.setLongitude(property.getLongitude());
         response.setPrice(property.getPrice());
         response.setNegotiable(property.getNegotiable());
         response.setGrossArea(property.getGrossArea());
@@ -587,13 +912,164 @@ public class PropertyService {
         return response;
     }
 
-    private String normalizeText(String value) {
-        if (value == null) {
-            return null;
+    // ========== ARAMA INDEX'İ ==========
+
+    // Uygulama açılışında onaylı ve aktif ilanlar sayfa sayfa index'e yüklenir
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildSearchIndex() {
+        if (!propertySearchIndex.isEnabled()) {
+            return;
+        }
+
+        // Rebuild sırasında başka instance'ta yapılan değişiklikler de akıştan alınsın
+        LocalDateTime started = LocalDateTime.now();
+        PropertySearchIndex.Rebuild rebuild = propertySearchIndex.beginRebuild();
+        try {
+            Pageable pageable = PageRequest.of(0, INDEX_REBUILD_BATCH_SIZE, Sort.by("id"));
+            Page<Property> page;
+            do {
+                page = propertyRepository.findByApprovedTrueAndActiveTrue(pageable);
+                // Kartlar public listelerle aynı kaynaktan; kartı henüz olmayan ilan entity'den doldurulur
+                Map<Long, ListingCard> cards = listingCardRepository.findAllById(
+                                page.getContent().stream().map(Property::getId).toList()).stream()
+                        .collect(Collectors.toMap(ListingCard::getId, Function.identity()));
+                for (Property property : page.getContent()) {
+                    ListingCard card = cards.get(property.getId());
+                    rebuild.add(property, card != null
+                            ? convertToSummaryResponse(card)
+                            : convertToSummaryResponse(property));
+                }
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+            Set<Long> stale = rebuild.commit();
+            searchIndexSyncedUntil = started;
+            // Rebuild sırasında sayacı değişen ilanlar güncel satırlarıyla yeniden yazılır
+            List<Long> staleIds = new ArrayList<>(stale);
+            for (int from = 0; from < staleIds.size(); from += INDEX_REBUILD_BATCH_SIZE) {
+                List<Long> ids = staleIds.subList(from, Math.min(staleIds.size(), from + INDEX_REBUILD_BATCH_SIZE));
+                List<Property> properties = propertyRepository.findByIdIn(ids);
+                reindexListings(properties);
+                Set<Long> found = properties.stream().map(Property::getId).collect(Collectors.toSet());
+                ids.stream().filter(id -> !found.contains(id)).forEach(propertySearchIndex::remove);
+            }
+        } catch (RuntimeException e) {
+            rebuild.abort();
+            log.error("Property search index rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Bellek içi index sadece bu instance'ın yazmalarını anında görür; diğer instance'lardaki onay, yayından
+    // kaldırma ve düzenlemeler properties.updated_at üzerinden birkaç saniyede alınır.
+    // Silinen ilanlar ve sayaçlar (görüntülenme, puan, favori) updated_at'e dokunmaz, periyodik rebuild ile düzelir.
+    @Scheduled(fixedDelayString = "${app.search.memory-index.sync-interval-ms:10000}",
+            initialDelayString = "${app.search.memory-index.sync-interval-ms:10000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void syncSearchIndexChanges() {
+        if (!propertySearchIndex.isReady()) {
+            return;
         }
 
-        String trimmed = value.trim();
-        return trimmed.isEmpty() ? null : trimmed;
+        LocalDateTime until = LocalDateTime.now();
+        LocalDateTime from = searchIndexSyncedUntil.minus(SEARCH_INDEX_SYNC_OVERLAP);
+        try {
+            Pageable pageable = PageRequest.of(0, INDEX_REBUILD_BATCH_SIZE, Sort.by("updatedAt", "id"));
+            Slice<Property> changed;
+            do {
+                changed = propertyRepository.findByUpdatedAtBetween(from, until, pageable);
+                reindexListings(changed.getContent());
+                pageable = changed.nextPageable();
+            } while (changed.hasNext());
+            searchIndexSyncedUntil = until;
+        } catch (RuntimeException e) {
+            log.error("Property search index sync failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Yayında olmayan ilanı upsert index'ten çıkarır
+    private void reindexListings(List<Property> properties) {
+        Map<Long, ListingCard> cards = listingCardRepository.findAllById(
+                        properties.stream().map(Property::getId).toList()).stream()
+                .collect(Collectors.toMap(ListingCard::getId, Function.identity()));
+        for (Property property : properties) {
+            ListingCard card = cards.get(property.getId());
+            propertySearchIndex.upsert(property, card != null
+                    ? convertToSummaryResponse(card)
+                    : convertToSummaryResponse(property));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.memory-index.rebuild-interval-ms:900000}",
+            initialDelayString = "${app.search.memory-index.rebuild-interval-ms:900000}")
+    public void scheduledSearchIndexRebuild() {
+        rebuildSearchIndex();
+    }
+
+    // Lucene index'i id sırasıyla batch'ler halinde yeniden kurar; bellek kullanımı batch boyutuyla sınırlı
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildLuceneIndex() {
+        if (!propertyLuceneIndex.isEnabled()) {
+            throw new RuntimeException("Lucene index is disabled");
+        }
+
+        PropertyLuceneIndex.Rebuild rebuild = propertyLuceneIndex.beginRebuild();
+        try {
+            Pageable limit = PageRequest.of(0, INDEX_REBUILD_BATCH_SIZE);
+            long lastId = 0L;
+            List<Property> batch;
+            do {
+                batch = propertyRepository.findByApprovedTrueAndActiveTrueAndIdGreaterThanOrderByIdAsc(lastId, limit);
+                for (Property property : batch) {
+                    rebuild.add(property);
+                    lastId = property.getId();
+                }
+            } while (batch.size() == INDEX_REBUILD_BATCH_SIZE);
+            return rebuild.commit();
+        } catch (RuntimeException e) {
+            rebuild.abort();
+            throw e;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildLuceneIndexOnStartup() {
+        if (!propertyLuceneIndex.isEnabled()) {
+            return;
+        }
+        try {
+            rebuildLuceneIndex();
+        } catch (RuntimeException e) {
+            log.error("Lucene index rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // listing_cards aynı transaction'da güncellenir.
+    // Index'ler ve detay cache'i sadece commit edilmiş değişiklikleri görür.
+    private void syncSearchIndex(Property property) {
+        listingCardService.sync(property);
+        // Index'teki kart public listelerle aynı şekilde listing_cards satırından üretilir
+        PropertySummaryResponse card = listingCardRepository.findById(property.getId())
+                .map(this::convertToSummaryResponse)
+                .orElseGet(() -> convertToSummaryResponse(property));
+        TransactionUtils.afterCommit(() -> {
+            propertySearchIndex.upsert(property, card);
+            propertyLuceneIndex.upsert(property);
+            propertyDetailCache.evict(property.getId());
+        });
+    }
+
+    private void removeFromSearchIndex(Long propertyId) {
+        listingCardService.remove(propertyId);
+        TransactionUtils.afterCommit(() -> {
+            propertySearchIndex.remove(propertyId);
+            propertyLuceneIndex.remove(propertyId);
+            propertyDetailCache.evict(propertyId);
+        });
+    }
+
+    private void evictPropertyDetail(Long propertyId) {
+        TransactionUtils.afterCommit(() -> propertyDetailCache.evict(propertyId));
     }
 
     private User getCurrentUser() {
@@ -628,6 +1104,7 @@ public class PropertyService {
         }
 
         Property updatedProperty = propertyRepository.save(property);
+        syncSearchIndex(updatedProperty);
         return convertToResponse(updatedProperty);
     }
 
@@ -655,6 +1132,7 @@ public class PropertyService {
         }
 
         Property updatedProperty = propertyRepository.save(property);
+        syncSearchIndex(updatedProperty);
         return convertToResponse(updatedProperty);
     }
 
@@ -676,6 +1154,7 @@ public class PropertyService {
         property.setPrimaryImageUrl(imageUrl);
 
         Property updatedProperty = propertyRepository.save(property);
+        syncSearchIndex(updatedProperty);
         return convertToResponse(updatedProperty);
     }
 
@@ -0,0 +1,73 @@
+package com.pappgroup.pappapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// properties/users üzerindeki rating_sum ve rating_count toplamlarını comments tablosundan yeniden hesaplar.
+// Toplamlar CommentService'te artımlı tutulur; bu iş sadece kaymaları düzeltir.
+// id aralıkları ayrı transaction'larda işlenir, kilitler kısa sürer.
+@Service
+@Slf4j
+public class RatingAggregateService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Aralıktaki satırlar önce kilitlenir: eşzamanlı yorum farkları ya sayımdan önce commit edilmiş olur
+    // ya da sayımdan sonra uygulanır, ikisi birden kaybolmaz
+    private static final String LOCK_PROPERTIES_SQL =
+            "SELECT id FROM properties WHERE id > ? AND id <= ? ORDER BY id FOR UPDATE";
+
+    private static final String RECONCILE_PROPERTIES_SQL = "UPDATE properties p "
+            + "SET rating_sum = r.rating_sum, rating_count = r.rating_count "
+            + "FROM (SELECT p2.id, COALESCE(SUM(c.rating), 0) AS rating_sum, COUNT(c.id) AS rating_count "
+            + "FROM properties p2 LEFT JOIN comments c ON c.property_id = p2.id "
+            + "WHERE p2.id > ? AND p2.id <= ? GROUP BY p2.id) r "
+            + "WHERE p.id = r.id AND (p.rating_sum <> r.rating_sum OR p.rating_count <> r.rating_count)";
+
+    private static final String LOCK_USERS_SQL =
+            "SELECT id FROM users WHERE id > ? AND id <= ? ORDER BY id FOR UPDATE";
+
+    private static final String RECONCILE_USERS_SQL = "UPDATE users u "
+            + "SET rating_sum = r.rating_sum, rating_count = r.rating_count "
+            + "FROM (SELECT u2.id, COALESCE(SUM(c.rating), 0) AS rating_sum, COUNT(c.id) AS rating_count "
+            + "FROM users u2 "
+            + "LEFT JOIN properties p ON p.user_id = u2.id "
+            + "LEFT JOIN comments c ON c.property_id = p.id "
+            + "WHERE u2.id > ? AND u2.id <= ? GROUP BY u2.id) r "
+            + "WHERE u.id = r.id AND (u.rating_sum <> r.rating_sum OR u.rating_count <> r.rating_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public RatingAggregateService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Listing card yeniden kurulumundan (03:45) önce çalışır, kartlar düzeltilmiş değerleri alır
+    @Scheduled(cron = "${app.ratings.reconcile-cron:0 15 3 * * *}")
+    public void reconcile() {
+        int properties = reconcileTable("properties", LOCK_PROPERTIES_SQL, RECONCILE_PROPERTIES_SQL);
+        int users = reconcileTable("users", LOCK_USERS_SQL, RECONCILE_USERS_SQL);
+        log.info("Rating aggregates reconciled: {} listings and {} users corrected", properties, users);
+    }
+
+    private int reconcileTable(String table, String lockSql, String reconcileSql) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        int corrected = 0;
+        for (long from = 0; from < maxId; from += BATCH_SIZE) {
+            long lower = from;
+            long upper = from + BATCH_SIZE;
+            Integer updated = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForList(lockSql, Long.class, lower, upper);
+                return jdbcTemplate.update(reconcileSql, lower, upper);
+            });
+            corrected += updated != null ? updated : 0;
+        }
+        return corrected;
+    }
+}
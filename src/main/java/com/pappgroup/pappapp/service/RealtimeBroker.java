@@ -0,0 +1,13 @@
+package com.pappgroup.pappapp.service;
+
+// Kullanıcıya anlık olay gönderimi (STOMP /user/queue/... hedefleri).
+// app.realtime.broker ile seçilir: memory (varsayılan, tek instance) veya none.
+// Birden fazla instance için harici broker'a (STOMP relay, Redis pub/sub) yayın yapan bir implementasyon eklenir.
+public interface RealtimeBroker {
+
+    String MESSAGES = "/queue/messages";
+    String READ_RECEIPTS = "/queue/read-receipts";
+    String UNREAD_COUNT = "/queue/unread-count";
+
+    void publishToUser(Long userId, String destination, Object payload);
+}
@@ -0,0 +1,254 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.UserRepository;
+import com.pappgroup.pappapp.security.JwtTokenProvider;
+import com.pappgroup.pappapp.security.RevokedTokenFamilies;
+import com.pappgroup.pappapp.security.TokenClaims;
+import com.pappgroup.pappapp.util.TransactionUtils;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Refresh token aileleri: girişte aile açılır, her yenilemede aile yeni token'a döner (rotation).
+// Ailenin güncel token'ı dışında bir token gelirse token çalınmış kabul edilir ve aile iptal edilir;
+// sadece az önce dönülen token kısa bir grace süresi içinde gelirse (paralel yenileme) güncel token verilir.
+// Tüm işlemler birincil anahtar üzerinden tek satırlıktır; iptal kontrolü RevokedTokenFamilies'te bellekte yapılır.
+// Aile, açıldığı andaki kullanıcı epoch'unu taşır; epoch artmışsa (pasifleştirme, şifre değişikliği) yenilenemez.
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final String INSERT_SQL = "INSERT INTO refresh_token_families "
+            + "(id, user_id, current_token_id, token_epoch, expires_at, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Compare-and-set: sadece güncel token ile ve iptal edilmemiş, süresi dolmamış ailede döner
+    private static final String ROTATE_SQL = "UPDATE refresh_token_families "
+            + "SET previous_token_id = current_token_id, current_token_id = ?, rotated_at = ?, expires_at = ? "
+            + "WHERE id = ? AND current_token_id = ? AND revoked_at IS NULL AND expires_at > ? "
+            + "RETURNING user_id, token_epoch";
+
+    // Paralel yenileme: bir önceki token grace süresi içinde gelirse aile iptal edilmez, güncel token tekrar verilir
+    private static final String GRACE_SQL = "SELECT user_id, token_epoch, current_token_id, expires_at "
+            + "FROM refresh_token_families "
+            + "WHERE id = ? AND previous_token_id = ? AND rotated_at > ? AND revoked_at IS NULL AND expires_at > ?";
+
+    // Eski (ailesiz) refresh token'ın üretildiği andan sonra açılmış aile var mı
+    private static final String FAMILY_SINCE_SQL =
+            "SELECT EXISTS (SELECT 1 FROM refresh_token_families WHERE user_id = ? AND created_at >= ?)";
+
+    private static final String FAMILY_SQL =
+            "SELECT revoked_at IS NOT NULL AS revoked, expires_at FROM refresh_token_families WHERE id = ?";
+
+    private static final String REVOKE_SQL = "UPDATE refresh_token_families SET revoked_at = ? "
+            + "WHERE id = ? AND revoked_at IS NULL RETURNING expires_at";
+
+    private static final String REVOKE_USER_SQL = "UPDATE refresh_token_families SET revoked_at = ? "
+            + "WHERE user_id = ? AND revoked_at IS NULL AND expires_at > ? RETURNING id, expires_at";
+
+    private static final String PURGE_SQL = "DELETE FROM refresh_token_families WHERE id IN ("
+            + "SELECT id FROM refresh_token_families WHERE expires_at < ? "
+            + "ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JwtTokenProvider tokenProvider;
+    private final RevokedTokenFamilies revokedFamilies;
+    private final UserRepository userRepository;
+
+    @Value("${app.security.refresh-tokens.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    @Value("${app.security.refresh-tokens.reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
+    public RefreshTokenService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               JwtTokenProvider tokenProvider,
+                               RevokedTokenFamilies revokedFamilies,
+                               UserRepository userRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tokenProvider = tokenProvider;
+        this.revokedFamilies = revokedFamilies;
+        this.userRepository = userRepository;
+    }
+
+    public record IssuedTokens(User user, String accessToken, String refreshToken) {
+    }
+
+    private record Rotation(long userId, int tokenEpoch, UUID tokenId, Instant expiresAt) {
+    }
+
+    // Giriş: yeni aile ve ilk token çifti
+    public IssuedTokens issue(User user) {
+        UUID familyId = UUID.randomUUID();
+        UUID tokenId = UUID.randomUUID();
+        Instant expiresAt = tokenProvider.getRefreshExpiry();
+        jdbcTemplate.update(INSERT_SQL, familyId, user.getId(), tokenId, user.getTokenEpoch(),
+                Timestamp.from(expiresAt), Timestamp.from(Instant.now()));
+        return tokens(user, familyId, tokenId, expiresAt);
+    }
+
+    // Yenileme: refresh token tek kullanımlıktır, karşılığında yeni çift döner
+    public IssuedTokens rotate(String refreshToken) {
+        TokenClaims claims;
+        try {
+            claims = tokenProvider.parseToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (claims.isAccessToken()) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (claims.familyId() == null && claims.tokenId() == null) {
+            return exchangeLegacy(claims);
+        }
+        if (claims.familyId() == null || claims.tokenId() == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        UUID familyId = claims.familyId();
+        if (revokedFamilies.isRevoked(familyId)) {
+            throw new RuntimeException("Refresh token has been revoked");
+        }
+
+        UUID newTokenId = UUID.randomUUID();
+        Instant expiresAt = tokenProvider.getRefreshExpiry();
+        Instant now = Instant.now();
+        List<Rotation> rotated = jdbcTemplate.query(ROTATE_SQL,
+                (rs, rowNum) -> new Rotation(rs.getLong("user_id"), rs.getInt("token_epoch"), newTokenId, expiresAt),
+                newTokenId, Timestamp.from(now), Timestamp.from(expiresAt), familyId, claims.tokenId(),
+                Timestamp.from(now));
+        if (rotated.isEmpty()) {
+            rotated = jdbcTemplate.query(GRACE_SQL,
+                    (rs, rowNum) -> new Rotation(rs.getLong("user_id"), rs.getInt("token_epoch"),
+                            rs.getObject("current_token_id", UUID.class), rs.getTimestamp("expires_at").toInstant()),
+                    familyId, claims.tokenId(), Timestamp.from(now.minusMillis(reuseGraceMs)), Timestamp.from(now));
+        }
+        if (rotated.isEmpty()) {
+            throw staleTokenError(familyId);
+        }
+
+        Rotation rotation = rotated.get(0);
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!user.isEnabled()) {
+            revoke(familyId);
+            throw new RuntimeException("User account is disabled");
+        }
+        // Aile açıldıktan sonra oturumlar kapatılmış (şifre değişikliği, pasifleştirme)
+        if (rotation.tokenEpoch() < user.getTokenEpoch()) {
+            revoke(familyId);
+            throw new RuntimeException("Refresh token has been revoked");
+        }
+        return tokens(user, familyId, rotation.tokenId(), rotation.expiresAt());
+    }
+
+    // Aileler öncesi üretilmiş refresh token (fam ve jti yok) bir kez yeni aileye çevrilir; süresi dolunca bu yol kalkar.
+    // Token epoch taşımaz (0 sayılır): o zamandan beri oturumlar kapatıldıysa reddedilir. Token üretildikten sonra
+    // kullanıcıya aile açılmışsa (yeni giriş veya önceki çevirme) token tekrar kullanılıyor demektir, reddedilir
+    private IssuedTokens exchangeLegacy(TokenClaims claims) {
+        if (claims.email() == null || claims.issuedAt() == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        return transactionTemplate.execute(status -> {
+            // Aynı kullanıcı için eşzamanlı çevirmeler sıraya girer
+            List<Long> userIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE email = ? FOR UPDATE", Long.class, claims.email());
+            if (userIds.isEmpty()) {
+                throw new RuntimeException("Invalid refresh token");
+            }
+            User user = userRepository.findById(userIds.get(0))
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (!user.isEnabled()) {
+                throw new RuntimeException("User account is disabled");
+            }
+            Boolean reused = jdbcTemplate.queryForObject(FAMILY_SINCE_SQL, Boolean.class,
+                    user.getId(), Timestamp.from(claims.issuedAt()));
+            if (user.getTokenEpoch() > 0 || Boolean.TRUE.equals(reused)) {
+                throw new RuntimeException("Refresh token has been revoked");
+            }
+            log.info("Legacy refresh token of user {} exchanged for a token family", user.getId());
+            return issue(user);
+        });
+    }
+
+    // Çıkış ve token tekrar kullanımı: ailedeki tüm token'lar (access token'lar dahil) geçersiz olur
+    public void revoke(UUID familyId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Timestamp> expiresAt = jdbcTemplate.queryForList(REVOKE_SQL, Timestamp.class,
+                    Timestamp.from(Instant.now()), familyId);
+            if (!expiresAt.isEmpty()) {
+                TransactionUtils.afterCommit(() -> revokedFamilies.add(familyId, expiresAt.get(0).toInstant()));
+            }
+        });
+    }
+
+    // Kullanıcının tüm açık aileleri iptal edilir; çağıran transaction'a katılır, bellekteki liste commit sonrası güncellenir
+    public void revokeAll(Long userId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.query(REVOKE_USER_SQL, rs -> {
+            UUID familyId = rs.getObject("id", UUID.class);
+            Instant expiresAt = rs.getTimestamp("expires_at").toInstant();
+            TransactionUtils.afterCommit(() -> revokedFamilies.add(familyId, expiresAt));
+        }, now, userId, now);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.refresh-tokens.purge-interval-ms:3600000}",
+            initialDelayString = "${app.security.refresh-tokens.purge-interval-ms:3600000}")
+    public void scheduledPurge() {
+        try {
+            int purged = purgeExpired();
+            if (purged > 0) {
+                log.info("Purged {} expired refresh token families", purged);
+            }
+        } catch (Exception e) {
+            log.error("Refresh token purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public int purgeExpired() {
+        Timestamp now = Timestamp.from(Instant.now());
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(PURGE_SQL, now, purgeBatchSize));
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            if (count < purgeBatchSize) {
+                return total;
+            }
+        }
+    }
+
+    private RuntimeException staleTokenError(UUID familyId) {
+        List<Boolean> revoked = jdbcTemplate.query(FAMILY_SQL, (rs, rowNum) ->
+                rs.getBoolean("revoked") || rs.getTimestamp("expires_at").toInstant().isBefore(Instant.now()), familyId);
+        if (revoked.isEmpty() || revoked.get(0)) {
+            return new RuntimeException("Invalid refresh token");
+        }
+
+        // Aile geçerli ama token güncel değil: daha önce kullanılmış bir token tekrar geldi
+        log.warn("Refresh token reuse detected, revoking family {}", familyId);
+        revoke(familyId);
+        return new RuntimeException("Refresh token reuse detected");
+    }
+
+    private IssuedTokens tokens(User user, UUID familyId, UUID tokenId, Instant expiresAt) {
+        String accessToken = tokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getId(),
+                user.getTokenEpoch(), familyId);
+        String refreshToken = tokenProvider.generateRefreshToken(user.getEmail(), familyId, tokenId, expiresAt);
+        return new IssuedTokens(user, accessToken, refreshToken);
+    }
+}
@@ -7,10 +7,13 @@ import com.pappgroup.pappapp.dto.response.UserResponse;
 import com.pappgroup.pappapp.entity.User;
 import com.pappgroup.pappapp.repository.UserRepository;
 import com.pappgroup.pappapp.security.UserPrincipal;
+import com.pappgroup.pappapp.security.UserStatusCache;
+import com.pappgroup.pappapp.util.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
@@ -21,6 +24,15 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ListingCardService listingCardService;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     public UserResponse getCurrentUser() {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder
                 .getContext().getAuthentication().getPrincipal();
@@ -31,6 +43,7 @@ public class UserService {
         return convertToUserResponse(user);
     }
 
+    @Transactional
     public UserResponse updateProfile(ProfileUpdateRequest request) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder
                 .getContext().getAuthentication().getPrincipal();
@@ -62,6 +75,8 @@ public class UserService {
         user.setLocation(request.getLocation());
 
         User updatedUser = userRepository.save(user);
+        // İlan kartlarındaki sahip adı
+        listingCardService.updateOwner(updatedUser);
         return convertToUserResponse(updatedUser);
     }
 
@@ -109,6 +124,7 @@ public class UserService {
         userRepository.save(user);
     }
 
+    @Transactional
     public void changePassword(ChangePasswordRequest request) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder
                 .getContext().getAuthentication().getPrincipal();
@@ -121,11 +137,22 @@ public class UserService {
             throw new RuntimeException("Current password is incorrect");
         }
 
-        // Yeni şifre set et
+        // Yeni şifre set et; açık oturumlar kapatılır
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        revokeSessions(user);
         userRepository.save(user);
     }
 
+    // Epoch artınca önceki access token'lar reddedilir, refresh token aileleri de iptal edilir.
+    // Artırım tek UPDATE ile yapılır; entity'deki değer sadece bu transaction'da yeni token üretmek için güncellenir.
+    // Çağıran transaction içinde çağırır
+    public void revokeSessions(User user) {
+        userRepository.incrementTokenEpoch(user.getId());
+        user.setTokenEpoch(userRepository.findTokenEpoch(user.getId()));
+        refreshTokenService.revokeAll(user.getId());
+        TransactionUtils.afterCommit(() -> userStatusCache.invalidate(user.getId()));
+    }
+
     public UserResponse convertToUserResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
@@ -0,0 +1,117 @@
+package com.pappgroup.pappapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// İlan görüntülenmelerini bellekte biriktirir ve periyodik olarak tek bir batch UPDATE ile yazar.
+// Her detay görüntülemesinde entity yükleyip save etmek yerine; eşzamanlı artışlar da kaybolmaz.
+@Service
+@Slf4j
+public class ViewCountAggregator {
+
+    private static final String FLUSH_SQL = "UPDATE properties SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingCardService listingCardService;
+    private final PropertyDetailCache propertyDetailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter flushedViews;
+
+    // İlan başına ayrı LongAdder; aynı ilana gelen eşzamanlı artışlar hücrelere dağılır
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ViewCountAggregator(JdbcTemplate jdbcTemplate,
+                               ListingCardService listingCardService,
+                               PropertyDetailCache propertyDetailCache,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listingCardService = listingCardService;
+        this.propertyDetailCache = propertyDetailCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushedViews = Counter.builder("property.views.flushed")
+                .description("View increments written to the database")
+                .register(meterRegistry);
+        Gauge.builder("property.views.pending", pending, Map::size)
+                .description("Listings with view increments waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    public void record(Long propertyId) {
+        add(propertyId, 1);
+    }
+
+    // Henüz veritabanına yazılmamış görüntülenme sayısı
+    public long pendingViews(Long propertyId) {
+        LongAdder adder = pending.get(propertyId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    private void add(Long propertyId, long delta) {
+        pending.computeIfAbsent(propertyId, id -> new LongAdder()).add(delta);
+    }
+
+    // Artışlar commit'ten sonra bekleyenlerden düşülür; detay sayfasındaki sayı (cache'teki taban + bekleyen)
+    // flush sırasında geriye gitmez, commit'ten sonra da taban yenilensin diye detay cache'i silinir
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        Map<Long, LongAdder> flushed = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long delta = adder.sum();
+            if (delta > 0) {
+                batch.add(new Object[]{delta, entry.getKey()});
+                flushed.put(entry.getKey(), adder);
+            } else if (pending.remove(entry.getKey(), adder)) {
+                // Boşta kalan ilan bırakılır; kaldırma anında gelen artış varsa bir sonraki tura taşınır
+                long late = adder.sumThenReset();
+                if (late > 0) {
+                    add(entry.getKey(), late);
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Sabit sıra, birden fazla instance aynı satırları güncellerken kilit beklemesini azaltır
+        batch.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+        try {
+            // İlan ve kart sayaçları birlikte yazılır; hata olursa ikisi de geri alınır, tekrar denemede çift sayılmaz
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                listingCardService.addViews(batch);
+            });
+            for (Object[] row : batch) {
+                Long propertyId = (Long) row[1];
+                propertyDetailCache.evict(propertyId);
+                flushed.get(propertyId).add(-(Long) row[0]);
+            }
+            flushedViews.increment(batch.stream().mapToLong(row -> (Long) row[0]).sum());
+        } catch (RuntimeException e) {
+            // Yazılamayan artışlar bekleyenlerde kalır, bir sonraki turda tekrar denenir
+            log.warn("View count flush failed for {} listings, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
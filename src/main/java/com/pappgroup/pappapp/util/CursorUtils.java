@@ -0,0 +1,40 @@
+package com.pappgroup.pappapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    // Keyset sayfalama için opak devam token'ı: base64url("sıralamaDeğeri|id")
+    public static String encode(Object sortValue, Long id) {
+        String raw = sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Cursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public record Cursor(String sortValue, Long id) {
+
+        public LocalDateTime sortValueAsDateTime() {
+            return LocalDateTime.parse(sortValue);
+        }
+
+        public Long sortValueAsLong() {
+            return Long.parseLong(sortValue);
+        }
+    }
+}
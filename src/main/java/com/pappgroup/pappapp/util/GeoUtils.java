@@ -0,0 +1,33 @@
+package com.pappgroup.pappapp.util;
+
+public class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    // Zoom seviyesindeki bir harita karosunun kenarına düşen küme hücresi sayısı
+    private static final int CELLS_PER_TILE = 4;
+    private static final int MAX_ZOOM = 22;
+
+    // Noktayı çevreleyen kutu: {minLat, maxLat, minLng, maxLng}.
+    // Kesin mesafe kontrolünden önce index'li ön eleme için kullanılır.
+    public static double[] boundingBox(double latitude, double longitude, double radiusKm) {
+        double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+
+        // Kutuplara yakınsa boylam sınırı anlamsızlaşır
+        if (minLat <= -90 || maxLat >= 90) {
+            return new double[]{Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180};
+        }
+
+        double lngDelta = Math.toDegrees(Math.asin(Math.sin(radiusKm / EARTH_RADIUS_KM)
+                / Math.cos(Math.toRadians(latitude))));
+        return new double[]{minLat, maxLat, longitude - lngDelta, longitude + lngDelta};
+    }
+
+    // Harita kümeleme hücresinin derece cinsinden kenarı
+    public static double clusterCellDegrees(int zoom) {
+        int clamped = Math.max(0, Math.min(MAX_ZOOM, zoom));
+        return 360.0 / (1L << clamped) / CELLS_PER_TILE;
+    }
+}
@@ -0,0 +1,45 @@
+package com.pappgroup.pappapp.util;
+
+import java.math.BigDecimal;
+
+public class PriceBuckets {
+
+    // Fiyat facet'i için alt sınırlar (TL). Son kova üst sınırsızdır.
+    private static final long[] LOWER_BOUNDS = {
+            0L, 10_000L, 25_000L, 50_000L, 100_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L
+    };
+
+    public static int count() {
+        return LOWER_BOUNDS.length;
+    }
+
+    public static long lowerBound(int bucket) {
+        return LOWER_BOUNDS[bucket];
+    }
+
+    public static int bucketOf(long priceCents) {
+        long price = priceCents / 100;
+        for (int i = LOWER_BOUNDS.length - 1; i > 0; i--) {
+            if (price >= LOWER_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    public static int bucketOf(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        return bucketOf(price.movePointRight(2).longValue());
+    }
+
+    // Örn: "100000-500000", "10000000+"
+    public static String label(int bucket) {
+        if (bucket == LOWER_BOUNDS.length - 1) {
+            return LOWER_BOUNDS[bucket] + "+";
+        }
+        return LOWER_BOUNDS[bucket] + "-" + LOWER_BOUNDS[bucket + 1];
+    }
+}
@@ -0,0 +1,22 @@
+package com.pappgroup.pappapp.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+
+    // Aktif bir transaction varsa işi commit sonrasına erteler, yoksa hemen çalıştırır.
+    // Bellek içi yapılar rollback olan değişiklikleri görmesin diye kullanılır.
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Kullanıcının token sürümü. Access token'lar üretildikleri andaki değeri taşır;
+-- değer artırılınca (hesap pasifleştirme vb.) daha önce verilmiş tüm token'lar geçersiz olur.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+-- Refresh token aileleri: her girişte bir aile açılır, her yenilemede current_token_id döner.
+-- Eski bir token tekrar kullanılırsa (çalınmış token) aile iptal edilir.
+-- İptal edilen aileler RevokedTokenFamilies'te bellekte tutulur; açılışta bloom filter'a yüklenir.
+-- token_epoch aile açılırken kullanıcının epoch'udur; users.token_epoch artınca aile yenilenemez.
+
+CREATE TABLE IF NOT EXISTS refresh_token_families (
+    id                UUID         PRIMARY KEY,
+    user_id           BIGINT       NOT NULL CONSTRAINT fk_refresh_token_families_user REFERENCES users ON DELETE CASCADE,
+    current_token_id  UUID         NOT NULL,
+    token_epoch       INTEGER      NOT NULL,
+    expires_at        TIMESTAMP(6) NOT NULL,
+    revoked_at        TIMESTAMP(6),
+    created_at        TIMESTAMP(6) NOT NULL
+);
+
+-- Kullanıcı silinirken cascade
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_user
+    ON refresh_token_families (user_id);
+
+-- Süresi dolan ailelerin toplu silinmesi: expires_at < ? ORDER BY expires_at
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_expires
+    ON refresh_token_families (expires_at);
+
+-- Açılışta iptal listesinin yüklenmesi: revoked_at IS NOT NULL AND expires_at > ?
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_revoked
+    ON refresh_token_families (expires_at) WHERE revoked_at IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Bellek içi arama index'inin değişiklik akışı: updated_at BETWEEN ? AND ? ORDER BY updated_at, id
+-- (başka instance'ta onaylanan, yayından kaldırılan veya düzenlenen ilanlar)
+CREATE INDEX IF NOT EXISTS idx_properties_updated
+    ON properties (updated_at, id);
@@ -0,0 +1,6 @@
+-- Paralel yenileme: aynı istemci iki isteği aynı token'la gönderirse ikincisi tekrar kullanım sayılmasın.
+-- Son dönülen token ve dönme anı saklanır; grace süresi içinde önceki token gelirse güncel token verilir.
+
+ALTER TABLE refresh_token_families
+    ADD COLUMN IF NOT EXISTS previous_token_id UUID,
+    ADD COLUMN IF NOT EXISTS rotated_at TIMESTAMP(6);
@@ -0,0 +1,127 @@
+-- Flyway'e geçiş öncesi ddl-auto=update ile oluşan şema; Flyway'den önceki son sürümle birebir aynı olmalı.
+-- Mevcut veritabanlarında baseline-on-migrate ile atlanır, boş veritabanlarında çalışır.
+-- Sonradan eklenen her nesne V2 ve sonrasındaki dosyalara girer.
+
+CREATE TABLE users (
+    id                                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email                               VARCHAR(255) NOT NULL UNIQUE,
+    phone_number                        VARCHAR(255),
+    password                            VARCHAR(255),
+    first_name                          VARCHAR(255) NOT NULL,
+    last_name                           VARCHAR(255) NOT NULL,
+    role                                VARCHAR(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    enabled                             BOOLEAN      NOT NULL,
+    created_at                          TIMESTAMP(6) NOT NULL,
+    updated_at                          TIMESTAMP(6) NOT NULL,
+    verification_code                   VARCHAR(255),
+    verification_code_expires_at        TIMESTAMP(6),
+    is_verified                         BOOLEAN      NOT NULL,
+    max_verification_attempts           INTEGER,
+    last_verification_attempt           TIMESTAMP(6),
+    reset_token                         VARCHAR(255),
+    reset_token_expires_at              TIMESTAMP(6),
+    oauth_provider                      VARCHAR(255),
+    oauth_id                            VARCHAR(255),
+    is_oauth_user                       BOOLEAN,
+    bio                                 TEXT,
+    location                            VARCHAR(255),
+    profile_picture_url                 VARCHAR(255),
+    phone_verification_code             VARCHAR(255),
+    phone_verification_code_expires_at  TIMESTAMP(6),
+    is_phone_verified                   BOOLEAN,
+    max_phone_verification_attempts     INTEGER,
+    last_phone_verification_attempt     TIMESTAMP(6),
+    preferred_language                  VARCHAR(10),
+    theme_preference                    VARCHAR(20),
+    email_notifications_enabled         BOOLEAN,
+    sms_notifications_enabled           BOOLEAN,
+    new_listing_alerts_enabled          BOOLEAN,
+    price_change_alerts_enabled         BOOLEAN,
+    marketing_emails_enabled            BOOLEAN
+);
+
+CREATE TABLE properties (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title              VARCHAR(255)   NOT NULL,
+    listing_type       VARCHAR(255)   NOT NULL CHECK (listing_type IN ('SALE', 'RENT')),
+    property_type      VARCHAR(255)   NOT NULL CHECK (property_type IN ('RESIDENTIAL', 'COMMERCIAL', 'LAND', 'DAILY_RENTAL')),
+    city               VARCHAR(255)   NOT NULL,
+    district           VARCHAR(255)   NOT NULL,
+    neighborhood       VARCHAR(255)   NOT NULL,
+    price              NUMERIC(15, 2) NOT NULL,
+    negotiable         BOOLEAN        NOT NULL,
+    gross_area         INTEGER,
+    net_area           INTEGER,
+    elevator           BOOLEAN        NOT NULL,
+    parking            BOOLEAN        NOT NULL,
+    balcony            BOOLEAN        NOT NULL,
+    security           BOOLEAN        NOT NULL,
+    description        VARCHAR(2000),
+    featured           BOOLEAN        NOT NULL,
+    papp_sellable      BOOLEAN        NOT NULL,
+    furnished          BOOLEAN        NOT NULL,
+    room_count         INTEGER,
+    hall_count         INTEGER,
+    monthly_fee        NUMERIC(10, 2),
+    deposit            NUMERIC(15, 2),
+    building_age       INTEGER,
+    total_floors       INTEGER,
+    current_floor      INTEGER,
+    active             BOOLEAN        NOT NULL,
+    approved           BOOLEAN        NOT NULL,
+    approved_at        TIMESTAMP(6),
+    approved_by        BIGINT,
+    last_published     TIMESTAMP(6),
+    reported           BOOLEAN        NOT NULL,
+    report_count       INTEGER        NOT NULL,
+    last_reported_at   TIMESTAMP(6),
+    view_count         BIGINT         NOT NULL,
+    primary_image_url  VARCHAR(500),
+    user_id            BIGINT         NOT NULL CONSTRAINT fk_properties_user REFERENCES users,
+    created_at         TIMESTAMP(6)   NOT NULL,
+    updated_at         TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE property_heating (
+    property_id   BIGINT NOT NULL CONSTRAINT fk_property_heating_property REFERENCES properties,
+    heating_type  VARCHAR(255)
+);
+
+CREATE TABLE property_images (
+    property_id  BIGINT NOT NULL CONSTRAINT fk_property_images_property REFERENCES properties,
+    image_url    VARCHAR(500)
+);
+
+CREATE TABLE comments (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    property_id  BIGINT       NOT NULL CONSTRAINT fk_comments_property REFERENCES properties,
+    user_id      BIGINT       NOT NULL CONSTRAINT fk_comments_user REFERENCES users,
+    comment      TEXT         NOT NULL,
+    rating       INTEGER      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE favorites (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id      BIGINT       NOT NULL CONSTRAINT fk_favorites_user REFERENCES users,
+    property_id  BIGINT       NOT NULL CONSTRAINT fk_favorites_property REFERENCES properties,
+    created_at   TIMESTAMP(6) NOT NULL,
+    UNIQUE (user_id, property_id)
+);
+
+CREATE TABLE messages (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sender_id            BIGINT       NOT NULL CONSTRAINT fk_messages_sender REFERENCES users,
+    receiver_id          BIGINT       NOT NULL CONSTRAINT fk_messages_receiver REFERENCES users,
+    property_id          BIGINT CONSTRAINT fk_messages_property REFERENCES properties,
+    content              TEXT         NOT NULL,
+    is_read              BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at           TIMESTAMP(6) NOT NULL,
+    updated_at           TIMESTAMP(6) NOT NULL,
+    read_at              TIMESTAMP(6),
+    deleted_by_sender    BOOLEAN      NOT NULL DEFAULT FALSE,
+    deleted_by_receiver  BOOLEAN      NOT NULL DEFAULT FALSE,
+    sender_deleted_at    TIMESTAMP(6),
+    receiver_deleted_at  TIMESTAMP(6)
+);
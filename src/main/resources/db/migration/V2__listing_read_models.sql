@@ -0,0 +1,72 @@
+-- Flyway'e geçmeden önce ddl-auto=update ile eklenen nesneler.
+-- Baseline (V1) olarak işaretlenen mevcut veritabanlarında V1 çalışmadığı için burada oluşturulur;
+-- ddl-auto ile zaten oluşmuş olabilecekleri için IF NOT EXISTS kullanılır.
+
+-- Harita araması (yarıçap, görünür alan, kümeleme)
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS latitude FLOAT(53);
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS longitude FLOAT(53);
+
+CREATE INDEX IF NOT EXISTS idx_properties_location ON properties (latitude, longitude);
+CREATE INDEX IF NOT EXISTS idx_properties_user ON properties (user_id);
+
+-- Admin paneli için tek satırlık ilan sayaçları
+CREATE TABLE IF NOT EXISTS property_counters (
+    id                BIGINT PRIMARY KEY,
+    total             BIGINT NOT NULL,
+    approved_active   BIGINT NOT NULL,
+    pending_approval  BIGINT NOT NULL,
+    reported          BIGINT NOT NULL,
+    featured          BIGINT NOT NULL,
+    active            BIGINT NOT NULL,
+    inactive          BIGINT NOT NULL,
+    sale              BIGINT NOT NULL,
+    rent              BIGINT NOT NULL,
+    residential       BIGINT NOT NULL,
+    commercial        BIGINT NOT NULL,
+    land              BIGINT NOT NULL,
+    daily_rental      BIGINT NOT NULL,
+    reconciled_at     TIMESTAMP(6)
+);
+
+-- Public ilan listeleri için okuma modeli
+CREATE TABLE IF NOT EXISTS listing_cards (
+    property_id         BIGINT PRIMARY KEY,
+    title               VARCHAR(255)   NOT NULL,
+    listing_type        VARCHAR(255)   NOT NULL CHECK (listing_type IN ('SALE', 'RENT')),
+    property_type       VARCHAR(255)   NOT NULL CHECK (property_type IN ('RESIDENTIAL', 'COMMERCIAL', 'LAND', 'DAILY_RENTAL')),
+    city                VARCHAR(255)   NOT NULL,
+    district            VARCHAR(255)   NOT NULL,
+    city_key            VARCHAR(255)   NOT NULL,
+    district_key        VARCHAR(255)   NOT NULL,
+    latitude            FLOAT(53),
+    longitude           FLOAT(53),
+    price               NUMERIC(15, 2) NOT NULL,
+    negotiable          BOOLEAN        NOT NULL,
+    gross_area          INTEGER,
+    elevator            BOOLEAN        NOT NULL,
+    parking             BOOLEAN        NOT NULL,
+    balcony             BOOLEAN        NOT NULL,
+    furnished           BOOLEAN        NOT NULL,
+    room_count          INTEGER,
+    hall_count          INTEGER,
+    featured            BOOLEAN        NOT NULL,
+    papp_sellable       BOOLEAN        NOT NULL,
+    primary_image_url   VARCHAR(500),
+    view_count          BIGINT         NOT NULL,
+    created_at          TIMESTAMP(6)   NOT NULL,
+    owner_id            BIGINT         NOT NULL,
+    owner_display_name  VARCHAR(255)   NOT NULL,
+    rating_sum          BIGINT         NOT NULL,
+    rating_count        BIGINT         NOT NULL,
+    favorite_count      BIGINT         NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_listing_cards_feed ON listing_cards (created_at DESC, property_id DESC);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_most_viewed ON listing_cards (view_count DESC, property_id DESC);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_listing_type ON listing_cards (listing_type, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_property_type ON listing_cards (property_type, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_location ON listing_cards (city_key, district_key, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_price ON listing_cards (price);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_featured ON listing_cards (featured, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_papp_sellable ON listing_cards (papp_sellable, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_owner ON listing_cards (owner_id, created_at DESC);
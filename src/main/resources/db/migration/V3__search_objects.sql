@@ -0,0 +1,33 @@
+-- Başlık ve açıklama araması için PostgreSQL nesneleri (eski FullTextSearchInitializer).
+-- İfadeler SearchFunctionContributor'daki kalıplarla birebir aynı olmalı, yoksa planner index'i kullanmaz.
+-- unaccent ve pg_trgm PostgreSQL 13+ sürümlerinde trusted; veritabanı sahibi oluşturabilir.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() STABLE olduğu için index ifadesinde kullanılamaz; IMMUTABLE sarmalayıcı
+CREATE OR REPLACE FUNCTION immutable_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+-- Türkçe kök bulma + ı/İ/ş/ğ/ç/ö/ü katlama
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'turkish_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION turkish_unaccent (COPY = pg_catalog.turkish);
+        ALTER TEXT SEARCH CONFIGURATION turkish_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, turkish_stem;
+    END IF;
+END
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_properties_search_document ON properties USING GIN
+    (to_tsvector('turkish_unaccent', coalesce(title, '') || ' ' || coalesce(description, '')));
+
+-- Yazım hatalarına toleranslı başlık eşleşmesi
+CREATE INDEX IF NOT EXISTS idx_properties_title_trgm ON properties USING GIN
+    (immutable_unaccent(lower(title)) gin_trgm_ops);
+
+-- searchByTitle / searchByDescription (upper(x) LIKE '%y%') sorguları için
+CREATE INDEX IF NOT EXISTS idx_properties_title_upper_trgm ON properties USING GIN (upper(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_properties_description_upper_trgm ON properties USING GIN (upper(description) gin_trgm_ops);
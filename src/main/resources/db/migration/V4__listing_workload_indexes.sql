@@ -0,0 +1,81 @@
+-- Sorgu yollarına göre composite ve partial index'ler.
+-- Public sorguların hepsi approved = true AND active = true filtreler; bu index'ler sadece yayındaki
+-- ilanları içerir, onay bekleyen/pasif ilanlar index boyutuna eklenmez.
+-- Büyük tablolarda bu dosya yerine CREATE INDEX CONCURRENTLY ile elle oluşturup baseline alınabilir.
+
+-- ========== PROPERTIES: PUBLIC ==========
+
+-- Arama varsayılan sıralaması ve cursor araması: ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_properties_published_created
+    ON properties (created_at DESC, id DESC) WHERE approved = true AND active = true;
+
+-- Aramada görüntülenmeye göre sıralama
+CREATE INDEX IF NOT EXISTS idx_properties_published_views
+    ON properties (view_count DESC, id DESC) WHERE approved = true AND active = true;
+
+-- Şehir / ilçe filtresi (PropertySpecifications eşitlik karşılaştırması)
+CREATE INDEX IF NOT EXISTS idx_properties_published_location
+    ON properties (city, district, created_at DESC) WHERE approved = true AND active = true;
+
+-- İlan tipi + emlak tipi filtresi
+CREATE INDEX IF NOT EXISTS idx_properties_published_type
+    ON properties (listing_type, property_type, created_at DESC) WHERE approved = true AND active = true;
+
+-- Fiyat aralığı
+CREATE INDEX IF NOT EXISTS idx_properties_published_price
+    ON properties (price) WHERE approved = true AND active = true;
+
+-- Index rebuild keyset batch'leri: id > :lastId ORDER BY id
+CREATE INDEX IF NOT EXISTS idx_properties_published_id
+    ON properties (id) WHERE approved = true AND active = true;
+
+-- ========== PROPERTIES: ADMIN / KULLANICI ==========
+
+-- Onay bekleyenler (createdAt ASC varsayılan)
+CREATE INDEX IF NOT EXISTS idx_properties_pending
+    ON properties (created_at) WHERE approved = false;
+
+-- Şikayet edilenler (reportCount DESC varsayılan)
+CREATE INDEX IF NOT EXISTS idx_properties_reported
+    ON properties (report_count DESC) WHERE reported = true;
+
+-- Kullanıcının pasif ilanları
+CREATE INDEX IF NOT EXISTS idx_properties_user_inactive
+    ON properties (user_id, created_at DESC) WHERE active = false;
+
+-- Koleksiyonlar property_id IN (...) ile batch yüklenir; FK'ler PostgreSQL'de index oluşturmaz
+CREATE INDEX IF NOT EXISTS idx_property_images_property ON property_images (property_id);
+CREATE INDEX IF NOT EXISTS idx_property_heating_property ON property_heating (property_id);
+
+-- ========== COMMENTS ==========
+
+-- İlanın yorumları (createdAt DESC) ve ortalama puan
+CREATE INDEX IF NOT EXISTS idx_comments_property_created ON comments (property_id, created_at DESC);
+
+-- Kullanıcı bu ilana yorum yaptı mı
+CREATE INDEX IF NOT EXISTS idx_comments_user_property ON comments (user_id, property_id);
+
+-- ========== FAVORITES ==========
+
+-- Kullanıcının favorileri (createdAt DESC); (user_id, property_id) unique index'i varlık kontrolünü karşılar
+CREATE INDEX IF NOT EXISTS idx_favorites_user_created ON favorites (user_id, created_at DESC);
+
+-- İlanın favori sayısı
+CREATE INDEX IF NOT EXISTS idx_favorites_property ON favorites (property_id);
+
+-- ========== MESSAGES ==========
+
+-- Gelen/giden kutusu: sender_id = :u OR receiver_id = :u iki index'in BitmapOr'u ile
+CREATE INDEX IF NOT EXISTS idx_messages_sender_created ON messages (sender_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_messages_receiver_created ON messages (receiver_id, created_at DESC);
+
+-- İki kullanıcı arasındaki konuşma
+CREATE INDEX IF NOT EXISTS idx_messages_pair_created ON messages (sender_id, receiver_id, created_at);
+
+-- Okunmamış mesaj sayısı ve kişi bazında okunmamışlar
+CREATE INDEX IF NOT EXISTS idx_messages_unread
+    ON messages (receiver_id, sender_id) WHERE is_read = false AND deleted_by_receiver = false;
+
+-- İlan hakkındaki mesajlar
+CREATE INDEX IF NOT EXISTS idx_messages_property_created
+    ON messages (property_id, created_at DESC) WHERE property_id IS NOT NULL;
@@ -0,0 +1,26 @@
+-- Yorum puanlarının önceden hesaplanmış toplamları (ilan ve ilan sahibi bazında).
+-- CommentService artımlı günceller, RatingAggregateService gece mutabakatı yapar.
+
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS rating_sum BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS rating_count BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS rating_sum BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS rating_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE properties p
+SET rating_sum = r.rating_sum, rating_count = r.rating_count
+FROM (SELECT property_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count
+      FROM comments GROUP BY property_id) r
+WHERE p.id = r.property_id;
+
+UPDATE users u
+SET rating_sum = r.rating_sum, rating_count = r.rating_count
+FROM (SELECT p.user_id, SUM(c.rating) AS rating_sum, COUNT(*) AS rating_count
+      FROM comments c JOIN properties p ON p.id = c.property_id
+      GROUP BY p.user_id) r
+WHERE u.id = r.user_id;
+
+UPDATE listing_cards lc
+SET rating_sum = p.rating_sum, rating_count = p.rating_count
+FROM properties p
+WHERE p.id = lc.property_id;
@@ -0,0 +1,39 @@
+-- Gelen kutusu özet tablosu: her konuşma için katılımcı başına bir satır.
+-- Mesaj silme (soft delete) taraf bazında olduğu için son mesaj ve okunmamış sayısı da taraf bazında tutulur.
+-- MessageService ve ConversationService tarafından güncel tutulur.
+
+CREATE TABLE IF NOT EXISTS conversations (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id               BIGINT       NOT NULL CONSTRAINT fk_conversations_user REFERENCES users,
+    other_user_id         BIGINT       NOT NULL CONSTRAINT fk_conversations_other_user REFERENCES users,
+    last_message_id       BIGINT       NOT NULL,
+    last_message_preview  VARCHAR(255) NOT NULL,
+    last_message_at       TIMESTAMP(6) NOT NULL,
+    last_property_id      BIGINT CONSTRAINT fk_conversations_property REFERENCES properties ON DELETE SET NULL,
+    unread_count          BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT uk_conversations_pair UNIQUE (user_id, other_user_id)
+);
+
+-- Gelen kutusu: WHERE user_id = ? ORDER BY last_message_at DESC
+CREATE INDEX IF NOT EXISTS idx_conversations_inbox
+    ON conversations (user_id, last_message_at DESC, id DESC);
+
+-- Mevcut mesajlardan doldurma: her taraf için silinmemiş son mesaj
+INSERT INTO conversations (user_id, other_user_id, last_message_id, last_message_preview,
+                           last_message_at, last_property_id, unread_count)
+SELECT DISTINCT ON (s.user_id, s.other_user_id)
+       s.user_id, s.other_user_id, s.id, left(s.content, 255), s.created_at, s.property_id, 0
+FROM (SELECT sender_id AS user_id, receiver_id AS other_user_id, id, content, created_at, property_id
+      FROM messages WHERE deleted_by_sender = false
+      UNION ALL
+      SELECT receiver_id, sender_id, id, content, created_at, property_id
+      FROM messages WHERE deleted_by_receiver = false) s
+ORDER BY s.user_id, s.other_user_id, s.id DESC
+ON CONFLICT (user_id, other_user_id) DO NOTHING;
+
+UPDATE conversations c
+SET unread_count = u.unread_count
+FROM (SELECT receiver_id, sender_id, COUNT(*) AS unread_count
+      FROM messages WHERE is_read = false AND deleted_by_receiver = false
+      GROUP BY receiver_id, sender_id) u
+WHERE c.user_id = u.receiver_id AND c.other_user_id = u.sender_id;
@@ -0,0 +1,4 @@
+-- Konuşma geçmişi cursor sayfalaması: yön fark etmeksizin kullanıcı çifti + id.
+-- MessageRepository.findHistory aynı least/greatest ifadelerini kullanır.
+CREATE INDEX IF NOT EXISTS idx_messages_pair_history
+    ON messages (least(sender_id, receiver_id), greatest(sender_id, receiver_id), id DESC);
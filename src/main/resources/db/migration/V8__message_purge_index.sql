@@ -0,0 +1,4 @@
+-- İki tarafın da sildiği mesajlar MessagePurger tarafından id sırasıyla toplu silinir.
+-- Partial index sadece silinmeyi bekleyen satırları içerir.
+CREATE INDEX IF NOT EXISTS idx_messages_purgeable
+    ON messages (id) WHERE deleted_by_sender = true AND deleted_by_receiver = true;
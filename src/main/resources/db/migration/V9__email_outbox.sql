@@ -0,0 +1,19 @@
+-- Transactional email outbox: iş transaction'ı satırı yazar, EmailOutboxDispatcher gönderir.
+-- Gönderilen satırlar silinir; deneme hakkı biten satırlar DEAD olarak kalır.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    template         VARCHAR(100) NOT NULL,
+    recipient        VARCHAR(255) NOT NULL,
+    subject          VARCHAR(255) NOT NULL,
+    variables        TEXT         NOT NULL,
+    status           VARCHAR(20)  NOT NULL,
+    attempts         INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP(6) NOT NULL,
+    last_error       VARCHAR(1000),
+    created_at       TIMESTAMP(6) NOT NULL
+);
+
+-- Dispatcher sorgusu: status = 'PENDING' AND next_attempt_at <= ? ORDER BY next_attempt_at
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due
+    ON email_outbox (next_attempt_at, id) WHERE status = 'PENDING';
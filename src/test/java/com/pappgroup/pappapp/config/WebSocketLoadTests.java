@@ -0,0 +1,222 @@
+package com.pappgroup.pappapp.config;
+
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.UserRepository;
+import com.pappgroup.pappapp.security.JwtTokenProvider;
+import com.pappgroup.pappapp.service.AdminService;
+import com.pappgroup.pappapp.service.PresenceService;
+import com.pappgroup.pappapp.service.RealtimeBroker;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// STOMP kanalı: JWT ile bağlanma, kullanıcıya özel teslimat ve bağlantı sayısına göre heap kullanımı.
+// Yük testi varsayılan olarak çalışmaz:
+//   mvn test -Dtest=WebSocketLoadTests -Drealtime.loadtest.connections=2000
+// İstemci ve sunucu aynı JVM'de olduğu için ölçülen heap iki tarafın toplamıdır (üst sınır).
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Slf4j
+class WebSocketLoadTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private RealtimeBroker realtimeBroker;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private SimpUserRegistry simpUserRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    private final List<Long> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllById(createdUsers);
+        createdUsers.clear();
+    }
+
+    @Test
+    void deliversOnlyToTheAuthenticatedUser() throws Exception {
+        WebSocketStompClient client = stompClient();
+        CountDownLatch received = new CountDownLatch(1);
+        List<Object> payloads = new ArrayList<>();
+
+        Long firstUser = createUser("first");
+        StompSession first = connect(client, firstUser);
+        StompSession second = connect(client, createUser("second"));
+        subscribe(first, received, payloads);
+        subscribe(second, new CountDownLatch(1), payloads);
+        awaitCondition(() -> simpUserRegistry.findSubscriptions(s -> true).size() >= 2);
+
+        realtimeBroker.publishToUser(firstUser, RealtimeBroker.MESSAGES, Map.of("content", "merhaba"));
+
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(payloads).hasSize(1);
+        assertThat(presenceService.isOnline(firstUser)).isTrue();
+
+        first.disconnect();
+        second.disconnect();
+        awaitCondition(() -> !presenceService.isOnline(firstUser));
+    }
+
+    @Test
+    void rejectsConnectWithoutToken() {
+        WebSocketStompClient client = stompClient();
+
+        assertThatThrownBy(() -> client.connectAsync(url(), new WebSocketHttpHeaders(), new StompHeaders(),
+                new StompSessionHandlerAdapter() {
+                }).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void rejectsConnectAfterAccountIsDisabled() {
+        Long userId = createUser("disabled");
+        adminService.updateUserStatus(userId, false);
+
+        assertThatThrownBy(() -> connect(stompClient(), userId)).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "realtime.loadtest.connections", matches = "\\d+")
+    void connectionCountVersusHeap() throws Exception {
+        int total = Integer.parseInt(System.getProperty("realtime.loadtest.connections"));
+        int step = Math.max(1, total / 5);
+        WebSocketStompClient client = stompClient();
+        CountDownLatch received = new CountDownLatch(total);
+        List<StompSession> sessions = new ArrayList<>(total);
+
+        long baseline = usedHeap();
+        log.info("connections=0 heapUsedMb={}", baseline / (1024 * 1024));
+
+        List<Long> userIds = new ArrayList<>(total);
+        for (int i = 1; i <= total; i++) {
+            userIds.add(createUser("load" + i));
+        }
+
+        for (int i = 1; i <= total; i++) {
+            StompSession session = connect(client, userIds.get(i - 1));
+            subscribe(session, received, null);
+            sessions.add(session);
+            if (i % step == 0 || i == total) {
+                long used = usedHeap();
+                log.info("connections={} heapUsedMb={} bytesPerConnection={}",
+                        i, used / (1024 * 1024), (used - baseline) / i);
+            }
+        }
+
+        awaitCondition(() -> simpUserRegistry.findSubscriptions(s -> true).size() >= total);
+        assertThat(presenceService.getConnectionCount()).isGreaterThanOrEqualTo(total);
+
+        long start = System.nanoTime();
+        for (Long userId : userIds) {
+            realtimeBroker.publishToUser(userId, RealtimeBroker.MESSAGES, Map.of("content", "yük testi"));
+        }
+        assertThat(received.await(60, TimeUnit.SECONDS)).isTrue();
+        log.info("delivered {} messages in {} ms", total, (System.nanoTime() - start) / 1_000_000);
+
+        sessions.forEach(StompSession::disconnect);
+        awaitCondition(() -> presenceService.getConnectionCount() == 0);
+    }
+
+    private WebSocketStompClient stompClient() {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        return client;
+    }
+
+    private String url() {
+        return "ws://localhost:" + port + "/ws";
+    }
+
+    // STOMP CONNECT hesap durumunu da kontrol eder; token'lar gerçek kullanıcılar için üretilir
+    private Long createUser(String name) {
+        User user = new User();
+        user.setEmail(name + "@ws-test.local");
+        user.setFirstName(name);
+        user.setLastName("Ws");
+        Long id = userRepository.save(user).getId();
+        createdUsers.add(id);
+        return id;
+    }
+
+    private StompSession connect(WebSocketStompClient client, Long userId) throws Exception {
+        StompHeaders headers = new StompHeaders();
+        headers.add("Authorization", "Bearer " + tokenProvider.generateToken("ws" + userId + "@test.local", "USER", userId, 0));
+        return client.connectAsync(url(), new WebSocketHttpHeaders(), headers, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private void subscribe(StompSession session, CountDownLatch received, List<Object> payloads) {
+        session.subscribe("/user" + RealtimeBroker.MESSAGES, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                if (payloads != null) {
+                    synchronized (payloads) {
+                        payloads.add(payload);
+                    }
+                }
+                received.countDown();
+            }
+        });
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.pappgroup.pappapp.controller;
+
+import com.pappgroup.pappapp.exception.GlobalExceptionHandler;
+import com.pappgroup.pappapp.exception.PasswordHashingBusyException;
+import com.pappgroup.pappapp.service.AuthService;
+import com.pappgroup.pappapp.service.PasswordResetService;
+import com.pappgroup.pappapp.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Hash havuzu doluyken şifre hash'leyen her uç nokta 400 yerine 503 + Retry-After döner
+class PasswordHashingBusyResponseTests {
+
+    private static final PasswordHashingBusyException BUSY =
+            new PasswordHashingBusyException("Too many sign-in requests, please try again shortly");
+
+    private MockMvc mockMvc;
+    private AuthService authService;
+    private UserService userService;
+    private PasswordResetService passwordResetService;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        userService = mock(UserService.class);
+        passwordResetService = mock(PasswordResetService.class);
+        AuthController authController = new AuthController();
+        ReflectionTestUtils.setField(authController, "authService", authService);
+        ReflectionTestUtils.setField(authController, "passwordResetService", passwordResetService);
+        UserController userController = new UserController();
+        ReflectionTestUtils.setField(userController, "userService", userService);
+        mockMvc = MockMvcBuilders.standaloneSetup(authController, userController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void registerReturnsServiceUnavailable() throws Exception {
+        when(authService.register(any())).thenThrow(BUSY);
+
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ayşe\",\"lastName\":\"Yılmaz\","
+                                + "\"email\":\"ayse@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void changePasswordReturnsServiceUnavailable() throws Exception {
+        doThrow(BUSY).when(userService).changePassword(any());
+
+        mockMvc.perform(post("/api/user/change-password").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"secret123\",\"newPassword\":\"secret456\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void resetPasswordReturnsServiceUnavailable() throws Exception {
+        when(passwordResetService.resetPassword(any())).thenThrow(BUSY);
+
+        mockMvc.perform(post("/api/auth/reset-password").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\":\"reset-token\",\"newPassword\":\"secret456\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+}
@@ -0,0 +1,216 @@
+package com.pappgroup.pappapp.repository;
+
+import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// /public/search'ün veritabanı yolu: eski 21 parametreli genel JPQL ile PropertySpecifications karşılaştırması.
+// Her ölçüm sayfa + count sorgusudur (Spring Data'nın Page için yaptığı gibi). Varsayılan olarak çalışmaz:
+//   mvn test -Dtest=PropertySearchBenchmarkTests -Dsearch.benchmark.rows=1000000
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "search.benchmark.rows", matches = "\\d+")
+@Slf4j
+class PropertySearchBenchmarkTests {
+
+    private static final int WARM_UP = 20;
+    private static final int ITERATIONS = Integer.getInteger("search.benchmark.iterations", 200);
+
+    // Kaldırılan PropertyRepository.findActivePropertiesWithFilters (keyword hiçbir zaman filtrelemiyordu)
+    private static final String GENERIC_WHERE = "FROM Property p WHERE "
+            + "p.approved = true AND p.active = true AND "
+            + "(:listingType IS NULL OR p.listingType = :listingType) AND "
+            + "(:propertyType IS NULL OR p.propertyType = :propertyType) AND "
+            + "(:city IS NULL OR p.city = :city) AND "
+            + "(:district IS NULL OR p.district = :district) AND "
+            + "(:neighborhood IS NULL OR p.neighborhood = :neighborhood) AND "
+            + "(:minPrice IS NULL OR p.price >= :minPrice) AND "
+            + "(:maxPrice IS NULL OR p.price <= :maxPrice) AND "
+            + "(:minArea IS NULL OR p.grossArea >= :minArea) AND "
+            + "(:maxArea IS NULL OR p.grossArea <= :maxArea) AND "
+            + "(:furnished IS NULL OR p.furnished = :furnished) AND "
+            + "(:elevator IS NULL OR p.elevator = :elevator) AND "
+            + "(:parking IS NULL OR p.parking = :parking) AND "
+            + "(:balcony IS NULL OR p.balcony = :balcony) AND "
+            + "(:security IS NULL OR p.security = :security) AND "
+            + "(:negotiable IS NULL OR p.negotiable = :negotiable) AND "
+            + "(:featured IS NULL OR p.featured = :featured) AND "
+            + "(:pappSellable IS NULL OR p.pappSellable = :pappSellable) AND "
+            + "(:minRoomCount IS NULL OR (p.roomCount IS NOT NULL AND p.roomCount >= :minRoomCount)) AND "
+            + "(:maxRoomCount IS NULL OR (p.roomCount IS NOT NULL AND p.roomCount <= :maxRoomCount)) AND "
+            + "(:hallCount IS NULL OR (p.hallCount IS NOT NULL AND p.hallCount = :hallCount))";
+
+    private static final PageRequest PAGE = PageRequest.of(0, 20,
+            Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        int rows = Integer.parseInt(System.getProperty("search.benchmark.rows"));
+        User owner = new User();
+        owner.setEmail("search-bench@example.com");
+        owner.setFirstName("Search");
+        owner.setLastName("Bench");
+        owner = userRepository.saveAndFlush(owner);
+
+        long start = System.nanoTime();
+        // 81 şehir x 30 ilçe; ~%86 yayında, fiyat 100 bin - 10 milyon
+        jdbcTemplate.update("INSERT INTO properties (title, listing_type, property_type, city, district, neighborhood, "
+                        + "price, negotiable, gross_area, elevator, parking, balcony, security, featured, papp_sellable, "
+                        + "furnished, room_count, hall_count, active, approved, reported, report_count, view_count, "
+                        + "user_id, created_at, updated_at) "
+                        + "SELECT 'İlan ' || g, CASE WHEN g % 2 = 0 THEN 'SALE' ELSE 'RENT' END, "
+                        + "(ARRAY['RESIDENTIAL','COMMERCIAL','LAND','DAILY_RENTAL'])[1 + g % 4], "
+                        + "'Şehir ' || (g % 81), 'İlçe ' || (g % 30), 'Mahalle ' || (g % 200), "
+                        + "100000 + (g::bigint * 7919) % 9900000, g % 3 = 0, 40 + g % 260, g % 2 = 0, g % 3 = 0, g % 5 <> 0, "
+                        + "g % 7 = 0, g % 50 = 0, g % 11 = 0, g % 4 = 0, 1 + g % 6, 1 + g % 2, "
+                        + "g % 20 <> 0, g % 10 <> 0, false, 0, g % 1000, ?, "
+                        + "now() - g * interval '1 minute', now() FROM generate_series(1, ?) g",
+                owner.getId(), rows);
+        jdbcTemplate.execute("ANALYZE properties");
+        log.info("seeded {} listings in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void genericVersusDynamicQuery() {
+        Map<String, Consumer<PropertySearchRequest>> scenarios = new LinkedHashMap<>();
+        scenarios.put("no filter", request -> {
+        });
+        scenarios.put("city + district", request -> {
+            request.setCity("Şehir 6");
+            request.setDistrict("İlçe 6");
+        });
+        scenarios.put("listing + property type", request -> {
+            request.setListingType(ListingType.RENT);
+            request.setPropertyType(PropertyType.COMMERCIAL);
+        });
+        scenarios.put("price range", request -> {
+            request.setMinPrice(BigDecimal.valueOf(1_000_000));
+            request.setMaxPrice(BigDecimal.valueOf(1_050_000));
+        });
+        scenarios.put("city + rooms + furnished", request -> {
+            request.setCity("Şehir 13");
+            request.setMinRoomCount(3);
+            request.setFurnished(true);
+        });
+
+        for (Map.Entry<String, Consumer<PropertySearchRequest>> scenario : scenarios.entrySet()) {
+            PropertySearchRequest request = new PropertySearchRequest();
+            scenario.getValue().accept(request);
+
+            long genericTotal = generic(request).getTotalElements();
+            long dynamicTotal = dynamic(request).getTotalElements();
+            assertThat(dynamicTotal).isEqualTo(genericTotal);
+
+            long[] genericNanos = measure(() -> generic(request));
+            long[] dynamicNanos = measure(() -> dynamic(request));
+            log.info("{} ({} matches): generic p50={} ms p99={} ms, dynamic p50={} ms p99={} ms",
+                    scenario.getKey(), dynamicTotal,
+                    millis(percentile(genericNanos, 50)), millis(percentile(genericNanos, 99)),
+                    millis(percentile(dynamicNanos, 50)), millis(percentile(dynamicNanos, 99)));
+        }
+    }
+
+    private Page<Property> dynamic(PropertySearchRequest request) {
+        return propertyRepository.findAll(PropertySpecifications.activeWithFilters(request), PAGE);
+    }
+
+    private Page<Property> generic(PropertySearchRequest request) {
+        TypedQuery<Property> page = entityManager.createQuery(
+                "SELECT p " + GENERIC_WHERE + " ORDER BY p.createdAt DESC, p.id DESC", Property.class);
+        bind(page, request);
+        page.setFirstResult((int) PAGE.getOffset());
+        page.setMaxResults(PAGE.getPageSize());
+        List<Property> content = page.getResultList();
+
+        Query count = entityManager.createQuery("SELECT count(p) " + GENERIC_WHERE);
+        bind(count, request);
+        return new PageImpl<>(content, PAGE, (Long) count.getSingleResult());
+    }
+
+    private static void bind(Query query, PropertySearchRequest request) {
+        query.setParameter("listingType", request.getListingType());
+        query.setParameter("propertyType", request.getPropertyType());
+        query.setParameter("city", request.getCity());
+        query.setParameter("district", request.getDistrict());
+        query.setParameter("neighborhood", request.getNeighborhood());
+        query.setParameter("minPrice", request.getMinPrice());
+        query.setParameter("maxPrice", request.getMaxPrice());
+        query.setParameter("minArea", request.getMinArea());
+        query.setParameter("maxArea", request.getMaxArea());
+        query.setParameter("furnished", request.getFurnished());
+        query.setParameter("elevator", request.getElevator());
+        query.setParameter("parking", request.getParking());
+        query.setParameter("balcony", request.getBalcony());
+        query.setParameter("security", request.getSecurity());
+        query.setParameter("negotiable", request.getNegotiable());
+        query.setParameter("featured", request.getFeatured());
+        query.setParameter("pappSellable", request.getPappSellable());
+        query.setParameter("minRoomCount", request.getMinRoomCount());
+        query.setParameter("maxRoomCount", request.getMaxRoomCount());
+        query.setParameter("hallCount", request.getHallCount());
+    }
+
+    private long[] measure(Supplier<Page<Property>> search) {
+        for (int i = 0; i < WARM_UP; i++) {
+            search.get();
+            entityManager.clear();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - start;
+            entityManager.clear();
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.pappgroup.pappapp.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sık çalışan sorgular Flyway index'lerini kullanmalı.
+// enable_seqscan = off iken planner kullanılabilir bir index varsa onu seçer;
+// planda hâlâ Seq Scan varsa sorguya uyan index yok demektir.
+@SpringBootTest
+@Transactional
+class QueryPlanRegressionTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void disableSequentialScans() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // listing_cards feed'leri
+            "SELECT * FROM listing_cards ORDER BY created_at DESC, property_id DESC LIMIT 20",
+            "SELECT * FROM listing_cards WHERE created_at < now() OR (created_at = now() AND property_id < 100) "
+                    + "ORDER BY created_at DESC, property_id DESC LIMIT 21",
+            "SELECT * FROM listing_cards ORDER BY view_count DESC, property_id DESC LIMIT 20",
+            "SELECT * FROM listing_cards WHERE listing_type = 'SALE' ORDER BY created_at DESC LIMIT 20",
+            "SELECT * FROM listing_cards WHERE city_key = 'ankara' AND district_key = 'çankaya' "
+                    + "ORDER BY created_at DESC LIMIT 20",
+            "SELECT * FROM listing_cards WHERE owner_id = 1 ORDER BY created_at DESC LIMIT 20",
+
+            // Arama (PropertySpecifications)
+            "SELECT * FROM properties WHERE approved = true AND active = true "
+                    + "ORDER BY created_at DESC, id DESC LIMIT 21",
+            "SELECT * FROM properties WHERE approved = true AND active = true AND city = 'Ankara' "
+                    + "AND district = 'Çankaya' ORDER BY created_at DESC LIMIT 20",
+            "SELECT * FROM properties WHERE approved = true AND active = true AND listing_type = 'RENT' "
+                    + "AND property_type = 'RESIDENTIAL' ORDER BY created_at DESC LIMIT 20",
+            "SELECT * FROM properties WHERE approved = true AND active = true "
+                    + "AND price BETWEEN 1000000 AND 2000000 LIMIT 20",
+            "SELECT * FROM properties WHERE approved = true AND active = true "
+                    + "AND latitude BETWEEN 39.8 AND 40.0 AND longitude BETWEEN 32.7 AND 32.9",
+            "SELECT * FROM properties WHERE approved = true AND active = true AND "
+                    + "to_tsvector('turkish_unaccent', coalesce(title, '') || ' ' || coalesce(description, '')) "
+                    + "@@ websearch_to_tsquery('turkish_unaccent', 'deniz manzaralı')",
+            "SELECT * FROM properties WHERE approved = true AND active = true AND id > 1000 ORDER BY id LIMIT 1000",
+            // Bellek içi index'in değişiklik akışı
+            "SELECT * FROM properties WHERE updated_at BETWEEN now() - interval '1 minute' AND now() "
+                    + "ORDER BY updated_at, id LIMIT 1001",
+
+            // Admin ve kullanıcı listeleri
+            "SELECT * FROM properties WHERE approved = false ORDER BY created_at LIMIT 20",
+            "SELECT * FROM properties WHERE reported = true ORDER BY report_count DESC LIMIT 20",
+            "SELECT * FROM properties WHERE user_id = 1 ORDER BY created_at DESC LIMIT 20",
+            "SELECT * FROM property_images WHERE property_id IN (1, 2, 3)",
+
+            // Yorumlar, favoriler, mesajlar
+            "SELECT * FROM comments WHERE property_id = 1 ORDER BY created_at DESC LIMIT 20",
+            "SELECT 1 FROM comments WHERE user_id = 1 AND property_id = 2",
+            "SELECT * FROM favorites WHERE user_id = 1 ORDER BY created_at DESC LIMIT 20",
+            "SELECT count(*) FROM favorites WHERE property_id = 1",
+            "SELECT * FROM messages WHERE sender_id = 1 OR receiver_id = 1 ORDER BY created_at DESC LIMIT 20",
+            "SELECT * FROM messages WHERE (sender_id = 1 AND receiver_id = 2) OR (sender_id = 2 AND receiver_id = 1) "
+                    + "ORDER BY created_at",
+            "SELECT count(*) FROM messages WHERE receiver_id = 1 AND is_read = false AND deleted_by_receiver = false",
+            "SELECT * FROM messages WHERE property_id = 1 ORDER BY created_at DESC",
+            "SELECT * FROM messages WHERE least(sender_id, receiver_id) = 1 AND greatest(sender_id, receiver_id) = 2 "
+                    + "AND id < 1000 ORDER BY id DESC LIMIT 31",
+            "SELECT id FROM messages WHERE deleted_by_sender = true AND deleted_by_receiver = true ORDER BY id LIMIT 5000",
+            "SELECT id FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= now() "
+                    + "ORDER BY next_attempt_at, id LIMIT 20",
+            "SELECT * FROM conversations WHERE user_id = 1 ORDER BY last_message_at DESC, id DESC",
+
+            // Refresh token aileleri
+            "SELECT id FROM refresh_token_families WHERE expires_at < now() ORDER BY expires_at LIMIT 5000",
+            "SELECT id FROM refresh_token_families WHERE revoked_at IS NOT NULL AND expires_at > now()",
+            "SELECT id FROM refresh_token_families WHERE user_id = 1"
+    })
+    void hotQueryUsesAnIndex(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+
+        assertThat(String.join("\n", plan))
+                .as("plan for: %s", sql)
+                .doesNotContain("Seq Scan");
+    }
+}
@@ -0,0 +1,174 @@
+package com.pappgroup.pappapp.security;
+
+import com.pappgroup.pappapp.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sınırlı havuzda hash'leme, DelegatingPasswordEncoder ile eski hash'lerin yükseltilmesi ve aşırı yükte reddetme.
+// Maliyet parametresine göre giriş (matches) kapasitesi ölçümü varsayılan olarak çalışmaz:
+//   mvn test -Dtest=BoundedPasswordEncoderTests -Dpassword.benchmark.logins=200
+@Slf4j
+class BoundedPasswordEncoderTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<BoundedPasswordEncoder> encoders = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        encoders.forEach(BoundedPasswordEncoder::shutdown);
+    }
+
+    @Test
+    void legacyBcryptHashIsAcceptedAndUpgradedToArgon2() {
+        PasswordEncoder encoder = bounded(delegating(new Argon2PasswordEncoder(16, 32, 1, 4096, 2)), 2, 8);
+        String legacy = new BCryptPasswordEncoder(4).encode("gizli-sifre");
+
+        assertThat(encoder.matches("gizli-sifre", legacy)).isTrue();
+        assertThat(encoder.matches("yanlis", legacy)).isFalse();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+
+        String upgraded = encoder.encode("gizli-sifre");
+        assertThat(upgraded).startsWith("{argon2}");
+        assertThat(encoder.matches("gizli-sifre", upgraded)).isTrue();
+        assertThat(encoder.upgradeEncoding(upgraded)).isFalse();
+    }
+
+    @Test
+    void outdatedArgon2ParametersAreFlaggedForUpgrade() {
+        String weak = delegating(new Argon2PasswordEncoder(16, 32, 1, 4096, 1)).encode("gizli-sifre");
+        PasswordEncoder encoder = bounded(delegating(new Argon2PasswordEncoder(16, 32, 1, 4096, 2)), 1, 8);
+
+        assertThat(encoder.matches("gizli-sifre", weak)).isTrue();
+        assertThat(encoder.upgradeEncoding(weak)).isTrue();
+    }
+
+    @Test
+    void saturatedPoolRejectsInsteadOfQueueingForever() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        PasswordEncoder encoder = bounded(blocking, 1, 1);
+
+        // Bir görev çalışıyor, bir görev kuyrukta: üçüncüsü reddedilir
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("password.hashing.queue.size").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(meterRegistry.get("password.hashing.queue").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "password.benchmark.logins", matches = "\\d+")
+    void loginThroughputByCostFactor() throws Exception {
+        int logins = Integer.parseInt(System.getProperty("password.benchmark.logins"));
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = Math.max(1, cores / 2);
+        int clients = cores * 4;
+
+        Map<String, PasswordEncoder> candidates = new LinkedHashMap<>();
+        candidates.put("bcrypt-10", new BCryptPasswordEncoder(10));
+        candidates.put("bcrypt-11", new BCryptPasswordEncoder(11));
+        candidates.put("bcrypt-12", new BCryptPasswordEncoder(12));
+        candidates.put("argon2-16MB-t2", new Argon2PasswordEncoder(16, 32, 1, 16384, 2));
+        candidates.put("argon2-32MB-t3", new Argon2PasswordEncoder(16, 32, 1, 32768, 3));
+        candidates.put("argon2-64MB-t3", new Argon2PasswordEncoder(16, 32, 1, 65536, 3));
+
+        log.info("{} cores, {} hashing threads, {} concurrent clients", cores, threads, clients);
+        for (Map.Entry<String, PasswordEncoder> candidate : candidates.entrySet()) {
+            String hash = candidate.getValue().encode("gizli-sifre");
+            MeterRegistry registry = new SimpleMeterRegistry();
+            BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(candidate.getValue(), threads,
+                    clients, 60_000, registry);
+            encoders.add(encoder);
+            encoder.matches("gizli-sifre", hash);
+
+            ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+            long start = System.nanoTime();
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> encoder.matches("gizli-sifre", hash), clientPool));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            clientPool.shutdown();
+
+            Timer hashing = registry.get("password.hashing.duration").tag("operation", "matches").timer();
+            Timer queue = registry.get("password.hashing.queue").timer();
+            double queueP99 = 0;
+            for (ValueAtPercentile percentile : queue.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == 0.99) {
+                    queueP99 = percentile.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            log.info("{}: {} ms/hash, {} logins/s ({} per hashing thread), queue p99 {} ms",
+                    candidate.getKey(),
+                    String.format("%.1f", hashing.mean(TimeUnit.MILLISECONDS)),
+                    String.format("%.0f", logins / seconds),
+                    String.format("%.1f", logins / seconds / threads),
+                    String.format("%.0f", queueP99));
+            assertThat(results).allMatch(CompletableFuture::join);
+        }
+    }
+
+    private static PasswordEncoder delegating(Argon2PasswordEncoder argon2) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("argon2",
+                Map.of("argon2", argon2, "bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    private BoundedPasswordEncoder bounded(PasswordEncoder delegate, int threads, int queueCapacity) {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, threads, queueCapacity, 5_000, meterRegistry);
+        encoders.add(encoder);
+        return encoder;
+    }
+}
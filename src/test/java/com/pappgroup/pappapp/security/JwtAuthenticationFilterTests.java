@@ -0,0 +1,129 @@
+package com.pappgroup.pappapp.security;
+
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.UserRepository;
+import com.pappgroup.pappapp.service.AdminService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Principal token claim'lerinden kurulur; hesap durumu UserStatusCache'ten gelir, User satırı yüklenmez
+@SpringBootTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JwtAuthenticationFilterTests {
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("jwt-filter@example.com");
+        user.setFirstName("Jwt");
+        user.setLastName("Filter");
+        user = userRepository.saveAndFlush(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+        String token = accessToken(user.getTokenEpoch());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            Authentication authentication = authenticate(token);
+            assertThat(authentication).isNotNull();
+            UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+            assertThat(principal.getId()).isEqualTo(user.getId());
+            assertThat(principal.getUsername()).isEqualTo(user.getEmail());
+            assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        }
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void disablingTheAccountRevokesIssuedTokens() throws Exception {
+        String token = accessToken(user.getTokenEpoch());
+        assertThat(authenticate(token)).isNotNull();
+
+        adminService.updateUserStatus(user.getId(), false);
+        assertThat(authenticate(token)).isNull();
+
+        // Hesap tekrar açılınca eski token geçersiz kalır, yeni epoch ile üretilen token çalışır
+        adminService.updateUserStatus(user.getId(), true);
+        assertThat(authenticate(token)).isNull();
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(authenticate(accessToken(reloaded.getTokenEpoch()))).isNotNull();
+    }
+
+    @Test
+    void staleWholeRowSaveDoesNotUndoDisable() throws Exception {
+        String token = accessToken(user.getTokenEpoch());
+        // Profil güncellemesi gibi, devre dışı bırakmadan önce okunmuş satır sonradan kaydedilir
+        User stale = userRepository.findById(user.getId()).orElseThrow();
+
+        adminService.updateUserStatus(user.getId(), false);
+        stale.setBio("eski kopyadan kaydedildi");
+        userRepository.saveAndFlush(stale);
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(reloaded.isEnabled()).isFalse();
+        assertThat(reloaded.getTokenEpoch()).isEqualTo(user.getTokenEpoch() + 1);
+        assertThat(authenticate(token)).isNull();
+    }
+
+    @Test
+    void refreshTokenIsNotAcceptedAsAccessToken() throws Exception {
+        assertThat(authenticate(tokenProvider.generateRefreshToken(user.getEmail(),
+                UUID.randomUUID(), UUID.randomUUID(), tokenProvider.getRefreshExpiry()))).isNull();
+    }
+
+    private String accessToken(int epoch) {
+        return tokenProvider.generateToken(user.getEmail(), user.getRole().name(), user.getId(), epoch);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,126 @@
+package com.pappgroup.pappapp.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Token tek seferde doğrulanıp TokenClaims'e çözülür.
+// Tek çekirdekte saniyede doğrulanan token ölçümü varsayılan olarak çalışmaz:
+//   mvn test -Dtest=JwtTokenProviderTests -Djwt.benchmark.iterations=200000
+@Slf4j
+class JwtTokenProviderTests {
+
+    private static final String SECRET = "testSecretKey12345678901234567890123456789012";
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = provider(60_000L);
+    }
+
+    @Test
+    void accessTokenIsParsedIntoClaims() {
+        String token = tokenProvider.generateToken("ayse@example.com", "ADMIN", 42L, 3);
+
+        TokenClaims claims = tokenProvider.parseToken(token);
+
+        assertThat(claims.email()).isEqualTo("ayse@example.com");
+        assertThat(claims.userId()).isEqualTo(42L);
+        assertThat(claims.role()).isEqualTo("ADMIN");
+        assertThat(claims.epoch()).isEqualTo(3);
+        assertThat(claims.expiresAt()).isAfter(claims.issuedAt());
+        assertThat(claims.isAccessToken()).isTrue();
+    }
+
+    @Test
+    void refreshTokenHasNoAccessClaims() {
+        UUID familyId = UUID.randomUUID();
+        UUID tokenId = UUID.randomUUID();
+        TokenClaims claims = tokenProvider.parseToken(tokenProvider.generateRefreshToken("ayse@example.com",
+                familyId, tokenId, tokenProvider.getRefreshExpiry()));
+
+        assertThat(claims.email()).isEqualTo("ayse@example.com");
+        assertThat(claims.familyId()).isEqualTo(familyId);
+        assertThat(claims.tokenId()).isEqualTo(tokenId);
+        assertThat(claims.isAccessToken()).isFalse();
+    }
+
+    @Test
+    void tamperedAndExpiredTokensAreRejected() {
+        String token = tokenProvider.generateToken("ayse@example.com", "USER", 42L, 0);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> tokenProvider.parseToken(tampered)).isInstanceOf(JwtException.class);
+        assertThat(tokenProvider.validateToken(tampered)).isFalse();
+
+        String expired = provider(-1_000L).generateToken("ayse@example.com", "USER", 42L, 0);
+        assertThatThrownBy(() -> tokenProvider.parseToken(expired)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(tokenProvider.isTokenExpired(expired)).isTrue();
+    }
+
+    // Eski yol: her getter için anahtar + parser kurulup token yeniden doğrulanıyordu
+    // (filtrede validate + email, STOMP'ta validate + userId + role)
+    @Test
+    @EnabledIfSystemProperty(named = "jwt.benchmark.iterations", matches = "\\d+")
+    void tokensVerifiedPerSecondPerCore() {
+        int iterations = Integer.parseInt(System.getProperty("jwt.benchmark.iterations"));
+        String token = tokenProvider.generateToken("bench@example.com", "USER", 7L, 0);
+
+        for (int i = 0; i < Math.min(iterations, 20_000); i++) {
+            rebuildAndParse(token);
+            tokenProvider.parseToken(token);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rebuildAndParse(token);
+        }
+        long perCallNanos = (System.nanoTime() - start) / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            tokenProvider.parseToken(token);
+        }
+        long reusedNanos = (System.nanoTime() - start) / iterations;
+
+        log.info("single verification, parser rebuilt per call: {} ns ({} tokens/s/core)",
+                perCallNanos, 1_000_000_000L / perCallNanos);
+        log.info("single verification, shared parser: {} ns ({} tokens/s/core)",
+                reusedNanos, 1_000_000_000L / reusedNanos);
+        log.info("per request (old filter: 2 verifications, STOMP: 3) vs 1: {}x / {}x",
+                String.format("%.1f", 2.0 * perCallNanos / reusedNanos),
+                String.format("%.1f", 3.0 * perCallNanos / reusedNanos));
+        assertThat(reusedNanos).isLessThanOrEqualTo(perCallNanos);
+    }
+
+    private static Claims rebuildAndParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtTokenProvider provider(long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", expirationMs);
+        ReflectionTestUtils.setField(provider, "refreshExpiration", 120_000L);
+        provider.init();
+        return provider;
+    }
+}
@@ -0,0 +1,175 @@
+package com.pappgroup.pappapp.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Tekrar gelen token imza doğrulaması yapılmadan çözülür; kayıt exp anında düşer, çıkışta reddedilir.
+// Kayıt başına bellek ve tekrar gelen token maliyeti ölçümü varsayılan olarak çalışmaz:
+//   mvn test -Dtest=VerifiedTokenCacheTests -Djwt.cache.benchmark.tokens=100000
+@Slf4j
+class VerifiedTokenCacheTests {
+
+    private static final String SECRET = "testSecretKey12345678901234567890123456789012";
+
+    private MeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = cache(provider(60_000L), 1000);
+    }
+
+    @Test
+    void repeatedTokenIsServedFromCache() {
+        String token = provider(60_000L).generateToken("ayse@example.com", "USER", 42L, 1);
+
+        TokenClaims first = cache.parse(token);
+        TokenClaims second = cache.parse(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.userId()).isEqualTo(42L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("jwt.verified.cache.estimated.bytes").gauge().value())
+                .isEqualTo(VerifiedTokenCache.ESTIMATED_ENTRY_BYTES);
+    }
+
+    @Test
+    void entryExpiresWithTheToken() throws Exception {
+        String token = provider(1_500L).generateToken("ayse@example.com", "USER", 42L, 0);
+        assertThat(cache.parse(token).userId()).isEqualTo(42L);
+
+        Thread.sleep(2_100);
+
+        assertThatThrownBy(() -> cache.parse(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        String token = provider(60_000L).generateToken("ayse@example.com", "USER", 42L, 0);
+        cache.parse(token);
+
+        cache.revoke(token);
+
+        assertThatThrownBy(() -> cache.parse(token)).isInstanceOf(JwtException.class);
+        // Geçersiz token'la çıkış hata vermez
+        cache.revoke("not-a-token");
+    }
+
+    @Test
+    void revokedTokensOutnumberingTheCacheStayRejected() {
+        JwtTokenProvider provider = provider(60_000L);
+        VerifiedTokenCache small = cache(provider, 2);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String token = provider.generateToken("user" + i + "@example.com", "USER", (long) i, 0);
+            small.revoke(token);
+            tokens.add(token);
+        }
+
+        for (String token : tokens) {
+            assertThatThrownBy(() -> small.parse(token)).isInstanceOf(JwtException.class);
+        }
+    }
+
+    @Test
+    void familyTokenLogoutLeavesRevocationToTheFamily() {
+        String token = provider(60_000L).generateToken("ayse@example.com", "USER", 42L, 0, UUID.randomUUID());
+        cache.parse(token);
+
+        assertThat(cache.revoke(token).familyId()).isNotNull();
+
+        // Çıkış/giriş döngüsü iptal listesini büyütmez; token'ı filtredeki aile kontrolü reddeder
+        assertThat(meterRegistry.get("jwt.revoked.size").gauge().value()).isZero();
+        assertThat(meterRegistry.get("cache.size").tag("cache", "jwt.verified").gauge().value()).isZero();
+    }
+
+    @Test
+    void refreshTokensAreNotCached() {
+        String refreshToken = provider(60_000L).generateRefreshToken("ayse@example.com",
+                UUID.randomUUID(), UUID.randomUUID(), Instant.now().plusSeconds(60));
+
+        cache.parse(refreshToken);
+        cache.parse(refreshToken);
+
+        assertThat(meterRegistry.get("cache.size").tag("cache", "jwt.verified").gauge().value()).isZero();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "jwt.cache.benchmark.tokens", matches = "\\d+")
+    void footprintAndRepeatTokenCost() {
+        int tokens = Integer.parseInt(System.getProperty("jwt.cache.benchmark.tokens"));
+        JwtTokenProvider provider = provider(3_600_000L);
+        VerifiedTokenCache large = cache(provider, tokens);
+        List<String> issued = new ArrayList<>(tokens);
+        for (int i = 0; i < tokens; i++) {
+            issued.add(provider.generateToken("user" + i + "@example.com", "USER", (long) i, 0));
+        }
+
+        // Isınma: ayrı bir cache'te aynı yollar
+        VerifiedTokenCache warmUp = cache(provider, tokens);
+        for (int round = 0; round < 2; round++) {
+            for (String token : issued) {
+                warmUp.parse(token);
+            }
+        }
+        warmUp = null;
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        for (String token : issued) {
+            large.parse(token);
+        }
+        long missNanos = (System.nanoTime() - start) / tokens;
+        long after = usedHeap();
+
+        start = System.nanoTime();
+        for (String token : issued) {
+            large.parse(token);
+        }
+        long hitNanos = (System.nanoTime() - start) / tokens;
+
+        log.info("{} cached tokens: ~{} bytes/entry (estimate used for the gauge: {})",
+                tokens, (after - before) / tokens, VerifiedTokenCache.ESTIMATED_ENTRY_BYTES);
+        log.info("miss (verify + insert): {} ns, hit: {} ns ({}x)",
+                missNanos, hitNanos, String.format("%.1f", (double) missNanos / hitNanos));
+        assertThat(hitNanos).isLessThan(missNanos);
+    }
+
+    private VerifiedTokenCache cache(JwtTokenProvider provider, long maximumSize) {
+        return new VerifiedTokenCache(provider, meterRegistry, maximumSize);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static JwtTokenProvider provider(long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", expirationMs);
+        ReflectionTestUtils.setField(provider, "refreshExpiration", 120_000L);
+        provider.init();
+        return provider;
+    }
+}
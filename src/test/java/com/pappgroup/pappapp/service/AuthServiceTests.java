@@ -0,0 +1,64 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.request.LoginRequest;
+import com.pappgroup.pappapp.dto.response.AuthResponse;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Öneksiz eski BCrypt hash'i girişte Argon2'ye yükseltilir
+@SpringBootTest
+class AuthServiceTests {
+
+    private static final String PASSWORD = "gizli-sifre-123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("auth-login@example.com");
+        user.setFirstName("Auth");
+        user.setLastName("Login");
+        user.setIsVerified(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        user = userRepository.saveAndFlush(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void loginRehashesLegacyPasswordHash() {
+        AuthResponse first = authService.login(loginRequest());
+
+        String rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertThat(first.getToken()).isNotNull();
+        assertThat(rehashed).startsWith("{argon2}");
+
+        authService.login(loginRequest());
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPassword()).isEqualTo(rehashed);
+    }
+
+    private LoginRequest loginRequest() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(user.getEmail());
+        request.setPassword(PASSWORD);
+        return request;
+    }
+}
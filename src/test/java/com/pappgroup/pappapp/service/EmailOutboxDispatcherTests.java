@@ -0,0 +1,127 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.config.FakeJavaMailSender;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Outbox akışı SMTP olmadan: kuyruğa yazma, tek bağlantıda batch gönderim, geri çekilme ve dead letter
+@SpringBootTest
+@TestPropertySource(properties = {
+        "app.mail.transport=fake",
+        "app.email.outbox.enabled=false",
+        "app.email.outbox.max-attempts=2"
+})
+class EmailOutboxDispatcherTests {
+
+    private static final String RECIPIENT_DOMAIN = "@outbox-test.local";
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private FakeJavaMailSender mailSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mailSender.reset();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient LIKE ?", "%" + RECIPIENT_DOMAIN);
+    }
+
+    @Test
+    void queuedEmailIsRenderedSentAndRemoved() throws Exception {
+        emailService.sendWelcomeEmail("ayse" + RECIPIENT_DOMAIN, "Ayşe");
+        assertThat(outboxRows()).isEqualTo(1);
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+
+        assertThat(mailSender.getSentMessages()).hasSize(1);
+        MimeMessage message = mailSender.getSentMessages().get(0);
+        assertThat(message.getSubject()).startsWith("Hoş Geldiniz");
+        assertThat(message.getAllRecipients()[0].toString()).isEqualTo("ayse" + RECIPIENT_DOMAIN);
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void batchIsSentOverOneConnection() {
+        for (int i = 0; i < 5; i++) {
+            emailService.sendVerificationEmail("user" + i + RECIPIENT_DOMAIN, "User", "12345" + i);
+        }
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(5);
+
+        assertThat(mailSender.getSentMessages()).hasSize(5);
+        assertThat(mailSender.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedEmailBacksOffAndMovesToDeadLetter() {
+        emailService.sendPasswordResetEmail("reset" + RECIPIENT_DOMAIN, "Reset", "token");
+
+        mailSender.failNext(1);
+        dispatcher.dispatchPending();
+
+        Map<String, Object> row = outboxRow();
+        assertThat(row.get("status")).isEqualTo("PENDING");
+        assertThat(row.get("attempts")).isEqualTo(1);
+        assertThat(((Timestamp) row.get("next_attempt_at")).toLocalDateTime()).isAfter(LocalDateTime.now());
+        assertThat(dispatcher.dispatchPending()).isZero();
+
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ? WHERE recipient = ?",
+                LocalDateTime.now().minusMinutes(1), "reset" + RECIPIENT_DOMAIN);
+        mailSender.failNext(1);
+        dispatcher.dispatchPending();
+
+        row = outboxRow();
+        assertThat(row.get("status")).isEqualTo("DEAD");
+        assertThat(row.get("attempts")).isEqualTo(2);
+        assertThat(row.get("last_error")).isEqualTo("Injected send failure");
+        assertThat(row.get("variables")).isEqualTo("{}");
+        assertThat(mailSender.getSentMessages()).isEmpty();
+    }
+
+    @Test
+    void deadEmailsArePurgedAfterRetention() {
+        emailService.sendPasswordResetEmail("old" + RECIPIENT_DOMAIN, "Old", "token");
+        emailService.sendPasswordResetEmail("recent" + RECIPIENT_DOMAIN, "Recent", "token");
+        jdbcTemplate.update("UPDATE email_outbox SET status = 'DEAD' WHERE recipient LIKE ?", "%" + RECIPIENT_DOMAIN);
+        jdbcTemplate.update("UPDATE email_outbox SET created_at = ? WHERE recipient = ?",
+                LocalDateTime.now().minusDays(30), "old" + RECIPIENT_DOMAIN);
+
+        assertThat(dispatcher.purgeDead()).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList("SELECT recipient FROM email_outbox WHERE recipient LIKE ?",
+                String.class, "%" + RECIPIENT_DOMAIN)).containsExactly("recent" + RECIPIENT_DOMAIN);
+    }
+
+    private long outboxRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE recipient LIKE ?",
+                Long.class, "%" + RECIPIENT_DOMAIN);
+    }
+
+    private Map<String, Object> outboxRow() {
+        return jdbcTemplate.queryForMap("SELECT status, attempts, next_attempt_at, last_error, variables FROM email_outbox "
+                + "WHERE recipient LIKE ?", "%" + RECIPIENT_DOMAIN);
+    }
+}
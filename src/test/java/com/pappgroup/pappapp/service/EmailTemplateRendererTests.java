@@ -0,0 +1,120 @@
+package com.pappgroup.pappapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Segment cache'li render, Thymeleaf'in doğrudan çıktısıyla birebir aynı olmalı.
+// Karşılaştırmalı ölçüm varsayılan olarak çalışmaz:
+//   mvn test -Dtest=EmailTemplateRendererTests -Demail.benchmark.iterations=20000
+@Slf4j
+class EmailTemplateRendererTests {
+
+    private static final Locale LOCALE = Locale.forLanguageTag("tr-TR");
+    private static final String APP_NAME = "İlan <Platformu> & \"Co\"";
+
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        renderer = new EmailTemplateRenderer(templateEngine);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"email-verification", "welcome-email", "password-reset", "password-change-confirmation"})
+    void cachedRenderMatchesThymeleaf(String template) {
+        for (Map<String, String> variables : List.of(variables("Ayşe Çelik", "482913"),
+                variables("<script>alert('x')</script> & \"quoted\"", "000000"),
+                variables("__EMAILVAR_userName__", "123456"))) {
+            assertThat(renderer.render(template, LOCALE, APP_NAME, variables))
+                    .isEqualTo(thymeleaf(template, variables));
+        }
+    }
+
+    @Test
+    void batchRenderMatchesSingleRender() {
+        List<Map<String, String>> batch = List.of(variables("Ali", "111111"), variables("Veli", "222222"));
+
+        List<String> rendered = renderer.renderBatch("email-verification", LOCALE, APP_NAME, batch);
+
+        assertThat(rendered).containsExactly(
+                thymeleaf("email-verification", batch.get(0)),
+                thymeleaf("email-verification", batch.get(1)));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "email.benchmark.iterations", matches = "\\d+")
+    void perMessageRenderCost() {
+        int iterations = Integer.parseInt(System.getProperty("email.benchmark.iterations"));
+        List<Map<String, String>> inputs = new ArrayList<>(iterations);
+        for (int i = 0; i < iterations; i++) {
+            inputs.add(variables("Kullanıcı " + i, String.format("%06d", i)));
+        }
+
+        for (String template : List.of("email-verification", "password-reset")) {
+            // Isınma
+            for (int i = 0; i < Math.min(iterations, 2000); i++) {
+                thymeleaf(template, inputs.get(i));
+                renderer.render(template, LOCALE, APP_NAME, inputs.get(i));
+            }
+
+            long start = System.nanoTime();
+            for (Map<String, String> input : inputs) {
+                thymeleaf(template, input);
+            }
+            long thymeleafNanos = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (Map<String, String> input : inputs) {
+                renderer.render(template, LOCALE, APP_NAME, input);
+            }
+            long cachedNanos = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            renderer.renderBatch(template, LOCALE, APP_NAME, inputs);
+            long batchNanos = (System.nanoTime() - start) / iterations;
+
+            log.info("{}: thymeleaf {} us/msg, cached {} us/msg, batch {} us/msg",
+                    template, thymeleafNanos / 1000.0, cachedNanos / 1000.0, batchNanos / 1000.0);
+        }
+    }
+
+    private String thymeleaf(String template, Map<String, String> variables) {
+        Context context = new Context(LOCALE);
+        variables.forEach(context::setVariable);
+        context.setVariable("appName", APP_NAME);
+        return templateEngine.process(template, context);
+    }
+
+    private static Map<String, String> variables(String userName, String code) {
+        return Map.of(
+                "userName", userName,
+                "verificationCode", code,
+                "resetToken", code,
+                "resetUrl", "http://localhost:3000/reset-password&token=" + code + "&x=<y>",
+                "changedAt", "18/10/2026 10:" + code.substring(0, 2));
+    }
+}
@@ -0,0 +1,105 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import com.pappgroup.pappapp.repository.PropertyRepository;
+import com.pappgroup.pappapp.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Yeniden kurulum kartları yerinde düzeltir, yayından kalkanları siler; kartta olmayan sıralama reddedilir
+@SpringBootTest
+@Transactional
+class ListingCardServiceTests {
+
+    @Autowired
+    private ListingCardService listingCardService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Property published;
+    private Property unpublished;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setEmail("listing-cards@example.com");
+        owner.setFirstName("Kart");
+        owner.setLastName("Sahibi");
+        userRepository.save(owner);
+
+        published = propertyRepository.save(property(owner, "Yayındaki ilan"));
+        unpublished = propertyRepository.save(property(owner, "Yayından kalkacak ilan"));
+        entityManager.flush();
+        listingCardService.rebuild();
+    }
+
+    @Test
+    void rebuildRepairsDriftAndRemovesUnpublishedCards() {
+        jdbcTemplate.update("UPDATE listing_cards SET favorite_count = 99, view_count = 7 WHERE property_id = ?",
+                published.getId());
+        jdbcTemplate.update("UPDATE properties SET active = false WHERE id = ?", unpublished.getId());
+
+        listingCardService.rebuild();
+
+        List<Long> favoriteCounts = jdbcTemplate.queryForList(
+                "SELECT favorite_count FROM listing_cards WHERE property_id = ?", Long.class, published.getId());
+        assertThat(favoriteCounts).containsExactly(0L);
+        assertThat(jdbcTemplate.queryForObject("SELECT view_count FROM listing_cards WHERE property_id = ?",
+                Long.class, published.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM listing_cards WHERE property_id = ?",
+                Long.class, unpublished.getId())).isZero();
+    }
+
+    @Test
+    void feedRejectsSortOnPropertyOnlyField() {
+        assertThatThrownBy(() -> propertyService.getAllActiveProperties(PageRequest.of(0, 10, Sort.by("updatedAt"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("updatedAt");
+        assertThat(propertyService.getAllActiveProperties(PageRequest.of(0, 10, Sort.by("price"))).getContent())
+                .isNotEmpty();
+    }
+
+    private static Property property(User owner, String title) {
+        Property property = new Property();
+        property.setTitle(title);
+        property.setListingType(ListingType.SALE);
+        property.setPropertyType(PropertyType.RESIDENTIAL);
+        property.setCity("İzmir");
+        property.setDistrict("Karşıyaka");
+        property.setNeighborhood("Bostanlı");
+        property.setPrice(BigDecimal.valueOf(2_500_000));
+        property.setApproved(true);
+        property.setActive(true);
+        property.setUser(owner);
+        return property;
+    }
+}
@@ -0,0 +1,142 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.Message;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.MessageRepository;
+import com.pappgroup.pappapp.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Uzun bir konuşmada okundu işaretleme ve silme: mesaj mesaj (eski yol) ile toplu UPDATE karşılaştırması.
+// Varsayılan olarak çalışmaz:
+//   mvn test -Dtest=MessageBulkOperationsBenchmarkTests -Dmessages.benchmark.size=50000
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "messages.benchmark.size", matches = "\\d+")
+@Slf4j
+class MessageBulkOperationsBenchmarkTests {
+
+    private static final String RESET_SQL = "UPDATE messages SET is_read = false, read_at = NULL, "
+            + "deleted_by_sender = false, deleted_by_receiver = false WHERE sender_id IN (?, ?)";
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessagePurger messagePurger;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int size;
+    private Long buyerId;
+    private Long sellerId;
+
+    @BeforeEach
+    void setUp() {
+        size = Integer.parseInt(System.getProperty("messages.benchmark.size"));
+        buyerId = createUser("bench-buyer@example.com").getId();
+        sellerId = createUser("bench-seller@example.com").getId();
+
+        // Sırayla iki yönlü, hepsi okunmamış
+        jdbcTemplate.update("INSERT INTO messages (sender_id, receiver_id, content, is_read, created_at, updated_at, "
+                        + "deleted_by_sender, deleted_by_receiver) "
+                        + "SELECT CASE WHEN g % 2 = 0 THEN ? ELSE ? END, CASE WHEN g % 2 = 0 THEN ? ELSE ? END, "
+                        + "'mesaj ' || g, false, now(), now(), false, false FROM generate_series(1, ?) g",
+                buyerId, sellerId, sellerId, buyerId, size);
+        jdbcTemplate.execute("ANALYZE messages");
+    }
+
+    @Test
+    void markConversationAsRead() {
+        long perEntity = time("read, per entity", () -> {
+            List<Message> unread = messageRepository.findUnreadMessagesBetweenUsers(buyerId, sellerId);
+            LocalDateTime readAt = LocalDateTime.now();
+            unread.forEach(m -> {
+                m.setIsRead(true);
+                m.setReadAt(readAt);
+            });
+            messageRepository.saveAll(unread);
+            entityManager.flush();
+            return unread.size();
+        });
+        reset();
+
+        long setBased = time("read, set-based", () -> messageService.markConversationAsRead(buyerId, sellerId));
+
+        assertThat(messageRepository.countUnreadBetweenUsers(buyerId, sellerId)).isZero();
+        log.info("markConversationAsRead speedup: {}x", String.format("%.1f", (double) perEntity / setBased));
+    }
+
+    @Test
+    void deleteConversationAndPurge() {
+        long perEntity = time("delete, per entity", () -> {
+            List<Message> messages = messageRepository.findConversationBetweenUsers(buyerId, sellerId);
+            LocalDateTime deletedAt = LocalDateTime.now();
+            for (Message m : messages) {
+                if (m.getSender().getId().equals(buyerId)) {
+                    m.setDeletedBySender(true);
+                    m.setSenderDeletedAt(deletedAt);
+                } else {
+                    m.setDeletedByReceiver(true);
+                    m.setReceiverDeletedAt(deletedAt);
+                }
+            }
+            messageRepository.saveAll(messages);
+            entityManager.flush();
+            return messages.size();
+        });
+        reset();
+
+        long setBased = time("delete, set-based", () -> messageService.deleteConversation(buyerId, sellerId));
+        log.info("deleteConversation speedup: {}x", String.format("%.1f", (double) perEntity / setBased));
+
+        messageService.deleteConversation(sellerId, buyerId);
+        time("purge", messagePurger::purge);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM messages WHERE sender_id IN (?, ?)",
+                Long.class, buyerId, sellerId)).isZero();
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("Bench");
+        user.setLastName("User");
+        return userRepository.saveAndFlush(user);
+    }
+
+    private void reset() {
+        entityManager.clear();
+        jdbcTemplate.update(RESET_SQL, buyerId, sellerId);
+    }
+
+    private long time(String label, Supplier<Integer> operation) {
+        long start = System.nanoTime();
+        int rows = operation.get();
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("{}: {} rows in {} ms ({} messages in thread)", label, rows, elapsedMs, size);
+        return elapsedMs;
+    }
+}
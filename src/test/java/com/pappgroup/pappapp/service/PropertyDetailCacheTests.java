@@ -0,0 +1,39 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.response.PropertyResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Yükleme sürerken başka instance'tan gelen evict, yüklenen eski cevabın L2'ye yazılmasını engeller
+class PropertyDetailCacheTests {
+
+    private final InMemoryPropertyDetailSharedCache shared = new InMemoryPropertyDetailSharedCache();
+    private final PropertyDetailCache cache = new PropertyDetailCache(shared, new SimpleMeterRegistry(), 100, 60);
+
+    @Test
+    void evictDuringLoadKeepsStaleResponseOutOfSharedCache() {
+        PropertyResponse stale = new PropertyResponse();
+
+        Optional<PropertyResponse> loaded = cache.get(1L, id -> {
+            shared.evict(id);
+            return Optional.of(stale);
+        });
+
+        assertThat(loaded).containsSame(stale);
+        assertThat(shared.get(1L)).isEmpty();
+    }
+
+    @Test
+    void loadWithoutEvictIsShared() {
+        PropertyResponse fresh = new PropertyResponse();
+        shared.evict(1L);
+
+        cache.get(1L, id -> Optional.of(fresh));
+
+        assertThat(shared.get(1L)).containsSame(fresh);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import com.pappgroup.pappapp.repository.PropertyRepository;
+import com.pappgroup.pappapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Başka instance'ta yayından kaldırılan ilan, updated_at akışıyla bu instance'ın index'inden de düşer
+@SpringBootTest
+class PropertySearchIndexSyncTests {
+
+    private static final String CITY = "Senkron Şehri";
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setEmail("index-sync@example.com");
+        owner.setFirstName("Index");
+        owner.setLastName("Sync");
+        owner = userRepository.saveAndFlush(owner);
+
+        property = new Property();
+        property.setTitle("Senkron ilanı");
+        property.setListingType(ListingType.SALE);
+        property.setPropertyType(PropertyType.RESIDENTIAL);
+        property.setCity(CITY);
+        property.setDistrict("Merkez");
+        property.setNeighborhood("Çarşı");
+        property.setPrice(BigDecimal.valueOf(900_000));
+        property.setApproved(true);
+        property.setActive(true);
+        property.setUser(owner);
+        property = propertyRepository.saveAndFlush(property);
+        propertyService.rebuildSearchIndex();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM listing_cards WHERE property_id = ?", property.getId());
+        propertyRepository.deleteById(property.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void changeMadeOnAnotherInstanceReachesTheIndex() {
+        assertThat(searchCity()).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE properties SET active = false, updated_at = now() WHERE id = ?", property.getId());
+        assertThat(searchCity()).isEqualTo(1);
+
+        propertyService.syncSearchIndexChanges();
+        assertThat(searchCity()).isZero();
+    }
+
+    private long searchCity() {
+        PropertySearchRequest request = new PropertySearchRequest();
+        request.setCity(CITY);
+        return propertyService.searchProperties(request, PageRequest.of(0, 10)).getTotalElements();
+    }
+}
@@ -0,0 +1,158 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.request.PropertySearchRequest;
+import com.pappgroup.pappapp.dto.response.PropertySummaryResponse;
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Index kartları listing_cards'taki artımlı değişiklikleri izler; bilinmeyen sıralama alanı reddedilir
+class PropertySearchIndexTests {
+
+    private PropertySearchIndex index;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        index = new PropertySearchIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        owner = new User();
+        owner.setId(7L);
+
+        PropertySearchIndex.Rebuild rebuild = index.beginRebuild();
+        rebuild.add(property(1L, "100000", 3, 2), card(1L, "Ayşe Yılmaz", 2L, 1L));
+        rebuild.add(property(2L, "200000", 0, 0), card(2L, "Ayşe Yılmaz", 0L, 0L));
+        rebuild.commit();
+    }
+
+    @Test
+    void cardDeltasAreAppliedWithoutReplacingReturnedCards() {
+        PropertySummaryResponse before = search(Sort.by("id")).get(0);
+
+        index.addRating(1L, 4, 1);
+        index.addFavorites(1L, 1);
+        index.addViews(List.<Object[]>of(new Object[]{5L, 1L}));
+        index.updateOwnerDisplayName(7L, "Ayşe Demir");
+
+        PropertySummaryResponse after = search(Sort.by("id")).get(0);
+        assertThat(after.getRatingCount()).isEqualTo(3L);
+        assertThat(after.getAverageRating()).isEqualTo(7.0 / 3);
+        assertThat(after.getFavoriteCount()).isEqualTo(2L);
+        assertThat(after.getViewCount()).isEqualTo(5L);
+        assertThat(after.getOwnerDisplayName()).isEqualTo("Ayşe Demir");
+        assertThat(before.getViewCount()).isEqualTo(0L);
+        assertThat(before.getOwnerDisplayName()).isEqualTo("Ayşe Yılmaz");
+    }
+
+    @Test
+    void flushedViewsChangeViewCountOrder() {
+        assertThat(search(Sort.by(Sort.Order.desc("viewCount")))).extracting(PropertySummaryResponse::getId)
+                .containsExactly(2L, 1L);
+
+        index.addViews(List.<Object[]>of(new Object[]{3L, 1L}));
+
+        assertThat(search(Sort.by(Sort.Order.desc("viewCount")))).extracting(PropertySummaryResponse::getId)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void deltasDuringRebuildAreNotReplayedButReportedAsStale() {
+        PropertySearchIndex.Rebuild rebuild = index.beginRebuild();
+        // Rebuild satırı okuduğunda görüntülenme zaten veritabanına yansımıştı
+        index.addViews(List.<Object[]>of(new Object[]{5L, 1L}));
+        Property read = property(1L, "100000", 3, 2);
+        read.setViewCount(5L);
+        PropertySummaryResponse readCard = card(1L, "Ayşe Yılmaz", 2L, 1L);
+        readCard.setViewCount(5L);
+        rebuild.add(read, readCard);
+        rebuild.add(property(2L, "200000", 0, 0), card(2L, "Ayşe Yılmaz", 0L, 0L));
+        index.remove(2L);
+
+        assertThat(rebuild.commit()).containsExactly(1L);
+        assertThat(search(Sort.by("id"))).extracting(PropertySummaryResponse::getViewCount).containsExactly(5L);
+    }
+
+    @Test
+    void removingOwnerDropsTheirListings() {
+        index.removeOwner(7L);
+
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void nullPriceAndFlagsMatchNoFilterLikeSql() {
+        Property unknown = property(3L, "0", 0, 0);
+        unknown.setPrice(null);
+        unknown.setFurnished(null);
+        PropertySearchIndex.Rebuild rebuild = index.beginRebuild();
+        rebuild.add(property(1L, "100000", 3, 2), card(1L, "Ayşe Yılmaz", 2L, 1L));
+        rebuild.add(unknown, card(3L, "Ayşe Yılmaz", 0L, 0L));
+        rebuild.commit();
+
+        PropertySearchRequest cheap = new PropertySearchRequest();
+        cheap.setMaxPrice(new BigDecimal("150000"));
+        PropertySearchRequest unfurnished = new PropertySearchRequest();
+        unfurnished.setFurnished(false);
+
+        assertThat(index.search(cheap, PageRequest.of(0, 10)).getContent())
+                .extracting(PropertySummaryResponse::getId).containsExactly(1L);
+        assertThat(index.search(unfurnished, PageRequest.of(0, 10)).getContent())
+                .extracting(PropertySummaryResponse::getId).containsExactly(1L);
+        assertThat(index.facets(new PropertySearchRequest()).getPriceBuckets().values()).containsExactly(1L);
+        assertThat(search(Sort.by(Sort.Order.desc("price")))).extracting(PropertySummaryResponse::getId)
+                .containsExactly(3L, 1L);
+    }
+
+    @Test
+    void unknownSortPropertyIsRejected() {
+        assertThatThrownBy(() -> search(Sort.by("updatedAt")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("updatedAt");
+    }
+
+    private List<PropertySummaryResponse> search(Sort sort) {
+        return index.search(new PropertySearchRequest(), PageRequest.of(0, 10, sort)).getContent();
+    }
+
+    private Property property(Long id, String price, long ratingSum, long ratingCount) {
+        Property property = new Property();
+        property.setId(id);
+        property.setUser(owner);
+        property.setApproved(true);
+        property.setActive(true);
+        property.setListingType(ListingType.SALE);
+        property.setPropertyType(PropertyType.RESIDENTIAL);
+        property.setCity("İstanbul");
+        property.setDistrict("Kadıköy");
+        property.setPrice(new BigDecimal(price));
+        property.setViewCount(0L);
+        property.setRatingSum(ratingSum);
+        property.setRatingCount(ratingCount);
+        property.setCreatedAt(LocalDateTime.now());
+        return property;
+    }
+
+    private static PropertySummaryResponse card(Long id, String ownerDisplayName, long ratingCount, long favoriteCount) {
+        PropertySummaryResponse card = new PropertySummaryResponse();
+        card.setId(id);
+        card.setViewCount(0L);
+        card.setOwnerDisplayName(ownerDisplayName);
+        card.setRatingCount(ratingCount);
+        card.setAverageRating(ratingCount > 0 ? 3.0 / ratingCount : 0.0);
+        card.setFavoriteCount(favoriteCount);
+        return card;
+    }
+}
@@ -0,0 +1,114 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.dto.response.PropertyResponse;
+import com.pappgroup.pappapp.entity.Property;
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.enums.ListingType;
+import com.pappgroup.pappapp.enums.PropertyType;
+import com.pappgroup.pappapp.repository.PropertyRepository;
+import com.pappgroup.pappapp.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Liste sayfalarında sorgu sayısı sayfa boyutundan bağımsız olmalı (N+1 yok)
+@SpringBootTest
+@Transactional
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PropertyServiceQueryCountTests {
+
+    private static final int LISTINGS = 12;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User owner = new User();
+        owner.setEmail("query-count@example.com");
+        owner.setFirstName("Query");
+        owner.setLastName("Count");
+        userRepository.save(owner);
+
+        for (int i = 0; i < LISTINGS; i++) {
+            Property property = new Property();
+            property.setTitle("Query count listing " + i);
+            property.setListingType(ListingType.SALE);
+            property.setPropertyType(PropertyType.RESIDENTIAL);
+            property.setCity("Ankara");
+            property.setDistrict("Çankaya");
+            property.setNeighborhood("Kızılay");
+            property.setPrice(BigDecimal.valueOf(1_000_000 + i));
+            property.setImageUrls(List.of("https://example.com/" + i + "-a.jpg", "https://example.com/" + i + "-b.jpg"));
+            property.setUser(owner);
+            propertyRepository.save(property);
+        }
+
+        // Sonraki yüklemeler persistence context'ten değil veritabanından gelsin
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pendingApprovalPageUsesConstantQueryCount() {
+        long smallPage = statementsFor(() -> propertyService.getPendingApprovalProperties(PageRequest.of(0, 3)).getContent());
+        long largePage = statementsFor(() -> propertyService.getPendingApprovalProperties(PageRequest.of(0, 10)).getContent());
+
+        // sayfa (kullanıcı join'li) + count + resimler için tek batch
+        assertThat(largePage).isEqualTo(smallPage);
+        assertThat(largePage).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void reportedPageUsesConstantQueryCount() {
+        propertyRepository.findAll().forEach(property -> property.setReported(true));
+        entityManager.flush();
+        entityManager.clear();
+
+        long smallPage = statementsFor(() -> propertyService.getReportedProperties(PageRequest.of(0, 3)).getContent());
+        long largePage = statementsFor(() -> propertyService.getReportedProperties(PageRequest.of(0, 10)).getContent());
+
+        assertThat(largePage).isEqualTo(smallPage);
+        assertThat(largePage).isLessThanOrEqualTo(3);
+    }
+
+    // Resim listeleri de okunur; lazy koleksiyonlar sadece aktarılırsa N+1 görünmez
+    private long statementsFor(Supplier<List<PropertyResponse>> pageLoader) {
+        entityManager.clear();
+        statistics.clear();
+        List<PropertyResponse> page = pageLoader.get();
+        assertThat(page).isNotEmpty();
+        page.forEach(response -> assertThat(List.copyOf(response.getImageUrls())).hasSize(2));
+        return statistics.getPrepareStatementCount();
+    }
+}
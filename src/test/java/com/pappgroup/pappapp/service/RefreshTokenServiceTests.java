@@ -0,0 +1,219 @@
+package com.pappgroup.pappapp.service;
+
+import com.pappgroup.pappapp.entity.User;
+import com.pappgroup.pappapp.repository.UserRepository;
+import com.pappgroup.pappapp.security.JwtTokenProvider;
+import com.pappgroup.pappapp.security.RevokedTokenFamilies;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Refresh token rotation, tekrar kullanım tespiti ve iptal listesinin açılışta bloom filter'dan yüklenmesi.
+// Milyonlarca iptal edilmiş aile ile yükleme ve kontrol ölçümü varsayılan olarak çalışmaz:
+//   mvn test -Dtest=RefreshTokenServiceTests -Drefresh.benchmark.families=1000000
+@SpringBootTest
+@Slf4j
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private RevokedTokenFamilies revokedFamilies;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("refresh-tokens@example.com");
+        user.setFirstName("Refresh");
+        user.setLastName("Token");
+        user = userRepository.saveAndFlush(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void refreshTokenRotatesAndReuseRevokesTheFamily() {
+        RefreshTokenService.IssuedTokens first = refreshTokenService.issue(user);
+        RefreshTokenService.IssuedTokens second = refreshTokenService.rotate(first.refreshToken());
+
+        assertThat(second.refreshToken()).isNotEqualTo(first.refreshToken());
+        assertThat(second.user().getId()).isEqualTo(user.getId());
+        assertThat(familyOf(second.accessToken())).isEqualTo(familyOf(first.refreshToken()));
+
+        // Eski token grace süresi geçtikten sonra tekrar geldi: aile iptal edilir, güncel token da artık geçmez
+        jdbcTemplate.update("UPDATE refresh_token_families SET rotated_at = rotated_at - interval '1 hour' WHERE id = ?",
+                familyOf(first.refreshToken()));
+        assertThatThrownBy(() -> refreshTokenService.rotate(first.refreshToken()))
+                .hasMessage("Refresh token reuse detected");
+        assertThat(revokedFamilies.isRevoked(familyOf(first.refreshToken()))).isTrue();
+        assertThatThrownBy(() -> refreshTokenService.rotate(second.refreshToken()))
+                .hasMessage("Refresh token has been revoked");
+    }
+
+    @Test
+    void parallelRefreshWithinGraceWindowKeepsTheFamily() {
+        RefreshTokenService.IssuedTokens first = refreshTokenService.issue(user);
+        RefreshTokenService.IssuedTokens second = refreshTokenService.rotate(first.refreshToken());
+
+        // Aynı token'la ikinci istek: ilk isteğin ürettiği güncel token tekrar verilir
+        RefreshTokenService.IssuedTokens parallel = refreshTokenService.rotate(first.refreshToken());
+
+        assertThat(tokenIdOf(parallel.refreshToken())).isEqualTo(tokenIdOf(second.refreshToken()));
+        assertThat(revokedFamilies.isRevoked(familyOf(first.refreshToken()))).isFalse();
+        assertThat(refreshTokenService.rotate(parallel.refreshToken()).accessToken()).isNotNull();
+    }
+
+    @Test
+    void legacyRefreshTokenIsExchangedOnce() {
+        SecretKey signingKey = (SecretKey) ReflectionTestUtils.getField(tokenProvider, "signingKey");
+        // Aileler öncesi format: sadece subject, iat ve exp
+        String legacy = Jwts.builder()
+                .setSubject(user.getEmail())
+                .setIssuedAt(Date.from(Instant.now().minusSeconds(60)))
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(signingKey)
+                .compact();
+
+        RefreshTokenService.IssuedTokens exchanged = refreshTokenService.rotate(legacy);
+
+        assertThat(familyOf(exchanged.refreshToken())).isNotNull();
+        assertThat(refreshTokenService.rotate(exchanged.refreshToken()).accessToken()).isNotNull();
+        assertThatThrownBy(() -> refreshTokenService.rotate(legacy))
+                .hasMessage("Refresh token has been revoked");
+    }
+
+    @Test
+    void logoutRevokesTheFamily() {
+        RefreshTokenService.IssuedTokens tokens = refreshTokenService.issue(user);
+
+        authService.logout(tokens.accessToken());
+
+        assertThat(revokedFamilies.isRevoked(familyOf(tokens.accessToken()))).isTrue();
+        assertThatThrownBy(() -> refreshTokenService.rotate(tokens.refreshToken()))
+                .hasMessage("Refresh token has been revoked");
+    }
+
+    @Test
+    void disablingTheAccountRevokesAllFamilies() {
+        RefreshTokenService.IssuedTokens first = refreshTokenService.issue(user);
+        RefreshTokenService.IssuedTokens second = refreshTokenService.issue(user);
+
+        adminService.updateUserStatus(user.getId(), false);
+        adminService.updateUserStatus(user.getId(), true);
+
+        assertThat(revokedFamilies.isRevoked(familyOf(first.refreshToken()))).isTrue();
+        assertThat(revokedFamilies.isRevoked(familyOf(second.refreshToken()))).isTrue();
+        assertThatThrownBy(() -> refreshTokenService.rotate(second.refreshToken()))
+                .hasMessage("Refresh token has been revoked");
+    }
+
+    @Test
+    void familyOpenedBeforeEpochBumpIsNotRotated() {
+        RefreshTokenService.IssuedTokens tokens = refreshTokenService.issue(user);
+        jdbcTemplate.update("UPDATE users SET token_epoch = token_epoch + 1 WHERE id = ?", user.getId());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(tokens.refreshToken()))
+                .hasMessage("Refresh token has been revoked");
+        assertThat(revokedFamilies.isRevoked(familyOf(tokens.refreshToken()))).isTrue();
+    }
+
+    @Test
+    void revocationsAreReloadedOnStartup() {
+        RefreshTokenService.IssuedTokens revoked = refreshTokenService.issue(user);
+        RefreshTokenService.IssuedTokens active = refreshTokenService.issue(user);
+        refreshTokenService.revoke(familyOf(revoked.refreshToken()));
+
+        revokedFamilies.reload();
+
+        assertThat(revokedFamilies.isRevoked(familyOf(revoked.refreshToken()))).isTrue();
+        assertThat(revokedFamilies.isRevoked(familyOf(active.refreshToken()))).isFalse();
+        assertThat(refreshTokenService.rotate(active.refreshToken()).accessToken()).isNotNull();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "refresh.benchmark.families", matches = "\\d+")
+    void loadAndLookupWithManyRevokedFamilies() {
+        int families = Integer.parseInt(System.getProperty("refresh.benchmark.families"));
+        jdbcTemplate.update("INSERT INTO refresh_token_families "
+                + "(id, user_id, current_token_id, token_epoch, expires_at, revoked_at, created_at) "
+                + "SELECT gen_random_uuid(), ?, gen_random_uuid(), 0, now() + interval '7 days', now(), now() "
+                + "FROM generate_series(1, ?)", user.getId(), families);
+        List<UUID> revokedIds = jdbcTemplate.queryForList(
+                "SELECT id FROM refresh_token_families WHERE user_id = ? LIMIT 10000", UUID.class, user.getId());
+
+        long start = System.nanoTime();
+        revokedFamilies.reload();
+        log.info("reload of {} revoked families: {} ms", families, (System.nanoTime() - start) / 1_000_000);
+
+        List<UUID> unknownIds = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            unknownIds.add(UUID.randomUUID());
+        }
+        for (int round = 0; round < 3; round++) {
+            unknownIds.forEach(revokedFamilies::isRevoked);
+        }
+
+        start = System.nanoTime();
+        long falsePositives = unknownIds.stream().filter(revokedFamilies::isRevoked).count();
+        long unknownNanos = (System.nanoTime() - start) / unknownIds.size();
+        assertThat(falsePositives).isZero();
+
+        start = System.nanoTime();
+        assertThat(revokedIds).allMatch(revokedFamilies::isRevoked);
+        long revokedMicros = (System.nanoTime() - start) / 1000 / revokedIds.size();
+
+        log.info("isRevoked, not revoked: {} ns; revoked (bloom hit, first check confirmed in DB): {} us",
+                unknownNanos, revokedMicros);
+        start = System.nanoTime();
+        assertThat(revokedIds).allMatch(revokedFamilies::isRevoked);
+        log.info("isRevoked, revoked (confirmed, cached): {} ns", (System.nanoTime() - start) / revokedIds.size());
+
+        revokedFamilies.reload();
+    }
+
+    private UUID familyOf(String token) {
+        return tokenProvider.parseToken(token).familyId();
+    }
+
+    private UUID tokenIdOf(String token) {
+        return tokenProvider.parseToken(token).tokenId();
+    }
+}